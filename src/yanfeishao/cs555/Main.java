@@ -1,20 +1,64 @@
 package yanfeishao.cs555;
 
+import yanfeishao.cs555.utils.BatchUtils;
 import yanfeishao.cs555.utils.ParserUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Created by Yanfei Shao on 2015.
  */
 public class Main {
 
+    private static final String BATCH = "--batch";
+    private static final String THREADS = "--threads";
+    private static final String OUT = "--out";
+    private static final String SNAPSHOT = "--snapshot";
+
     /**
      * The entry point of application.
      *
      * @param args
-     *         the input arguments
+     *         the input arguments, either the GEDCOM path and an optional number of parser threads, the GEDCOM path
+     *         and {@code --snapshot FILE} to reuse the tree parsed by an earlier run while the file is unchanged, or
+     *         {@code --batch [--threads N] [--out DIR] PATH...} where a PATH is a file, a directory or an @manifest
+     *
+     * @throws IOException
+     *         the io exception
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && BATCH.equals(args[0])) {
+            batch(Arrays.asList(args).subList(1, args.length));
+            return;
+        }
         ParserUtils parserUtils = ParserUtils.createParserFactory();
-        parserUtils.readGEDCOM(args[0]);
+        if (args.length > 2 && SNAPSHOT.equals(args[1])) {
+            parserUtils.readGEDCOM(args[0], Paths.get(args[2]));
+        } else if (args.length > 1) {
+            parserUtils.readGEDCOM(args[0], Integer.parseInt(args[1]));
+        } else {
+            parserUtils.readGEDCOM(args[0]);
+        }
+    }
+
+    private static void batch(List<String> args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        File outputDirectory = null;
+        List<String> arguments = new ArrayList<>();
+        for (int index = 0; index < args.size(); index++) {
+            if (THREADS.equals(args.get(index)) && index + 1 < args.size()) {
+                threads = Integer.parseInt(args.get(++index));
+            } else if (OUT.equals(args.get(index)) && index + 1 < args.size()) {
+                outputDirectory = new File(args.get(++index));
+            } else {
+                arguments.add(args.get(index));
+            }
+        }
+        BatchUtils.createBatchFactory(threads, outputDirectory).readGEDCOMBatch(BatchUtils.collectPaths(arguments));
     }
 }
@@ -48,6 +48,18 @@ public class ErrorCode {
      * The constant US16.
      */
     public static final String US16 = "US16";
+    /**
+     * The constant US17.
+     */
+    public static final String US17 = "US17";
+    /**
+     * The constant US18.
+     */
+    public static final String US18 = "US18";
+    /**
+     * The constant US19.
+     */
+    public static final String US19 = "US19";
     /**
      * The constant US21.
      */
@@ -60,6 +72,10 @@ public class ErrorCode {
      * The constant US25.
      */
     public static final String US25 = "US25";
+    /**
+     * The constant US26.
+     */
+    public static final String US26 = "CODE US26\nCATEGORY: ERROR";
     /**
      * The constant US29.
      */
@@ -48,6 +48,18 @@ public class ErrorInfo {
      * The constant US16.
      */
     public static final String US16 = "Male members [PersonId: %s Name: %s] of a family [%s] have not the same last name [%s]\n";
+    /**
+     * The constant US17.
+     */
+    public static final String US17 = "Parents should not marry any of their descendants, in family [%s] the %s [PersonId: %s Name: %s] is a descendant of the %s [PersonId: %s Name: %s]\n";
+    /**
+     * The constant US18.
+     */
+    public static final String US18 = "Siblings should not marry one another, in family [%s] the husband [PersonId: %s Name: %s] and the wife [PersonId: %s Name: %s] share a parent [PersonId: %s Name: %s]\n";
+    /**
+     * The constant US19.
+     */
+    public static final String US19 = "First cousins should not marry one another, in family [%s] the husband [PersonId: %s Name: %s] and the wife [PersonId: %s Name: %s] share a grandparent [PersonId: %s Name: %s]\n";
     /**
      * The constant US21.
      */
@@ -60,6 +72,10 @@ public class ErrorInfo {
      * The constant US25.
      */
     public static final String US25 = "Child [PersonId: %s Name: %s Birth Date: %s] and child [PersonId: %s Name: %s Birth Date: %s] have the same name and birth date in family %s";
+    /**
+     * The constant US26.
+     */
+    public static final String US26 = "Family %s lists %s [Identifier: %s] but no individual record has that identifier";
     /**
      * The constant US29.
      */
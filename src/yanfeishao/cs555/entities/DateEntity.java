@@ -0,0 +1,36 @@
+package yanfeishao.cs555.entities;
+
+import lombok.Data;
+import yanfeishao.cs555.enums.DatePrecision;
+import yanfeishao.cs555.enums.DateQualifier;
+
+import java.util.Date;
+
+/**
+ * An immutable parsed GEDCOM date. The time is the local midnight of the first day the date covers, so a year only
+ * date points at the 1st of January.
+ */
+@Data
+public class DateEntity {
+    private final long time;
+    private final DatePrecision precision;
+    private final DateQualifier qualifier;
+
+    /**
+     * Is exact boolean.
+     *
+     * @return true if the date names a day without a qualifier
+     */
+    public boolean isExact() {
+        return precision == DatePrecision.DAY && qualifier == DateQualifier.EXACT;
+    }
+
+    /**
+     * To date date.
+     *
+     * @return a new Date for the time
+     */
+    public Date toDate() {
+        return new Date(time);
+    }
+}
@@ -0,0 +1,32 @@
+package yanfeishao.cs555.entities;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The version of the person and family entities: every setter of an entity that changes what it holds moves it on,
+ * whatever db the entity is in. A db compares it with the version its columns were built at, so a change made through
+ * the setters of an entity it already holds is picked up the next time the columns are asked for.
+ */
+public final class EntityVersion {
+
+    private static final LongAdder VERSION = new LongAdder();
+
+    private EntityVersion() {
+    }
+
+    /**
+     * Gets the current version.
+     *
+     * @return the number of entity changes so far
+     */
+    public static long get() {
+        return VERSION.sum();
+    }
+
+    /**
+     * Record a change of an entity.
+     */
+    static void changed() {
+        VERSION.increment();
+    }
+}
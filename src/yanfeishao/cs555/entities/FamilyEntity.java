@@ -1,27 +1,297 @@
 package yanfeishao.cs555.entities;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+import yanfeishao.cs555.utils.CommonUtils;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Created by Yanfei Shao on 2015.
+ * <p>
+ * The husband, wife and children are kept as indices into the person db, {@link #NO_PERSON} when the pointer is
+ * missing or names no individual, and dates as local epoch days. The entity accessors look the individuals up
+ * through {@link #getPersons()}, which the db sets when the pointers are linked, and find nobody before that.
+ * <p>
+ * The entity setters resolve an individual to its index in the same db through {@link #getPersonIndices()}, which the
+ * db sets along with the persons, so the indices always mean the same thing. A family that no db has linked can only be
+ * given indices. Every setter that changes a member, an index or a date moves the {@link EntityVersion} on; the array
+ * of {@link #getChildIndices()} must not be written to.
  */
 @Data
+@EqualsAndHashCode(exclude = {"persons", "personIndices"})
+@ToString(exclude = {"persons", "personIndices"})
 public class FamilyEntity {
+
+    /**
+     * The constant NO_PERSON.
+     */
+    public static final int NO_PERSON = -1;
+
+    private static final int[] NO_CHILDREN = new int[0];
+
     private String identifier;
-    private PersonEntity father;
-    private PersonEntity mother;
-    private Date marriedDate;
-    private Date divorceDate;
-    private List<PersonEntity> childList;
+    private int fatherIndex = NO_PERSON;
+    private int motherIndex = NO_PERSON;
+    private int marriedDay = CommonUtils.UNKNOWN_DAY;
+    private int divorceDay = CommonUtils.UNKNOWN_DAY;
+    private int[] childIndices;
+    @Setter(AccessLevel.NONE)
+    private IntFunction<PersonEntity> persons;
+    @Setter(AccessLevel.NONE)
+    private ToIntFunction<String> personIndices;
 
     /**
      * Instantiates a new Family entity.
      */
     public FamilyEntity() {
-        childList = new ArrayList<>();
+        childIndices = NO_CHILDREN;
+    }
+
+    /**
+     * Sets identifier.
+     *
+     * @param identifier
+     *         the identifier
+     */
+    public void setIdentifier(String identifier) {
+        this.identifier = identifier;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets father index.
+     *
+     * @param fatherIndex
+     *         the father index
+     */
+    public void setFatherIndex(int fatherIndex) {
+        this.fatherIndex = fatherIndex;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets mother index.
+     *
+     * @param motherIndex
+     *         the mother index
+     */
+    public void setMotherIndex(int motherIndex) {
+        this.motherIndex = motherIndex;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets married day.
+     *
+     * @param marriedDay
+     *         the married day
+     */
+    public void setMarriedDay(int marriedDay) {
+        this.marriedDay = marriedDay;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets divorce day.
+     *
+     * @param divorceDay
+     *         the divorce day
+     */
+    public void setDivorceDay(int divorceDay) {
+        this.divorceDay = divorceDay;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets child indices.
+     *
+     * @param childIndices
+     *         the child indices
+     */
+    public void setChildIndices(int[] childIndices) {
+        this.childIndices = childIndices;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Add a child.
+     *
+     * @param personIndex
+     *         the person index, or {@link #NO_PERSON}
+     *
+     * @return the place of the child in the child list
+     */
+    public int addChild(int personIndex) {
+        childIndices = Arrays.copyOf(childIndices, childIndices.length + 1);
+        childIndices[childIndices.length - 1] = personIndex;
+        EntityVersion.changed();
+        return childIndices.length - 1;
+    }
+
+    /**
+     * Sets child.
+     *
+     * @param slot
+     *         the place of the child in the child list
+     * @param personIndex
+     *         the person index, or {@link #NO_PERSON}
+     */
+    public void setChild(int slot, int personIndex) {
+        childIndices[slot] = personIndex;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets the persons and the person indices, the lookups of the db the family is linked to.
+     *
+     * @param persons
+     *         the individual of a person index
+     * @param personIndices
+     *         the person index of an identifier, -1 if the db has no such individual
+     */
+    public void setPersons(IntFunction<PersonEntity> persons, ToIntFunction<String> personIndices) {
+        this.persons = persons;
+        this.personIndices = personIndices;
+    }
+
+    /**
+     * Gets father.
+     *
+     * @return the father, or null
+     */
+    public PersonEntity getFather() {
+        return person(fatherIndex);
+    }
+
+    /**
+     * Sets father.
+     *
+     * @param father
+     *         the father, or null
+     */
+    public void setFather(PersonEntity father) {
+        setFatherIndex(indexOf(father));
+    }
+
+    /**
+     * Gets mother.
+     *
+     * @return the mother, or null
+     */
+    public PersonEntity getMother() {
+        return person(motherIndex);
+    }
+
+    /**
+     * Sets mother.
+     *
+     * @param mother
+     *         the mother, or null
+     */
+    public void setMother(PersonEntity mother) {
+        setMotherIndex(indexOf(mother));
+    }
+
+    /**
+     * Sets child list.
+     *
+     * @param childList
+     *         the children, null for a child that names no individual
+     */
+    public void setChildList(List<PersonEntity> childList) {
+        int[] children = new int[childList.size()];
+        for (int slot = 0; slot < children.length; slot++) {
+            children[slot] = indexOf(childList.get(slot));
+        }
+        setChildIndices(children);
+    }
+
+    /**
+     * Gets child list, a read only view with null in place of a child that names no individual, and empty while no db
+     * has linked the family.
+     *
+     * @return the child list
+     */
+    public List<PersonEntity> getChildList() {
+        if (persons == null) {
+            return Collections.emptyList();
+        }
+        return new AbstractList<PersonEntity>() {
+            @Override
+            public PersonEntity get(int index) {
+                return person(childIndices[index]);
+            }
+
+            @Override
+            public int size() {
+                return childIndices.length;
+            }
+        };
+    }
+
+    /**
+     * Gets married date.
+     *
+     * @return the married date
+     */
+    public Date getMarriedDate() {
+        return CommonUtils.toDate(marriedDay);
+    }
+
+    /**
+     * Sets married date.
+     *
+     * @param marriedDate
+     *         the married date
+     */
+    public void setMarriedDate(Date marriedDate) {
+        setMarriedDay(CommonUtils.toEpochDay(marriedDate));
+    }
+
+    /**
+     * Gets divorce date.
+     *
+     * @return the divorce date
+     */
+    public Date getDivorceDate() {
+        return CommonUtils.toDate(divorceDay);
+    }
+
+    /**
+     * Sets divorce date.
+     *
+     * @param divorceDate
+     *         the divorce date
+     */
+    public void setDivorceDate(Date divorceDate) {
+        setDivorceDay(CommonUtils.toEpochDay(divorceDate));
+    }
+
+    private PersonEntity person(int personIndex) {
+        return personIndex == NO_PERSON || persons == null ? null : persons.apply(personIndex);
+    }
+
+    private int indexOf(PersonEntity personEntity) {
+        if (personEntity == null) {
+            return NO_PERSON;
+        }
+        if (personIndices == null) {
+            throw new IllegalStateException(String.format("Family %s is not linked to a db", identifier));
+        }
+        int personIndex = personIndices.applyAsInt(personEntity.getIdentifier());
+        if (personIndex == NO_PERSON) {
+            throw new IllegalArgumentException(String.format("Individual %s is not in the db of family %s", personEntity.getIdentifier(), identifier));
+        }
+        return personIndex;
     }
 }
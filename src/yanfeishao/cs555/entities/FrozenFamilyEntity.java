@@ -0,0 +1,109 @@
+package yanfeishao.cs555.entities;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A family of a frozen SimpleDBUtils: a copy of another family whose setters throw
+ * {@link UnsupportedOperationException} and whose child indices are handed out as a copy. It equals the family it was
+ * copied from.
+ */
+public class FrozenFamilyEntity extends FamilyEntity {
+
+    /**
+     * Instantiates a new Frozen family entity.
+     *
+     * @param familyEntity
+     *         the family to copy
+     * @param persons
+     *         the function that looks up an individual of the frozen db by index
+     * @param personIndices
+     *         the function that looks up the index of an individual of the frozen db by identifier
+     */
+    public FrozenFamilyEntity(FamilyEntity familyEntity, IntFunction<PersonEntity> persons, ToIntFunction<String> personIndices) {
+        super.setIdentifier(familyEntity.getIdentifier());
+        super.setFatherIndex(familyEntity.getFatherIndex());
+        super.setMotherIndex(familyEntity.getMotherIndex());
+        super.setMarriedDay(familyEntity.getMarriedDay());
+        super.setDivorceDay(familyEntity.getDivorceDay());
+        super.setChildIndices(familyEntity.getChildIndices().clone());
+        super.setPersons(persons, personIndices);
+    }
+
+    @Override
+    public int[] getChildIndices() {
+        return super.getChildIndices().clone();
+    }
+
+    @Override
+    public int addChild(int personIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setChild(int slot, int personIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setIdentifier(String identifier) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFatherIndex(int fatherIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMotherIndex(int motherIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMarriedDay(int marriedDay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMarriedDate(Date marriedDate) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDivorceDay(int divorceDay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDivorceDate(Date divorceDate) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setChildIndices(int[] childIndices) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setPersons(IntFunction<PersonEntity> persons, ToIntFunction<String> personIndices) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFather(PersonEntity father) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMother(PersonEntity mother) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setChildList(List<PersonEntity> childList) {
+        throw new UnsupportedOperationException();
+    }
+}
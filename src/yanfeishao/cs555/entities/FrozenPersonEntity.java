@@ -0,0 +1,64 @@
+package yanfeishao.cs555.entities;
+
+import java.util.Date;
+
+/**
+ * An individual of a frozen SimpleDBUtils: a copy of another individual whose setters throw
+ * {@link UnsupportedOperationException}. It equals the individual it was copied from.
+ */
+public class FrozenPersonEntity extends PersonEntity {
+
+    /**
+     * Instantiates a new Frozen person entity.
+     *
+     * @param personEntity
+     *         the individual to copy
+     */
+    public FrozenPersonEntity(PersonEntity personEntity) {
+        super.setIdentifier(personEntity.getIdentifier());
+        super.setName(personEntity.getName());
+        super.setSexCode(personEntity.getSexCode());
+        super.setBirthDay(personEntity.getBirthDay());
+        super.setDeathDay(personEntity.getDeathDay());
+    }
+
+    @Override
+    public void setIdentifier(String identifier) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setName(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSexCode(byte sexCode) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSex(String sex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBirthDay(int birthDay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBirthDate(Date birthDate) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDeathDay(int deathDay) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDeathDate(Date deathDate) {
+        throw new UnsupportedOperationException();
+    }
+}
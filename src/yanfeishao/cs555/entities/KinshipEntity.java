@@ -0,0 +1,45 @@
+package yanfeishao.cs555.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * How two individuals are related: their nearest common ancestor and how many generations each of them is below it.
+ * Siblings are one generation below a parent they share, first cousins two below a grandparent; an individual in the
+ * line of the other is zero generations below them.
+ */
+@Data
+@AllArgsConstructor
+public class KinshipEntity {
+    private int commonAncestor;
+    private int personGenerations;
+    private int otherGenerations;
+
+    /**
+     * Gets cousin degree.
+     *
+     * @return 0 for siblings, 1 for first cousins, 2 for second cousins and so on, -1 when one is in the line of the
+     * other
+     */
+    public int getCousinDegree() {
+        return Math.min(personGenerations, otherGenerations) - 1;
+    }
+
+    /**
+     * Gets removal, the difference in generations, as in first cousins once removed.
+     *
+     * @return the removal
+     */
+    public int getRemoval() {
+        return Math.abs(personGenerations - otherGenerations);
+    }
+
+    /**
+     * Gets degree, the number of parent and child steps between the two individuals through the common ancestor.
+     *
+     * @return the degree
+     */
+    public int getDegree() {
+        return personGenerations + otherGenerations;
+    }
+}
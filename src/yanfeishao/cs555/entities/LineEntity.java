@@ -0,0 +1,191 @@
+package yanfeishao.cs555.entities;
+
+import yanfeishao.cs555.enums.GedcomTag;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable view of one tokenized GEDCOM line.
+ * <p>
+ * The view only keeps offsets into the tokenizer buffer, so it is valid until the next line is requested.
+ */
+public class LineEntity {
+    private ByteBuffer buffer;
+    private int level;
+    private int xrefStart;
+    private int xrefEnd;
+    private int tagStart;
+    private int tagEnd;
+    private int valueStart;
+    private int valueEnd;
+    private GedcomTag tag;
+    private byte[] scratch;
+
+    /**
+     * Instantiates a new Line entity.
+     */
+    public LineEntity() {
+        scratch = new byte[128];
+    }
+
+    /**
+     * Point the view at a tokenized line.
+     *
+     * @param buffer
+     *         the buffer holding the line
+     * @param level
+     *         the level number
+     * @param xrefStart
+     *         the xref start offset, or -1 without xref
+     * @param xrefEnd
+     *         the xref end offset
+     * @param tagStart
+     *         the tag start offset
+     * @param tagEnd
+     *         the tag end offset
+     * @param valueStart
+     *         the value start offset
+     * @param valueEnd
+     *         the value end offset
+     * @param tag
+     *         the tag, or null for unknown tags
+     */
+    public void reset(ByteBuffer buffer, int level, int xrefStart, int xrefEnd, int tagStart, int tagEnd, int valueStart, int valueEnd, GedcomTag tag) {
+        this.buffer = buffer;
+        this.level = level;
+        this.xrefStart = xrefStart;
+        this.xrefEnd = xrefEnd;
+        this.tagStart = tagStart;
+        this.tagEnd = tagEnd;
+        this.valueStart = valueStart;
+        this.valueEnd = valueEnd;
+        this.tag = tag;
+    }
+
+    /**
+     * Gets level.
+     *
+     * @return the level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Has xref boolean.
+     *
+     * @return true if the line starts with an @xref@
+     */
+    public boolean hasXref() {
+        return xrefStart >= 0;
+    }
+
+    /**
+     * Gets xref.
+     *
+     * @return the xref, or null if the line has none
+     */
+    public String getXref() {
+        return hasXref() ? decode(xrefStart, xrefEnd) : null;
+    }
+
+    /**
+     * Gets tag.
+     *
+     * @return the tag, or null if the tag is not a known keyword
+     */
+    public GedcomTag getTag() {
+        return tag;
+    }
+
+    /**
+     * Gets the first byte of the raw tag.
+     *
+     * @return the first tag byte, or 0 if the tag is empty
+     */
+    public byte getTagInitial() {
+        return tagStart < tagEnd ? buffer.get(tagStart) : 0;
+    }
+
+    /**
+     * Gets the first space separated token of the value.
+     *
+     * @return the first value token, or null if the value is empty
+     */
+    public String getFirstValue() {
+        if (valueStart >= valueEnd) {
+            return null;
+        }
+        int end = valueStart;
+        while (end < valueEnd && buffer.get(end) != ' ') {
+            end++;
+        }
+        return decode(valueStart, end);
+    }
+
+    /**
+     * Gets value.
+     *
+     * @return the raw value
+     */
+    public String getValue() {
+        return decode(valueStart, valueEnd);
+    }
+
+    /**
+     * Append the space separated value tokens to the target, joined by the separator.
+     * Trailing spaces are dropped the same way String.split drops trailing empty tokens.
+     *
+     * @param target
+     *         the target
+     * @param separator
+     *         the separator, empty to concatenate the tokens
+     */
+    public void appendValueTokens(StringBuilder target, String separator) {
+        int end = valueEnd;
+        while (end > valueStart && buffer.get(end - 1) == ' ') {
+            end--;
+        }
+        for (int index = valueStart; index < end; index++) {
+            byte current = buffer.get(index);
+            if (current < 0) {
+                appendDecodedTokens(target, separator, index, end);
+                return;
+            }
+            if (current == ' ') {
+                target.append(separator);
+            } else {
+                target.append((char) current);
+            }
+        }
+    }
+
+    private void appendDecodedTokens(StringBuilder target, String separator, int start, int end) {
+        String tail = decode(start, end);
+        for (int index = 0; index < tail.length(); index++) {
+            char current = tail.charAt(index);
+            if (current == ' ') {
+                target.append(separator);
+            } else {
+                target.append(current);
+            }
+        }
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        for (int index = 0; index < length; index++) {
+            scratch[index] = buffer.get(start + index);
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return level + " " + decode(xrefStart >= 0 ? xrefStart : tagStart, valueEnd);
+    }
+}
@@ -2,18 +2,134 @@ package yanfeishao.cs555.entities;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import yanfeishao.cs555.utils.CommonUtils;
 
 import java.util.Date;
 
 /**
  * Created by Yanfei Shao on 2015.
+ * <p>
+ * Dates are kept as local epoch days and the sex as the upper case letter of its value, 0 when there is none; the
+ * {@link Date} and {@link String} accessors convert on every call. Every setter moves the {@link EntityVersion} on.
  */
 @Data
 @NoArgsConstructor
 public class PersonEntity {
     private String identifier;
     private String name;
-    private String sex;
-    private Date birthDate;
-    private Date deathDate;
-}
\ No newline at end of file
+    private byte sexCode;
+    private int birthDay = CommonUtils.UNKNOWN_DAY;
+    private int deathDay = CommonUtils.UNKNOWN_DAY;
+
+    /**
+     * Sets identifier.
+     *
+     * @param identifier
+     *         the identifier
+     */
+    public void setIdentifier(String identifier) {
+        this.identifier = identifier;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets name.
+     *
+     * @param name
+     *         the name
+     */
+    public void setName(String name) {
+        this.name = name;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets sex code.
+     *
+     * @param sexCode
+     *         the sex code
+     */
+    public void setSexCode(byte sexCode) {
+        this.sexCode = sexCode;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets birth day.
+     *
+     * @param birthDay
+     *         the birth day
+     */
+    public void setBirthDay(int birthDay) {
+        this.birthDay = birthDay;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Sets death day.
+     *
+     * @param deathDay
+     *         the death day
+     */
+    public void setDeathDay(int deathDay) {
+        this.deathDay = deathDay;
+        EntityVersion.changed();
+    }
+
+    /**
+     * Gets sex.
+     *
+     * @return the sex, or null
+     */
+    public String getSex() {
+        return sexCode == 0 ? null : String.valueOf((char) sexCode);
+    }
+
+    /**
+     * Sets sex.
+     *
+     * @param sex
+     *         the sex, of which only the first letter is kept
+     */
+    public void setSex(String sex) {
+        setSexCode(sex == null || sex.isEmpty() ? 0 : (byte) Character.toUpperCase(sex.charAt(0)));
+    }
+
+    /**
+     * Gets birth date.
+     *
+     * @return the birth date
+     */
+    public Date getBirthDate() {
+        return CommonUtils.toDate(birthDay);
+    }
+
+    /**
+     * Sets birth date.
+     *
+     * @param birthDate
+     *         the birth date
+     */
+    public void setBirthDate(Date birthDate) {
+        setBirthDay(CommonUtils.toEpochDay(birthDate));
+    }
+
+    /**
+     * Gets death date.
+     *
+     * @return the death date
+     */
+    public Date getDeathDate() {
+        return CommonUtils.toDate(deathDay);
+    }
+
+    /**
+     * Sets death date.
+     *
+     * @param deathDate
+     *         the death date
+     */
+    public void setDeathDate(Date deathDate) {
+        setDeathDay(CommonUtils.toEpochDay(deathDate));
+    }
+}
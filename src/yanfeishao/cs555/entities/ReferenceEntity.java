@@ -0,0 +1,16 @@
+package yanfeishao.cs555.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A HUSB, WIFE or CHIL pointer of a family, reported when no individual record has its identifier.
+ */
+@Data
+@AllArgsConstructor
+public class ReferenceEntity {
+    private FamilyEntity familyEntity;
+    private String tag;
+    private String identifier;
+    private int childIndex;
+}
@@ -0,0 +1,20 @@
+package yanfeishao.cs555.entities;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The outcome of reading one file in a batch.
+ */
+@Data
+@NoArgsConstructor
+public class ReportEntity {
+    private String filePath;
+    private long elapsedMillis;
+    private int treeCount;
+    private int personCount;
+    private int familyCount;
+    private int errorCount;
+    private int infoCount;
+    private String failure;
+}
@@ -0,0 +1,15 @@
+package yanfeishao.cs555.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * What a rule has cost the rule engine: how many times it was evaluated and the time it took, summed over threads.
+ */
+@Data
+@AllArgsConstructor
+public class RuleCostEntity {
+    private String code;
+    private long evaluations;
+    private long nanos;
+}
@@ -0,0 +1,20 @@
+package yanfeishao.cs555.entities;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import yanfeishao.cs555.utils.SimpleDBUtils;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A parsed tree with everything its report needs that is only known while the file is read, as kept in a snapshot.
+ */
+@Data
+@NoArgsConstructor
+public class SnapshotEntity {
+    private SimpleDBUtils simpleDBUtils;
+    private Set<String> uniqueResult;
+    private List<ReferenceEntity> danglingReferences;
+    private List<String> invalidDates;
+}
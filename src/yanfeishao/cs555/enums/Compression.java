@@ -0,0 +1,19 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * The compression of a GEDCOM input, detected from its magic bytes.
+ */
+public enum Compression {
+    /**
+     * A plain GEDCOM file.
+     */
+    NONE,
+    /**
+     * A gzip compressed GEDCOM file.
+     */
+    GZIP,
+    /**
+     * A zip bundle, every entry is a GEDCOM file of its own.
+     */
+    ZIP
+}
@@ -0,0 +1,19 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * The smallest unit a GEDCOM date gives.
+ */
+public enum DatePrecision {
+    /**
+     * Day, month and year are given.
+     */
+    DAY,
+    /**
+     * Only month and year are given.
+     */
+    MONTH,
+    /**
+     * Only the year is given.
+     */
+    YEAR
+}
@@ -0,0 +1,48 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * The qualifier in front of a GEDCOM date.
+ */
+public enum DateQualifier {
+    /**
+     * A plain date.
+     */
+    EXACT(""),
+    /**
+     * The ABOUT qualifier.
+     */
+    ABOUT("ABT"),
+    /**
+     * The BEFORE qualifier.
+     */
+    BEFORE("BEF"),
+    /**
+     * The AFTER qualifier.
+     */
+    AFTER("AFT"),
+    /**
+     * The ESTIMATED qualifier.
+     */
+    ESTIMATED("EST"),
+    /**
+     * The CALCULATED qualifier.
+     */
+    CALCULATED("CAL");
+
+    private String keyword;
+
+    /**
+     * Instantiates a new Date qualifier.
+     *
+     * @param keyword
+     *         the keyword
+     */
+    DateQualifier(String keyword) {
+        this.keyword = keyword;
+    }
+
+    @Override
+    public String toString() {
+        return keyword;
+    }
+}
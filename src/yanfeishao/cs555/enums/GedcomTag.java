@@ -0,0 +1,164 @@
+package yanfeishao.cs555.enums;
+
+import yanfeishao.cs555.constant.KeywordsConstant;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The GEDCOM tags the parser knows, looked up straight from the tokenizer bytes.
+ * <p>
+ * Every tag is three or four ASCII letters, so its bytes are packed into one int and only compared against the tags
+ * that share its first letter.
+ */
+public enum GedcomTag {
+    /**
+     * The INDI tag.
+     */
+    INDI(KeywordsConstant.INDI),
+    /**
+     * The NAME tag.
+     */
+    NAME(KeywordsConstant.NAME),
+    /**
+     * The SEX tag.
+     */
+    SEX(KeywordsConstant.SEX),
+    /**
+     * The BIRT tag.
+     */
+    BIRT(KeywordsConstant.BIRT),
+    /**
+     * The DEAT tag.
+     */
+    DEAT(KeywordsConstant.DEAT),
+    /**
+     * The FAMC tag.
+     */
+    FAMC(KeywordsConstant.FAMC),
+    /**
+     * The FAMS tag.
+     */
+    FAMS(KeywordsConstant.FAMS),
+    /**
+     * The FAM tag.
+     */
+    FAM(KeywordsConstant.FAM),
+    /**
+     * The MARR tag.
+     */
+    MARR(KeywordsConstant.MARR),
+    /**
+     * The HUSB tag.
+     */
+    HUSB(KeywordsConstant.HUSB),
+    /**
+     * The WIFE tag.
+     */
+    WIFE(KeywordsConstant.WIFE),
+    /**
+     * The CHIL tag.
+     */
+    CHIL(KeywordsConstant.CHIL),
+    /**
+     * The DIV tag.
+     */
+    DIV(KeywordsConstant.DIV),
+    /**
+     * The DATE tag.
+     */
+    DATE(KeywordsConstant.DATE),
+    /**
+     * The HEAD tag.
+     */
+    HEAD(KeywordsConstant.HEAD),
+    /**
+     * The TRLR tag.
+     */
+    TRLR(KeywordsConstant.TRLR),
+    /**
+     * The NOTE tag.
+     */
+    NOTE(KeywordsConstant.NOTE),
+    /**
+     * The CONC tag.
+     */
+    CONC("CONC"),
+    /**
+     * The CONT tag.
+     */
+    CONT("CONT"),
+    /**
+     * The PLAC tag.
+     */
+    PLAC("PLAC"),
+    /**
+     * The SOUR tag.
+     */
+    SOUR("SOUR");
+
+    private static final GedcomTag[][] TAGS_BY_INITIAL = new GedcomTag[26][0];
+
+    static {
+        for (GedcomTag gedcomTag : values()) {
+            int initial = gedcomTag.keyword.charAt(0) - 'A';
+            GedcomTag[] candidates = Arrays.copyOf(TAGS_BY_INITIAL[initial], TAGS_BY_INITIAL[initial].length + 1);
+            candidates[candidates.length - 1] = gedcomTag;
+            TAGS_BY_INITIAL[initial] = candidates;
+        }
+    }
+
+    private String keyword;
+    private int packed;
+
+    /**
+     * Instantiates a new Gedcom tag.
+     *
+     * @param keyword
+     *         the keyword
+     */
+    GedcomTag(String keyword) {
+        this.keyword = keyword;
+        for (int index = 0; index < keyword.length(); index++) {
+            packed |= keyword.charAt(index) << (24 - 8 * index);
+        }
+    }
+
+    /**
+     * Find the tag spelled by a byte range.
+     *
+     * @param buffer
+     *         the buffer
+     * @param start
+     *         the tag start offset
+     * @param end
+     *         the tag end offset
+     *
+     * @return the tag, or null if the bytes are not a known tag
+     */
+    public static GedcomTag find(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (length < 3 || length > 4) {
+            return null;
+        }
+        int initial = buffer.get(start) - 'A';
+        if (initial < 0 || initial >= TAGS_BY_INITIAL.length) {
+            return null;
+        }
+        int packed = 0;
+        for (int index = 0; index < length; index++) {
+            packed |= (buffer.get(start + index) & 0xFF) << (24 - 8 * index);
+        }
+        for (GedcomTag candidate : TAGS_BY_INITIAL[initial]) {
+            if (candidate.packed == packed) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return keyword;
+    }
+}
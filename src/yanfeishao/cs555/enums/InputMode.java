@@ -0,0 +1,15 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * The way a GEDCOM file is read.
+ */
+public enum InputMode {
+    /**
+     * Read through a buffered input stream.
+     */
+    STREAM,
+    /**
+     * Scan read only memory mapped windows of the file.
+     */
+    MAPPED
+}
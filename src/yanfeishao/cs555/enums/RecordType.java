@@ -0,0 +1,15 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * The kind of a level 0 GEDCOM record.
+ */
+public enum RecordType {
+    /**
+     * An INDI record.
+     */
+    PERSON,
+    /**
+     * A FAM record.
+     */
+    FAMILY
+}
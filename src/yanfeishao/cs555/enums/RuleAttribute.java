@@ -0,0 +1,44 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * An attribute a rule reads. The engine builds the cached structures behind the attributes its rules declare before it
+ * hands out families, so a rule never builds one on a worker thread.
+ */
+public enum RuleAttribute {
+    /**
+     * The NAME of an individual.
+     */
+    NAME,
+    /**
+     * The SEX of an individual.
+     */
+    SEX,
+    /**
+     * The BIRT date of an individual.
+     */
+    BIRTH,
+    /**
+     * The DEAT date of an individual.
+     */
+    DEATH,
+    /**
+     * The MARR date of a family.
+     */
+    MARRIAGE,
+    /**
+     * The DIV date of a family.
+     */
+    DIVORCE,
+    /**
+     * The HUSB and WIFE of a family.
+     */
+    SPOUSES,
+    /**
+     * The CHIL of a family.
+     */
+    CHILDREN,
+    /**
+     * The ancestors and descendants of an individual, beyond their own families.
+     */
+    LINEAGE
+}
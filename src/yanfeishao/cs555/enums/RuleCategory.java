@@ -0,0 +1,15 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * How the findings of a rule are reported.
+ */
+public enum RuleCategory {
+    /**
+     * An error, logged with the error prefix and counted in the error count.
+     */
+    ERROR,
+    /**
+     * A special condition, logged with the info prefix and counted in the info count.
+     */
+    INFO
+}
@@ -0,0 +1,15 @@
+package yanfeishao.cs555.enums;
+
+/**
+ * What a rule is evaluated on.
+ */
+public enum RuleScope {
+    /**
+     * Every family, in the one pass of the engine over the families.
+     */
+    FAMILY,
+    /**
+     * The whole tree, once after the pass, for a rule that asks an index instead of walking the families.
+     */
+    TREE
+}
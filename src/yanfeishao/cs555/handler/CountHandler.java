@@ -0,0 +1,31 @@
+package yanfeishao.cs555.handler;
+
+import lombok.Getter;
+import yanfeishao.cs555.entities.LineEntity;
+
+/**
+ * Counts records and lines of a streamed GEDCOM file in constant memory.
+ */
+@Getter
+public class CountHandler implements GedcomHandler {
+    private long personCount;
+    private long familyCount;
+    private long lineCount;
+
+    @Override
+    public void startPerson(String identifier) {
+        personCount++;
+        lineCount++;
+    }
+
+    @Override
+    public void startFamily(String identifier) {
+        familyCount++;
+        lineCount++;
+    }
+
+    @Override
+    public void tag(LineEntity lineEntity) {
+        lineCount++;
+    }
+}
@@ -0,0 +1,282 @@
+package yanfeishao.cs555.handler;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.LineEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.entities.ReferenceEntity;
+import yanfeishao.cs555.enums.GedcomTag;
+import yanfeishao.cs555.enums.ParseEnum;
+import yanfeishao.cs555.utils.CommonUtils;
+import yanfeishao.cs555.utils.DateParserUtils;
+import yanfeishao.cs555.utils.ErrorUtils;
+import yanfeishao.cs555.utils.ReferenceUtils;
+import yanfeishao.cs555.utils.SimpleDBUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the person and family entities of a streamed GEDCOM file into a SimpleDBUtils.
+ * <p>
+ * Every level 0 INDI / FAM record is built on its own entity between its start and end event and committed to the
+ * db once, when it ends; lines outside those records are ignored. HUSB / WIFE / CHIL pointers are only recorded while
+ * the file is read and linked once it is done, so the order of the records does not matter. A deferred handler parses
+ * one chunk of a file: it keeps its ended records in file order, so chunks are merged into one handler that commits
+ * them and links the pointers afterwards.
+ */
+public class EntityHandler implements GedcomHandler {
+
+    private static final DateParserUtils DATE_PARSER = DateParserUtils.createDateParserFactory();
+
+    private SimpleDBUtils simpleDBUtils;
+    private PersonEntity personEntity;
+    private FamilyEntity familyEntity;
+    private Set<String> uniqueResult;
+    private StringBuilder valueBuilder;
+    private GedcomTag pendingDate;
+    private boolean deferred;
+    private List<PersonEntity> personRecords;
+    private List<FamilyEntity> familyRecords;
+    private ReferenceUtils referenceUtils;
+    private List<ReferenceEntity> danglingReferences;
+    private List<String> invalidDates;
+
+    private EntityHandler(boolean deferred) {
+        this.deferred = deferred;
+        simpleDBUtils = SimpleDBUtils.createDBFactory();
+        uniqueResult = new HashSet<>();
+        valueBuilder = new StringBuilder();
+        personRecords = new ArrayList<>();
+        familyRecords = new ArrayList<>();
+        referenceUtils = ReferenceUtils.createReferenceFactory();
+        danglingReferences = new ArrayList<>();
+        invalidDates = new ArrayList<>();
+    }
+
+    /**
+     * Create handler factory entity handler.
+     *
+     * @param deferred
+     *         true to parse one chunk that is merged later
+     *
+     * @return the entity handler
+     */
+    public static EntityHandler createHandlerFactory(boolean deferred) {
+        return new EntityHandler(deferred);
+    }
+
+    /**
+     * Gets simple db utils.
+     *
+     * @return the simple db utils
+     */
+    public SimpleDBUtils getSimpleDBUtils() {
+        return simpleDBUtils;
+    }
+
+    /**
+     * Gets the identifiers found more than once (US22).
+     *
+     * @return the unique result
+     */
+    public Set<String> getUniqueResult() {
+        return uniqueResult;
+    }
+
+    /**
+     * Gets the pointers without an individual record (US26), filled once the pointers are linked.
+     *
+     * @return the dangling references
+     */
+    public List<ReferenceEntity> getDanglingReferences() {
+        return danglingReferences;
+    }
+
+    /**
+     * Gets the number of dates that could not be parsed (US42).
+     *
+     * @return the invalid date count
+     */
+    public int getInvalidDateCount() {
+        return invalidDates.size();
+    }
+
+    /**
+     * Gets the dates that could not be parsed (US42), in file order.
+     *
+     * @return the invalid dates
+     */
+    public List<String> getInvalidDates() {
+        return invalidDates;
+    }
+
+    @Override
+    public void endDocument() {
+        if (!deferred) {
+            resolveReferences();
+        }
+    }
+
+    @Override
+    public void startPerson(String identifier) {
+        pendingDate = null;
+        personEntity = new PersonEntity();
+        personEntity.setIdentifier(identifier);
+    }
+
+    @Override
+    public void startFamily(String identifier) {
+        pendingDate = null;
+        familyEntity = new FamilyEntity();
+        familyEntity.setIdentifier(identifier);
+    }
+
+    @Override
+    public void endPerson() {
+        pendingDate = null;
+        if (deferred) {
+            personRecords.add(personEntity);
+        } else {
+            commitPerson(personEntity);
+        }
+        personEntity = null;
+    }
+
+    @Override
+    public void endFamily() {
+        pendingDate = null;
+        if (deferred) {
+            familyRecords.add(familyEntity);
+        } else {
+            commitFamily(familyEntity);
+        }
+        familyEntity = null;
+    }
+
+    @Override
+    public void tag(LineEntity lineEntity) {
+        if (pendingDate != null) {
+            writeDate(parseDate(lineEntity));
+        } else if (personEntity != null) {
+            writePersonEntity(lineEntity.getTag(), lineEntity);
+        } else if (familyEntity != null) {
+            writeFamilyEntity(lineEntity.getTag(), lineEntity);
+        }
+    }
+
+    /**
+     * Merge a deferred chunk handler, in file order.
+     *
+     * @param chunkHandler
+     *         the chunk handler
+     */
+    public void merge(EntityHandler chunkHandler) {
+        chunkHandler.invalidDates.forEach(ErrorUtils::parseError);
+        invalidDates.addAll(chunkHandler.invalidDates);
+        chunkHandler.personRecords.forEach(this::commitPerson);
+        chunkHandler.familyRecords.forEach(this::commitFamily);
+        referenceUtils.addAll(chunkHandler.referenceUtils);
+    }
+
+    /**
+     * Link the recorded HUSB / WIFE / CHIL pointers to the individual records.
+     */
+    public void resolveReferences() {
+        danglingReferences.addAll(referenceUtils.resolve(simpleDBUtils));
+    }
+
+    private void commitPerson(PersonEntity person) {
+        if (!registerIdentifier(simpleDBUtils.getPersonDB(), person.getIdentifier())) {
+            person.setIdentifier(null);
+        }
+        simpleDBUtils.getPersonDB().put(person.getIdentifier(), person);
+    }
+
+    private void commitFamily(FamilyEntity family) {
+        if (!registerIdentifier(simpleDBUtils.getFamilyDB(), family.getIdentifier())) {
+            family.setIdentifier(null);
+        }
+        simpleDBUtils.getFamilyDB().put(family.getIdentifier(), family);
+    }
+
+    private boolean registerIdentifier(Map<String, ?> recordDB, String identifier) {
+        if (recordDB.containsKey(identifier)) {
+            uniqueResult.add(identifier);
+            return false;
+        }
+        return true;
+    }
+
+    private int parseDate(LineEntity lineEntity) {
+        valueBuilder.setLength(0);
+        lineEntity.appendValueTokens(valueBuilder, ParseEnum.SPLIT_DATE.toString());
+        int epochDay = DATE_PARSER.parseEpochDay(valueBuilder);
+        if (epochDay == CommonUtils.UNKNOWN_DAY) {
+            invalidDates.add(valueBuilder.toString());
+            if (!deferred) {
+                ErrorUtils.parseError(valueBuilder);
+            }
+        }
+        return epochDay;
+    }
+
+    private void writeDate(int epochDay) {
+        switch (pendingDate) {
+            case BIRT:
+                personEntity.setBirthDay(epochDay);
+                break;
+            case DEAT:
+                personEntity.setDeathDay(epochDay);
+                break;
+            case MARR:
+                familyEntity.setMarriedDay(epochDay);
+                break;
+            case DIV:
+                familyEntity.setDivorceDay(epochDay);
+                break;
+        }
+        pendingDate = null;
+    }
+
+    private void writeFamilyEntity(GedcomTag tag, LineEntity lineEntity) {
+        if (tag != null) {
+            switch (tag) {
+                case HUSB:
+                    referenceUtils.addFather(familyEntity, lineEntity.getFirstValue());
+                    break;
+                case WIFE:
+                    referenceUtils.addMother(familyEntity, lineEntity.getFirstValue());
+                    break;
+                case MARR:
+                case DIV:
+                    pendingDate = tag;
+                    break;
+                case CHIL:
+                    referenceUtils.addChild(familyEntity, lineEntity.getFirstValue());
+                    break;
+            }
+        }
+    }
+
+    private void writePersonEntity(GedcomTag tag, LineEntity lineEntity) {
+        if (tag != null) {
+            switch (tag) {
+                case NAME:
+                    valueBuilder.setLength(0);
+                    lineEntity.appendValueTokens(valueBuilder, "");
+                    personEntity.setName(valueBuilder.toString());
+                    break;
+                case SEX:
+                    personEntity.setSex(lineEntity.getFirstValue());
+                    break;
+                case BIRT:
+                case DEAT:
+                    pendingDate = tag;
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package yanfeishao.cs555.handler;
+
+import yanfeishao.cs555.entities.LineEntity;
+
+/**
+ * Receives the events of a streamed GEDCOM file, in file order.
+ * <p>
+ * Every INDI and FAM record is reported as a start event, one tag event per line of the record and an end event.
+ * Lines outside those records (HEAD, SOUR, TRLR, ...) are reported as tag events only. Nothing is kept between
+ * events, so a handler decides itself what to hold in memory.
+ */
+public interface GedcomHandler {
+
+    /**
+     * Start document.
+     */
+    default void startDocument() {
+    }
+
+    /**
+     * Start person, called for a level 0 INDI line.
+     *
+     * @param identifier
+     *         the person identifier
+     */
+    default void startPerson(String identifier) {
+    }
+
+    /**
+     * End person.
+     */
+    default void endPerson() {
+    }
+
+    /**
+     * Start family, called for a level 0 FAM line.
+     *
+     * @param identifier
+     *         the family identifier
+     */
+    default void startFamily(String identifier) {
+    }
+
+    /**
+     * End family.
+     */
+    default void endFamily() {
+    }
+
+    /**
+     * Tag, called for every other line.
+     *
+     * @param lineEntity
+     *         the line view, only valid during the call
+     */
+    default void tag(LineEntity lineEntity) {
+    }
+
+    /**
+     * End document.
+     */
+    default void endDocument() {
+    }
+}
@@ -0,0 +1,79 @@
+package yanfeishao.cs555.rule;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.enums.RecordType;
+import yanfeishao.cs555.enums.RuleAttribute;
+import yanfeishao.cs555.enums.RuleCategory;
+import yanfeishao.cs555.enums.RuleScope;
+
+import java.util.Set;
+
+/**
+ * A check the rule engine runs over a tree, registered through a {@link RuleProvider}.
+ * <p>
+ * A rule adds one message per finding to the result set it is handed, and adds nothing else anywhere: families are
+ * evaluated on several threads at once, each range of families with result sets of its own.
+ */
+public interface Rule {
+
+    /**
+     * Gets code, such as {@code US01}, which heads the messages and names the rule in the report and the costs.
+     *
+     * @return the code
+     */
+    String getCode();
+
+    /**
+     * Gets category.
+     *
+     * @return the category
+     */
+    RuleCategory getCategory();
+
+    /**
+     * Gets scope.
+     *
+     * @return the scope
+     */
+    RuleScope getScope();
+
+    /**
+     * Gets the kinds of record the rule reads.
+     *
+     * @return the record types
+     */
+    Set<RecordType> getRecordTypes();
+
+    /**
+     * Gets the attributes the rule reads.
+     *
+     * @return the attributes
+     */
+    Set<RuleAttribute> getAttributes();
+
+    /**
+     * Evaluate the rule on one family, called for a {@link RuleScope#FAMILY} rule.
+     *
+     * @param ruleContext
+     *         the rule context
+     * @param family
+     *         the family index
+     * @param familyEntity
+     *         the family entity
+     * @param results
+     *         the results of the rule
+     */
+    default void evaluate(RuleContext ruleContext, int family, FamilyEntity familyEntity, Set<String> results) {
+    }
+
+    /**
+     * Evaluate the rule on the whole tree, called for a {@link RuleScope#TREE} rule.
+     *
+     * @param ruleContext
+     *         the rule context
+     * @param results
+     *         the results of the rule
+     */
+    default void evaluate(RuleContext ruleContext, Set<String> results) {
+    }
+}
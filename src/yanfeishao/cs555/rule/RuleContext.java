@@ -0,0 +1,100 @@
+package yanfeishao.cs555.rule;
+
+import yanfeishao.cs555.enums.RuleAttribute;
+import yanfeishao.cs555.utils.AncestryUtils;
+import yanfeishao.cs555.utils.ColumnUtils;
+import yanfeishao.cs555.utils.CommonUtils;
+import yanfeishao.cs555.utils.IndexUtils;
+import yanfeishao.cs555.utils.KinshipUtils;
+import yanfeishao.cs555.utils.SimpleDBUtils;
+
+import java.util.Set;
+
+/**
+ * What one evaluation shares with its rules: the tree, the current date, and the cached structures behind the
+ * attributes the rules declare, built up front. Nothing in it changes during the evaluation.
+ */
+public class RuleContext {
+
+    private final SimpleDBUtils simpleDBUtils;
+    private final int today;
+    private final ColumnUtils columns;
+    private final IndexUtils indexes;
+    private final AncestryUtils ancestry;
+    private final KinshipUtils kinship;
+
+    /**
+     * Instantiates a new Rule context.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     * @param attributes
+     *         the attributes the rules read
+     */
+    public RuleContext(SimpleDBUtils simpleDBUtils, Set<RuleAttribute> attributes) {
+        this.simpleDBUtils = simpleDBUtils;
+        today = CommonUtils.toEpochDay(CommonUtils.getCurrentDate());
+        columns = attributes.isEmpty() ? null : simpleDBUtils.getColumns();
+        indexes = attributes.contains(RuleAttribute.SPOUSES) ? simpleDBUtils.getIndexes() : null;
+        ancestry = attributes.contains(RuleAttribute.LINEAGE) ? simpleDBUtils.getAncestry() : null;
+        kinship = attributes.contains(RuleAttribute.LINEAGE) ? KinshipUtils.createKinshipFactory(simpleDBUtils) : null;
+        if (attributes.contains(RuleAttribute.SPOUSES) || attributes.contains(RuleAttribute.CHILDREN)) {
+            simpleDBUtils.getFamilyDBList();
+        }
+    }
+
+    /**
+     * Gets simple db utils.
+     *
+     * @return the simple db utils
+     */
+    public SimpleDBUtils getSimpleDBUtils() {
+        return simpleDBUtils;
+    }
+
+    /**
+     * Gets the current date as an epoch day, the same for every rule of the evaluation.
+     *
+     * @return the today
+     */
+    public int getToday() {
+        return today;
+    }
+
+    /**
+     * Gets columns, built up front when a rule declares any attribute.
+     *
+     * @return the column utils
+     */
+    public ColumnUtils getColumns() {
+        return columns == null ? simpleDBUtils.getColumns() : columns;
+    }
+
+    /**
+     * Gets indexes, with the marital status of every individual, built up front when a rule declares
+     * {@link RuleAttribute#SPOUSES}.
+     *
+     * @return the index utils
+     */
+    public IndexUtils getIndexes() {
+        return indexes == null ? simpleDBUtils.getIndexes() : indexes;
+    }
+
+    /**
+     * Gets ancestry, built up front when a rule declares {@link RuleAttribute#LINEAGE}.
+     *
+     * @return the ancestry utils
+     */
+    public AncestryUtils getAncestry() {
+        return ancestry == null ? simpleDBUtils.getAncestry() : ancestry;
+    }
+
+    /**
+     * Gets kinship, built up front when a rule declares {@link RuleAttribute#LINEAGE}.
+     *
+     * @return the kinship utils
+     */
+    public KinshipUtils getKinship() {
+        return kinship == null ? KinshipUtils.createKinshipFactory(simpleDBUtils) : kinship;
+    }
+}
@@ -0,0 +1,18 @@
+package yanfeishao.cs555.rule;
+
+import java.util.List;
+
+/**
+ * Registers rules with the rule engine. A provider is found by {@link java.util.ServiceLoader}: its class name is
+ * listed in {@code META-INF/services/yanfeishao.cs555.rule.RuleProvider} on the class path and it has a public no
+ * argument constructor.
+ */
+public interface RuleProvider {
+
+    /**
+     * Gets the rules, in the order they are reported.
+     *
+     * @return the rules
+     */
+    List<Rule> getRules();
+}
@@ -0,0 +1,195 @@
+package yanfeishao.cs555.utils;
+
+import java.util.Arrays;
+
+/**
+ * A reachability index over the parent to child edges of a {@link GraphUtils}, answering whether one individual is an
+ * ancestor of another without walking the lineage in the common cases.
+ * <p>
+ * One iterative depth first search from the individuals without parents labels every individual with its pre order
+ * number {@code pre}, the highest pre order number {@code high} in its depth first subtree and the lowest pre order
+ * number {@code low} of anything it reaches. An ancestor reaches its depth first subtree, which is the interval
+ * {@code (pre, high]}, through the first parent that found each descendant, and everything it reaches at all lies in
+ * {@code [low, high]}. So a query is answered in constant time when the descendant is in the subtree interval, or is
+ * outside the reach interval; only a descendant reached through a second parent, a merge of two lines, falls back to a
+ * search of the children that is pruned by the same intervals.
+ * <p>
+ * A file where someone is their own ancestor breaks the intervals; the index notices the cycle and answers every query
+ * by search.
+ */
+public class AncestryUtils {
+
+    private static final int UNSEEN = -1;
+    private static final int INITIAL_SIZE = 16;
+
+    private final GraphUtils graph;
+    private final int[] childOffsets;
+    private final int[] childEdges;
+    private final int[] pre;
+    private final int[] high;
+    private final int[] low;
+    private final boolean cyclic;
+
+    private AncestryUtils(SimpleDBUtils simpleDBUtils) {
+        graph = simpleDBUtils.getGraph();
+        childOffsets = graph.getChildOffsets();
+        childEdges = graph.getChildEdges();
+        int[] parentOffsets = graph.getParentOffsets();
+        int personCount = childOffsets.length - 1;
+        pre = new int[personCount];
+        high = new int[personCount];
+        low = new int[personCount];
+        Arrays.fill(pre, UNSEEN);
+        Arrays.fill(high, UNSEEN);
+        int[] stack = new int[personCount];
+        int[] cursor = new int[personCount];
+        int counter = 0;
+        boolean cycle = false;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < personCount; root++) {
+                if (pre[root] != UNSEEN || pass == 0 && parentOffsets[root] != parentOffsets[root + 1]) {
+                    continue;
+                }
+                int top = 0;
+                stack[top] = root;
+                cursor[top] = childOffsets[root];
+                pre[root] = low[root] = counter++;
+                while (top >= 0) {
+                    int person = stack[top];
+                    if (cursor[top] < childOffsets[person + 1]) {
+                        int child = childEdges[cursor[top]++];
+                        if (pre[child] == UNSEEN) {
+                            stack[++top] = child;
+                            cursor[top] = childOffsets[child];
+                            pre[child] = low[child] = counter++;
+                        } else if (high[child] == UNSEEN) {
+                            cycle = true;
+                        } else {
+                            low[person] = Math.min(low[person], low[child]);
+                        }
+                    } else {
+                        high[person] = counter - 1;
+                        if (--top >= 0) {
+                            low[stack[top]] = Math.min(low[stack[top]], low[person]);
+                        }
+                    }
+                }
+            }
+        }
+        cyclic = cycle;
+    }
+
+    /**
+     * Create ancestry factory ancestry utils.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @return the ancestry utils
+     */
+    public static AncestryUtils createAncestryFactory(SimpleDBUtils simpleDBUtils) {
+        return new AncestryUtils(simpleDBUtils);
+    }
+
+    /**
+     * Check whether an individual is an ancestor of another: a parent, grandparent and so on.
+     *
+     * @param ancestor
+     *         the person index of the possible ancestor
+     * @param person
+     *         the person index
+     *
+     * @return true if there is a line of parents from the person up to the ancestor
+     */
+    public boolean isAncestor(int ancestor, int person) {
+        if (cyclic) {
+            return search(ancestor, person);
+        }
+        if (ancestor == person) {
+            return false;
+        }
+        int target = pre[person];
+        if (target > pre[ancestor] && target <= high[ancestor]) {
+            return true;
+        }
+        if (target < low[ancestor] || target > high[ancestor]) {
+            return false;
+        }
+        return search(ancestor, person);
+    }
+
+    /**
+     * Check whether an individual is a descendant of another: a child, grandchild and so on.
+     *
+     * @param descendant
+     *         the person index of the possible descendant
+     * @param person
+     *         the person index
+     *
+     * @return true if there is a line of children from the person down to the descendant
+     */
+    public boolean isDescendant(int descendant, int person) {
+        return isAncestor(person, descendant);
+    }
+
+    /**
+     * Check whether two individuals are in one line, one being an ancestor of the other.
+     *
+     * @param person
+     *         the person index
+     * @param other
+     *         the person index of the other individual
+     *
+     * @return true if either is an ancestor of the other
+     */
+    public boolean isInLine(int person, int other) {
+        return isAncestor(person, other) || isAncestor(other, person);
+    }
+
+    /**
+     * Gets the graph the index was built from.
+     *
+     * @return the graph utils
+     */
+    GraphUtils getGraph() {
+        return graph;
+    }
+
+    private boolean search(int ancestor, int person) {
+        int target = pre[person];
+        int[] stack = new int[INITIAL_SIZE];
+        int[] visited = new int[INITIAL_SIZE * 2];
+        Arrays.fill(visited, UNSEEN);
+        stack[0] = ancestor;
+        visited = GraphUtils.visit(visited, 0, ancestor);
+        int visits = 1;
+        int top = 0;
+        while (top >= 0) {
+            int from = stack[top--];
+            for (int edge = childOffsets[from]; edge < childOffsets[from + 1]; edge++) {
+                int child = childEdges[edge];
+                if (child == person) {
+                    return true;
+                }
+                if (!cyclic) {
+                    if (target > pre[child] && target <= high[child]) {
+                        return true;
+                    }
+                    if (target < low[child] || target > high[child]) {
+                        continue;
+                    }
+                }
+                int[] grown = GraphUtils.visit(visited, visits, child);
+                if (grown != null) {
+                    visited = grown;
+                    visits++;
+                    if (++top == stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top] = child;
+                }
+            }
+        }
+        return false;
+    }
+}
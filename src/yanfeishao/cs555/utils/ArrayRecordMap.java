@@ -0,0 +1,132 @@
+package yanfeishao.cs555.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * The on heap record map: an array indexed by the interned identifier. It keeps a read only list of its records until
+ * it is changed. Null values are not stored: putting one removes the key.
+ *
+ * @param <V>
+ *         the record type
+ */
+class ArrayRecordMap<V> extends RecordMap<V> {
+
+    private static final int INITIAL_SIZE = 64;
+
+    private IdentifierUtils identifiers;
+    private Object[] values;
+    private int size;
+    private int version;
+    private List<V> list;
+
+    /**
+     * Instantiates a new Array record map.
+     */
+    ArrayRecordMap() {
+        identifiers = IdentifierUtils.createIdentifierFactory();
+        values = new Object[INITIAL_SIZE];
+    }
+
+    /**
+     * Instantiates a new Array record map holding a copy of every record of another one at the same index.
+     *
+     * @param source
+     *         the source record map
+     * @param copy
+     *         the function that copies a record
+     */
+    ArrayRecordMap(RecordMap<V> source, UnaryOperator<V> copy) {
+        this();
+        for (int index = 0; index < source.indexSize(); index++) {
+            int copyIndex = identifiers.intern(source.identifier(index));
+            V value = source.get(index);
+            if (value != null) {
+                set(copyIndex, copy.apply(value));
+            }
+        }
+    }
+
+    @Override
+    int indexOf(String identifier) {
+        int index = identifiers.indexOf(identifier);
+        return index >= 0 && index < values.length && values[index] != null ? index : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V get(int index) {
+        return index >= 0 && index < values.length ? (V) values[index] : null;
+    }
+
+    @Override
+    String identifier(int index) {
+        return identifiers.identifier(index);
+    }
+
+    @Override
+    int indexSize() {
+        return identifiers.size();
+    }
+
+    @Override
+    int version() {
+        return version;
+    }
+
+    @Override
+    List<V> list() {
+        if (list == null) {
+            List<V> records = new ArrayList<>(size);
+            for (int index = 0; index < identifiers.size(); index++) {
+                if (get(index) != null) {
+                    records.add(get(index));
+                }
+            }
+            list = Collections.unmodifiableList(records);
+        }
+        return list;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public V put(String key, V value) {
+        if (value == null) {
+            return remove(key);
+        }
+        return set(identifiers.intern(key), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return containsKey(key) ? set(identifiers.indexOf((String) key), null) : null;
+    }
+
+    @Override
+    public void clear() {
+        identifiers = IdentifierUtils.createIdentifierFactory();
+        values = new Object[INITIAL_SIZE];
+        size = 0;
+        version++;
+        list = null;
+    }
+
+    private V set(int index, V value) {
+        V previous = get(index);
+        if (index >= values.length) {
+            values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+        }
+        values[index] = value;
+        size += (value == null ? 0 : 1) - (previous == null ? 0 : 1);
+        version++;
+        list = null;
+        return previous;
+    }
+}
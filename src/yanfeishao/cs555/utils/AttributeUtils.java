@@ -4,6 +4,7 @@ import yanfeishao.cs555.constant.ErrorInfo;
 import yanfeishao.cs555.constant.FormatterRegex;
 import yanfeishao.cs555.constant.KeywordsConstant;
 import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.KinshipEntity;
 import yanfeishao.cs555.entities.PersonEntity;
 import yanfeishao.cs555.enums.ParseEnum;
 
@@ -73,6 +74,76 @@ public class AttributeUtils {
         });
     }
 
+    /**
+     * Parse us 17 error.
+     *
+     * @param result
+     *         the result
+     * @param prefix
+     *         the prefix
+     * @param familyEntity
+     *         the family entity
+     * @param ancestry
+     *         the ancestry of the db the family is in
+     */
+    public void parseUS17Error(Set<String> result, String prefix, FamilyEntity familyEntity, AncestryUtils ancestry) {
+        if (familyEntity.getFatherIndex() == FamilyEntity.NO_PERSON || familyEntity.getMotherIndex() == FamilyEntity.NO_PERSON) {
+            return;
+        }
+        if (ancestry.isAncestor(familyEntity.getFatherIndex(), familyEntity.getMotherIndex())) {
+            result.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US17, prefix, familyEntity.getIdentifier(), KeywordsConstant.Wife, familyEntity.getMother().getIdentifier(), familyEntity.getMother().getName(), KeywordsConstant.Husband, familyEntity.getFather().getIdentifier(), familyEntity.getFather().getName()));
+        } else if (ancestry.isAncestor(familyEntity.getMotherIndex(), familyEntity.getFatherIndex())) {
+            result.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US17, prefix, familyEntity.getIdentifier(), KeywordsConstant.Husband, familyEntity.getFather().getIdentifier(), familyEntity.getFather().getName(), KeywordsConstant.Wife, familyEntity.getMother().getIdentifier(), familyEntity.getMother().getName()));
+        }
+    }
+
+    /**
+     * Parse us 18 error.
+     *
+     * @param result
+     *         the result
+     * @param prefix
+     *         the prefix
+     * @param familyEntity
+     *         the family entity
+     * @param kinship
+     *         the kinship of the db the family is in
+     * @param simpleDBUtils
+     *         the simple db utils
+     */
+    public void parseUS18Error(Set<String> result, String prefix, FamilyEntity familyEntity, KinshipUtils kinship, SimpleDBUtils simpleDBUtils) {
+        parseSpouseKinshipError(result, prefix, familyEntity, kinship, simpleDBUtils, KinshipUtils.SIBLING_GENERATIONS, ErrorInfo.US18);
+    }
+
+    /**
+     * Parse us 19 error.
+     *
+     * @param result
+     *         the result
+     * @param prefix
+     *         the prefix
+     * @param familyEntity
+     *         the family entity
+     * @param kinship
+     *         the kinship of the db the family is in
+     * @param simpleDBUtils
+     *         the simple db utils
+     */
+    public void parseUS19Error(Set<String> result, String prefix, FamilyEntity familyEntity, KinshipUtils kinship, SimpleDBUtils simpleDBUtils) {
+        parseSpouseKinshipError(result, prefix, familyEntity, kinship, simpleDBUtils, KinshipUtils.FIRST_COUSIN_GENERATIONS, ErrorInfo.US19);
+    }
+
+    private void parseSpouseKinshipError(Set<String> result, String prefix, FamilyEntity familyEntity, KinshipUtils kinship, SimpleDBUtils simpleDBUtils, int generations, String errorInfo) {
+        if (familyEntity.getFatherIndex() == FamilyEntity.NO_PERSON || familyEntity.getMotherIndex() == FamilyEntity.NO_PERSON) {
+            return;
+        }
+        KinshipEntity kinshipEntity = kinship.relate(familyEntity.getFatherIndex(), familyEntity.getMotherIndex(), generations);
+        if (kinshipEntity != null && kinshipEntity.getPersonGenerations() == generations && kinshipEntity.getOtherGenerations() == generations) {
+            PersonEntity ancestor = simpleDBUtils.getPerson(kinshipEntity.getCommonAncestor());
+            result.add(String.format(FormatterRegex.ERROR_PERSON + errorInfo, prefix, familyEntity.getIdentifier(), familyEntity.getFather().getIdentifier(), familyEntity.getFather().getName(), familyEntity.getMother().getIdentifier(), familyEntity.getMother().getName(), ancestor.getIdentifier(), ancestor.getName()));
+        }
+    }
+
     /**
      * Parse us 21 error.
      *
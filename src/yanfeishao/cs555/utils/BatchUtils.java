@@ -0,0 +1,205 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.ReportEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads many GEDCOM files in one JVM on a fixed pool of worker threads.
+ * <p>
+ * Every file is read by its own ParserUtils into its own trees, and its report is kept apart from the others: it is
+ * written to a file of its own in the output directory, or buffered and printed in one piece once the file is done.
+ */
+public class BatchUtils {
+
+    private static final String MANIFEST_PREFIX = "@";
+    private static final String COMMENT_PREFIX = "#";
+    private static final String[] GEDCOM_SUFFIXES = {".ged", ".ged.gz", ".zip"};
+    private static final String REPORT_SUFFIX = ".txt";
+    private static final String SUMMARY_TITLE = "%-40s %8s %6s %8s %8s %6s %6s";
+    private static final String SUMMARY_DATA = "%-40s %8d %6d %8d %8d %6d %6d";
+
+    private int threads;
+    private File outputDirectory;
+
+    private BatchUtils(int threads, File outputDirectory) {
+        this.threads = threads;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Create batch factory batch utils.
+     *
+     * @param threads
+     *         the number of files read at the same time
+     * @param outputDirectory
+     *         the directory receiving one report per file, or null to print the reports
+     *
+     * @return the batch utils
+     */
+    public static BatchUtils createBatchFactory(int threads, File outputDirectory) {
+        return new BatchUtils(Math.max(1, threads), outputDirectory);
+    }
+
+    /**
+     * Expand the batch arguments into GEDCOM file paths. A directory adds its .ged, .ged.gz and .zip files, an
+     * argument starting with @ names a manifest listing one path per line, and anything else is a file path.
+     *
+     * @param arguments
+     *         the arguments
+     *
+     * @return the file paths, each listed once
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public static List<String> collectPaths(List<String> arguments) throws IOException {
+        Set<String> filePaths = new LinkedHashSet<>();
+        for (String argument : arguments) {
+            if (argument.startsWith(MANIFEST_PREFIX)) {
+                List<String> entries = Files.readAllLines(Paths.get(argument.substring(MANIFEST_PREFIX.length())), StandardCharsets.UTF_8).stream()
+                        .map(String::trim)
+                        .filter(entry -> !entry.isEmpty() && !entry.startsWith(COMMENT_PREFIX))
+                        .collect(Collectors.toList());
+                filePaths.addAll(collectPaths(entries));
+            } else if (new File(argument).isDirectory()) {
+                try (Stream<Path> paths = Files.walk(Paths.get(argument))) {
+                    paths.filter(Files::isRegularFile)
+                            .map(Path::toString)
+                            .filter(BatchUtils::isGedcomFile)
+                            .sorted()
+                            .forEach(filePaths::add);
+                }
+            } else {
+                filePaths.add(argument);
+            }
+        }
+        return new ArrayList<>(filePaths);
+    }
+
+    /**
+     * Read every file and print a summary line per file.
+     *
+     * @param filePaths
+     *         the file paths
+     *
+     * @return the reports in the order of the file paths
+     */
+    public List<ReportEntity> readGEDCOMBatch(List<String> filePaths) {
+        long start = System.nanoTime();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<ReportEntity> reports = new ArrayList<>();
+        Set<String> reportNames = new HashSet<>();
+        try {
+            List<Future<ReportEntity>> futures = new ArrayList<>();
+            for (String filePath : filePaths) {
+                String reportName = reportName(filePath, reportNames);
+                futures.add(executorService.submit(() -> readFile(filePath, reportName)));
+            }
+            for (Future<ReportEntity> future : futures) {
+                reports.add(future.get());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ee) {
+            throw new RuntimeException(ee.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+        outputSummary(reports, (System.nanoTime() - start) / 1000000);
+        return reports;
+    }
+
+    private ReportEntity readFile(String filePath, String reportName) throws IOException {
+        ReportEntity reportEntity = new ReportEntity();
+        reportEntity.setFilePath(filePath);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream outputStream = outputDirectory == null ? buffer : new FileOutputStream(reportFile(reportName));
+             PrintStream printStream = new PrintStream(outputStream, false, StandardCharsets.UTF_8.name())) {
+            LogUtils.redirect(printStream);
+            long start = System.nanoTime();
+            try {
+                ParserUtils parserUtils = ParserUtils.createParserFactory();
+                List<SimpleDBUtils> simpleDBUtilsList = parserUtils.readGEDCOMBundle(filePath);
+                reportEntity.setTreeCount(simpleDBUtilsList.size());
+                simpleDBUtilsList.forEach(simpleDBUtils -> {
+                    reportEntity.setPersonCount(reportEntity.getPersonCount() + simpleDBUtils.getPersonDB().size());
+                    reportEntity.setFamilyCount(reportEntity.getFamilyCount() + simpleDBUtils.getFamilyDB().size());
+                });
+                reportEntity.setErrorCount(parserUtils.getErrorCount());
+                reportEntity.setInfoCount(parserUtils.getInfoCount());
+            } catch (RuntimeException re) {
+                reportEntity.setFailure(re.getMessage());
+            } finally {
+                reportEntity.setElapsedMillis((System.nanoTime() - start) / 1000000);
+                LogUtils.reset();
+            }
+        }
+        if (outputDirectory == null) {
+            printReport(filePath, buffer);
+        }
+        return reportEntity;
+    }
+
+    private File reportFile(String reportName) {
+        outputDirectory.mkdirs();
+        return new File(outputDirectory, reportName);
+    }
+
+    private static String reportName(String filePath, Set<String> reportNames) {
+        String fileName = new File(filePath).getName();
+        String reportName = fileName + REPORT_SUFFIX;
+        for (int copy = 2; !reportNames.add(reportName); copy++) {
+            reportName = fileName + "-" + copy + REPORT_SUFFIX;
+        }
+        return reportName;
+    }
+
+    private static synchronized void printReport(String filePath, ByteArrayOutputStream buffer) throws UnsupportedEncodingException {
+        LogUtils.info(filePath);
+        System.out.print(buffer.toString(StandardCharsets.UTF_8.name()));
+        System.out.flush();
+    }
+
+    private void outputSummary(List<ReportEntity> reports, long elapsedMillis) {
+        LogUtils.info(String.format(SUMMARY_TITLE, "FILE", "MS", "TREES", "PERSONS", "FAMILIES", "ERRORS", "INFOS"));
+        reports.forEach(report -> {
+            LogUtils.info(String.format(SUMMARY_DATA, report.getFilePath(), report.getElapsedMillis(), report.getTreeCount(), report.getPersonCount(), report.getFamilyCount(), report.getErrorCount(), report.getInfoCount()));
+            if (report.getFailure() != null) {
+                LogUtils.error(report.getFilePath() + " " + report.getFailure());
+            }
+        });
+        LogUtils.info(String.format("%d files on %d threads in %d ms", reports.size(), threads, elapsedMillis));
+    }
+
+    private static boolean isGedcomFile(String filePath) {
+        String lowerCasePath = filePath.toLowerCase();
+        for (String suffix : GEDCOM_SUFFIXES) {
+            if (lowerCasePath.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
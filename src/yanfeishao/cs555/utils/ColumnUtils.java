@@ -0,0 +1,172 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+
+/**
+ * The person and family attributes of a SimpleDBUtils copied into one primitive array per attribute, indexed by the
+ * person / family index, so a rule can run as a plain loop over arrays instead of following entity references.
+ * <p>
+ * Dates are local epoch days, {@link CommonUtils#UNKNOWN_DAY} when unknown, and a missing spouse or child is
+ * {@link FamilyEntity#NO_PERSON}; an index without a record reads as all unknown. The children of family {@code f} are
+ * {@code children[childOffsets[f]]} up to, not including, {@code children[childOffsets[f + 1]]}.
+ */
+public class ColumnUtils {
+
+    private final int personCount;
+    private final int[] birthDay;
+    private final int[] deathDay;
+    private final byte[] sex;
+    private final int familyCount;
+    private final int[] husband;
+    private final int[] wife;
+    private final int[] marriageDay;
+    private final int[] divorceDay;
+    private final int[] childOffsets;
+    private final int[] children;
+
+    private ColumnUtils(SimpleDBUtils simpleDBUtils) {
+        personCount = simpleDBUtils.getPersonIndexSize();
+        birthDay = new int[personCount];
+        deathDay = new int[personCount];
+        sex = new byte[personCount];
+        for (int person = 0; person < personCount; person++) {
+            PersonEntity personEntity = simpleDBUtils.getPerson(person);
+            birthDay[person] = personEntity == null ? CommonUtils.UNKNOWN_DAY : personEntity.getBirthDay();
+            deathDay[person] = personEntity == null ? CommonUtils.UNKNOWN_DAY : personEntity.getDeathDay();
+            sex[person] = personEntity == null ? 0 : personEntity.getSexCode();
+        }
+        familyCount = simpleDBUtils.getFamilyIndexSize();
+        husband = new int[familyCount];
+        wife = new int[familyCount];
+        marriageDay = new int[familyCount];
+        divorceDay = new int[familyCount];
+        childOffsets = new int[familyCount + 1];
+        for (int family = 0; family < familyCount; family++) {
+            FamilyEntity familyEntity = simpleDBUtils.getFamily(family);
+            husband[family] = familyEntity == null ? FamilyEntity.NO_PERSON : familyEntity.getFatherIndex();
+            wife[family] = familyEntity == null ? FamilyEntity.NO_PERSON : familyEntity.getMotherIndex();
+            marriageDay[family] = familyEntity == null ? CommonUtils.UNKNOWN_DAY : familyEntity.getMarriedDay();
+            divorceDay[family] = familyEntity == null ? CommonUtils.UNKNOWN_DAY : familyEntity.getDivorceDay();
+            childOffsets[family + 1] = childOffsets[family] + (familyEntity == null ? 0 : familyEntity.getChildIndices().length);
+        }
+        children = new int[childOffsets[familyCount]];
+        for (int family = 0; family < familyCount; family++) {
+            FamilyEntity familyEntity = simpleDBUtils.getFamily(family);
+            if (familyEntity != null) {
+                System.arraycopy(familyEntity.getChildIndices(), 0, children, childOffsets[family], familyEntity.getChildIndices().length);
+            }
+        }
+    }
+
+    /**
+     * Create column factory column utils.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @return the column utils
+     */
+    public static ColumnUtils createColumnFactory(SimpleDBUtils simpleDBUtils) {
+        return new ColumnUtils(simpleDBUtils);
+    }
+
+    /**
+     * Gets person count.
+     *
+     * @return the person count, the length of the person columns
+     */
+    public int getPersonCount() {
+        return personCount;
+    }
+
+    /**
+     * Gets birth day.
+     *
+     * @return the birth day column
+     */
+    public int[] getBirthDay() {
+        return birthDay;
+    }
+
+    /**
+     * Gets death day.
+     *
+     * @return the death day column
+     */
+    public int[] getDeathDay() {
+        return deathDay;
+    }
+
+    /**
+     * Gets sex.
+     *
+     * @return the sex column
+     */
+    public byte[] getSex() {
+        return sex;
+    }
+
+    /**
+     * Gets family count.
+     *
+     * @return the family count, the length of the family columns
+     */
+    public int getFamilyCount() {
+        return familyCount;
+    }
+
+    /**
+     * Gets husband.
+     *
+     * @return the husband column
+     */
+    public int[] getHusband() {
+        return husband;
+    }
+
+    /**
+     * Gets wife.
+     *
+     * @return the wife column
+     */
+    public int[] getWife() {
+        return wife;
+    }
+
+    /**
+     * Gets marriage day.
+     *
+     * @return the marriage day column
+     */
+    public int[] getMarriageDay() {
+        return marriageDay;
+    }
+
+    /**
+     * Gets divorce day.
+     *
+     * @return the divorce day column
+     */
+    public int[] getDivorceDay() {
+        return divorceDay;
+    }
+
+    /**
+     * Gets child offsets.
+     *
+     * @return the child offsets, one more than the family count
+     */
+    public int[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    /**
+     * Gets children.
+     *
+     * @return the children of every family, one after the other
+     */
+    public int[] getChildren() {
+        return children;
+    }
+}
@@ -8,12 +8,20 @@ import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
  * Created by JackieDreamy on 2015.
  */
 public class CommonUtils {
 
+    /**
+     * The constant UNKNOWN_DAY, the epoch day of a date that is not known.
+     */
+    public static final int UNKNOWN_DAY = Integer.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
     /**
      * Is not null boolean.
      *
@@ -35,6 +43,42 @@ public class CommonUtils {
         return Calendar.getInstance().getTime();
     }
 
+    /**
+     * Gets the local epoch day of a date.
+     *
+     * @param date
+     *         the date, or null
+     *
+     * @return the days since 1970-01-01 in the default time zone, or {@link #UNKNOWN_DAY}
+     */
+    public static int toEpochDay(Date date) {
+        return date == null ? UNKNOWN_DAY : toEpochDay(date.getTime());
+    }
+
+    /**
+     * Gets the local epoch day of an instant.
+     *
+     * @param time
+     *         the milliseconds since the epoch
+     *
+     * @return the days since 1970-01-01 in the default time zone
+     */
+    public static int toEpochDay(long time) {
+        return (int) Math.floorDiv(time + TimeZone.getDefault().getOffset(time), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Gets the date at the local start of an epoch day.
+     *
+     * @param epochDay
+     *         the days since 1970-01-01, or {@link #UNKNOWN_DAY}
+     *
+     * @return the date, or null
+     */
+    public static Date toDate(int epochDay) {
+        return epochDay == UNKNOWN_DAY ? null : Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
     /**
      * Gets LocalDate from Date.
      *
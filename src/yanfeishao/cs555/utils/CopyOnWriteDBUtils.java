@@ -0,0 +1,62 @@
+package yanfeishao.cs555.utils;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Holds the current version of a tree as a frozen SimpleDBUtils. Readers take the current version with {@link #get()},
+ * a volatile read without locking, and keep using it for as long as they like. A writer changes a thawed copy of the
+ * current version, which is frozen and swapped in as a whole, so a reader never sees half of an update.
+ * <p>
+ * Writers are serialized: every update starts from the version the one before it swapped in. An update copies the
+ * whole tree, so changes belong together in one update rather than one update each.
+ */
+public class CopyOnWriteDBUtils {
+
+    private final AtomicReference<SimpleDBUtils> current;
+    private final Object writeLock = new Object();
+
+    private CopyOnWriteDBUtils(SimpleDBUtils simpleDBUtils) {
+        current = new AtomicReference<>(simpleDBUtils.freeze());
+    }
+
+    /**
+     * Create copy on write factory copy on write db utils.
+     *
+     * @param simpleDBUtils
+     *         the first version, frozen if it is not already
+     *
+     * @return the copy on write db utils
+     */
+    public static CopyOnWriteDBUtils createCopyOnWriteFactory(SimpleDBUtils simpleDBUtils) {
+        return new CopyOnWriteDBUtils(simpleDBUtils);
+    }
+
+    /**
+     * Gets the current version.
+     *
+     * @return the frozen db
+     */
+    public SimpleDBUtils get() {
+        return current.get();
+    }
+
+    /**
+     * Update the tree: the writer changes a thawed copy of the current version, which then becomes the current version.
+     * If the writer throws, the current version is kept.
+     *
+     * @param writer
+     *         the writer
+     *
+     * @return the new frozen version
+     */
+    public SimpleDBUtils update(Consumer<SimpleDBUtils> writer) {
+        synchronized (writeLock) {
+            SimpleDBUtils draftDBUtils = current.get().thaw();
+            writer.accept(draftDBUtils);
+            SimpleDBUtils frozenDBUtils = draftDBUtils.freeze();
+            current.set(frozenDBUtils);
+            return frozenDBUtils;
+        }
+    }
+}
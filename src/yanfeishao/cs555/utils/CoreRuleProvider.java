@@ -0,0 +1,139 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.enums.RecordType;
+import yanfeishao.cs555.enums.RuleAttribute;
+import yanfeishao.cs555.enums.RuleCategory;
+import yanfeishao.cs555.enums.RuleScope;
+import yanfeishao.cs555.rule.Rule;
+import yanfeishao.cs555.rule.RuleContext;
+import yanfeishao.cs555.rule.RuleProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registers the US rules of the project: the special conditions first and then the errors, in the order they have
+ * always been reported. The rules run the checks of {@link DateUtils}, {@link AttributeUtils} and {@link OutputUtils};
+ * a date rule first checks the family in the {@link ColumnUtils} with {@link DateUtils#isCandidate}.
+ */
+public class CoreRuleProvider implements RuleProvider {
+
+    private static final DateUtils DATE_UTILS = DateUtils.createDateFactory();
+    private static final AttributeUtils ATTRIBUTE_UTILS = AttributeUtils.createAttributeFactory();
+    private static final ErrorUtils ERROR_UTILS = new ErrorUtils();
+    private static final OutputUtils OUTPUT_UTILS = OutputUtils.createOutputFactory();
+    private static final Set<RuleAttribute> PERSON_ATTRIBUTES = EnumSet.of(RuleAttribute.NAME, RuleAttribute.SEX, RuleAttribute.BIRTH, RuleAttribute.DEATH, RuleAttribute.LINEAGE);
+
+    @Override
+    public List<Rule> getRules() {
+        List<Rule> rules = new ArrayList<>();
+        rules.add(conditionRule(ErrorCode.US29, RuleAttribute.DEATH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(conditionRule(ErrorCode.US30, RuleAttribute.MARRIAGE, RuleAttribute.DEATH, RuleAttribute.SPOUSES));
+        rules.add(conditionRule(ErrorCode.US31, RuleAttribute.BIRTH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(conditionRule(ErrorCode.US33, RuleAttribute.BIRTH, RuleAttribute.DEATH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(new CoreRule(ErrorCode.US36, RuleCategory.INFO, RuleScope.TREE, EnumSet.of(RuleAttribute.DEATH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN)) {
+            @Override
+            public void evaluate(RuleContext ruleContext, Set<String> results) {
+                OUTPUT_UTILS.parseUS36Condition(ruleContext.getSimpleDBUtils(), results);
+            }
+        });
+        rules.add(conditionRule(ErrorCode.US38, RuleAttribute.BIRTH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(conditionRule(ErrorCode.US39, RuleAttribute.MARRIAGE, RuleAttribute.DEATH, RuleAttribute.SPOUSES));
+        rules.add(dateRule(ErrorCode.US01, RuleAttribute.BIRTH, RuleAttribute.DEATH, RuleAttribute.MARRIAGE, RuleAttribute.DIVORCE, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(dateRule(ErrorCode.US02, RuleAttribute.BIRTH, RuleAttribute.MARRIAGE, RuleAttribute.SPOUSES));
+        rules.add(dateRule(ErrorCode.US03, RuleAttribute.BIRTH, RuleAttribute.DEATH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(dateRule(ErrorCode.US04, RuleAttribute.MARRIAGE, RuleAttribute.DIVORCE, RuleAttribute.SPOUSES));
+        rules.add(dateRule(ErrorCode.US05, RuleAttribute.DEATH, RuleAttribute.MARRIAGE, RuleAttribute.SPOUSES));
+        rules.add(dateRule(ErrorCode.US06, RuleAttribute.BIRTH, RuleAttribute.DEATH, RuleAttribute.DIVORCE, RuleAttribute.SPOUSES));
+        rules.add(dateRule(ErrorCode.US08, RuleAttribute.BIRTH, RuleAttribute.MARRIAGE, RuleAttribute.DIVORCE, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(dateRule(ErrorCode.US09, RuleAttribute.BIRTH, RuleAttribute.DEATH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(dateRule(ErrorCode.US10, RuleAttribute.BIRTH, RuleAttribute.MARRIAGE, RuleAttribute.SPOUSES));
+        rules.add(dateRule(ErrorCode.US12, RuleAttribute.BIRTH, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(attributeRule(ErrorCode.US16, RuleAttribute.NAME, RuleAttribute.SEX, RuleAttribute.SPOUSES, RuleAttribute.CHILDREN));
+        rules.add(attributeRule(ErrorCode.US17, RuleAttribute.SPOUSES, RuleAttribute.LINEAGE));
+        rules.add(attributeRule(ErrorCode.US18, RuleAttribute.SPOUSES, RuleAttribute.LINEAGE));
+        rules.add(attributeRule(ErrorCode.US19, RuleAttribute.SPOUSES, RuleAttribute.LINEAGE));
+        rules.add(attributeRule(ErrorCode.US21, RuleAttribute.SEX, RuleAttribute.SPOUSES));
+        rules.add(attributeRule(ErrorCode.US25, RuleAttribute.NAME, RuleAttribute.BIRTH, RuleAttribute.CHILDREN));
+        return rules;
+    }
+
+    private static Rule dateRule(String code, RuleAttribute attribute, RuleAttribute... attributes) {
+        return new CoreRule(code, RuleCategory.ERROR, RuleScope.FAMILY, EnumSet.of(attribute, attributes)) {
+            @Override
+            public void evaluate(RuleContext ruleContext, int family, FamilyEntity familyEntity, Set<String> results) {
+                if (DATE_UTILS.isCandidate(ruleContext.getColumns(), code, family, ruleContext.getToday())) {
+                    ERROR_UTILS.parseFamilyDateError(DATE_UTILS, familyEntity, code, results);
+                }
+            }
+        };
+    }
+
+    private static Rule attributeRule(String code, RuleAttribute attribute, RuleAttribute... attributes) {
+        return new CoreRule(code, RuleCategory.ERROR, RuleScope.FAMILY, EnumSet.of(attribute, attributes)) {
+            @Override
+            public void evaluate(RuleContext ruleContext, int family, FamilyEntity familyEntity, Set<String> results) {
+                boolean lineage = getAttributes().contains(RuleAttribute.LINEAGE);
+                ERROR_UTILS.parseFamilyAttributeError(ATTRIBUTE_UTILS, ruleContext.getSimpleDBUtils(), familyEntity, code, results, lineage ? ruleContext.getAncestry() : null, lineage ? ruleContext.getKinship() : null);
+            }
+        };
+    }
+
+    private static Rule conditionRule(String code, RuleAttribute attribute, RuleAttribute... attributes) {
+        return new CoreRule(code, RuleCategory.INFO, RuleScope.FAMILY, EnumSet.of(attribute, attributes)) {
+            @Override
+            public void evaluate(RuleContext ruleContext, int family, FamilyEntity familyEntity, Set<String> results) {
+                OUTPUT_UTILS.parseSpecialCondition(ruleContext.getSimpleDBUtils(), familyEntity, code, results);
+            }
+        };
+    }
+
+    private abstract static class CoreRule implements Rule {
+        private final String code;
+        private final RuleCategory category;
+        private final RuleScope scope;
+        private final Set<RuleAttribute> attributes;
+        private final Set<RecordType> recordTypes;
+
+        /**
+         * Every rule walks the FAM records; it reads the INDI records as well if it reads an attribute of an individual.
+         */
+        private CoreRule(String code, RuleCategory category, RuleScope scope, Set<RuleAttribute> attributes) {
+            this.code = code;
+            this.category = category;
+            this.scope = scope;
+            this.attributes = Collections.unmodifiableSet(attributes);
+            this.recordTypes = Collections.unmodifiableSet(attributes.stream().anyMatch(PERSON_ATTRIBUTES::contains) ? EnumSet.of(RecordType.PERSON, RecordType.FAMILY) : EnumSet.of(RecordType.FAMILY));
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public RuleCategory getCategory() {
+            return category;
+        }
+
+        @Override
+        public RuleScope getScope() {
+            return scope;
+        }
+
+        @Override
+        public Set<RecordType> getRecordTypes() {
+            return recordTypes;
+        }
+
+        @Override
+        public Set<RuleAttribute> getAttributes() {
+            return attributes;
+        }
+    }
+}
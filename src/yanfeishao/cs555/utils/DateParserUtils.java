@@ -0,0 +1,260 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.DateEntity;
+import yanfeishao.cs555.enums.DatePrecision;
+import yanfeishao.cs555.enums.DateQualifier;
+import yanfeishao.cs555.enums.ParseEnum;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * GEDCOM date parser that is safe to share between parser threads.
+ * <p>
+ * The date tokens may be separated by spaces or by '-'. The common D MON YYYY form is read by hand, anything else
+ * falls back to the lenient dd-MMM-yyyy SimpleDateFormat the parser always used, and after that to the partial forms
+ * ([ABT|BEF|AFT|EST|CAL] [[D] MON] YYYY). Results are kept in a bounded direct mapped cache keyed by the date text,
+ * so a repeated date costs one hash and one compare.
+ */
+public class DateParserUtils {
+
+    private static final int CACHE_SIZE = 1 << 12;
+    private static final String[] MONTHS = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    private static final DateQualifier[] QUALIFIERS = DateQualifier.values();
+
+    private final AtomicReferenceArray<CacheEntity> cache;
+    private final ThreadLocal<Calendar> calendar;
+    private final ThreadLocal<SimpleDateFormat> dateFormat;
+
+    private DateParserUtils() {
+        cache = new AtomicReferenceArray<>(CACHE_SIZE);
+        calendar = ThreadLocal.withInitial(GregorianCalendar::new);
+        dateFormat = ThreadLocal.withInitial(() -> new SimpleDateFormat(ParseEnum.DATE_FORMAT.toString(), Locale.ENGLISH));
+    }
+
+    /**
+     * Create date parser factory date parser utils.
+     *
+     * @return the date parser utils
+     */
+    public static DateParserUtils createDateParserFactory() {
+        return new DateParserUtils();
+    }
+
+    /**
+     * Parse an exact date.
+     *
+     * @param text
+     *         the date text
+     *
+     * @return a new Date, or null if the text is not an exact date
+     */
+    public Date parseDate(CharSequence text) {
+        DateEntity dateEntity = parseGedcomDate(text);
+        return dateEntity != null && dateEntity.isExact() ? dateEntity.toDate() : null;
+    }
+
+    /**
+     * Parse an exact date to its local epoch day.
+     *
+     * @param text
+     *         the date text
+     *
+     * @return the days since 1970-01-01, or {@link CommonUtils#UNKNOWN_DAY} if the text is not an exact date
+     */
+    public int parseEpochDay(CharSequence text) {
+        DateEntity dateEntity = parseGedcomDate(text);
+        return dateEntity != null && dateEntity.isExact() ? CommonUtils.toEpochDay(dateEntity.getTime()) : CommonUtils.UNKNOWN_DAY;
+    }
+
+    /**
+     * Parse an exact, qualified or partial date.
+     *
+     * @param text
+     *         the date text
+     *
+     * @return the date entity, or null if the text is not a date
+     */
+    public DateEntity parseGedcomDate(CharSequence text) {
+        int hash = hash(text);
+        int index = hash & (CACHE_SIZE - 1);
+        CacheEntity cacheEntity = cache.get(index);
+        if (cacheEntity != null && cacheEntity.hash == hash && contentEquals(cacheEntity.text, text)) {
+            return cacheEntity.dateEntity;
+        }
+        String key = text.toString();
+        DateEntity dateEntity = parse(key);
+        cache.set(index, new CacheEntity(key, dateEntity));
+        return dateEntity;
+    }
+
+    private DateEntity parse(String text) {
+        DateEntity dateEntity = parseExact(text);
+        if (dateEntity == null) {
+            dateEntity = parseLenient(text);
+        }
+        if (dateEntity == null) {
+            dateEntity = parsePartial(text);
+        }
+        return dateEntity;
+    }
+
+    /**
+     * Parse the D MON YYYY form by hand: one or two digits of day, a separator, three letters of month, a separator and
+     * four digits of year.
+     *
+     * @param text
+     *         the date text
+     *
+     * @return the date entity, or null if the text is not in that form
+     */
+    DateEntity parseExact(String text) {
+        int length = text.length();
+        int index = 0;
+        int day = 0;
+        while (index < length && index < 2 && isDigit(text.charAt(index))) {
+            day = day * 10 + text.charAt(index++) - '0';
+        }
+        if (index == 0 || length - index != 9 || !isSeparator(text.charAt(index)) || !isSeparator(text.charAt(index + 4))) {
+            return null;
+        }
+        int month = month(text, index + 1);
+        int year = year(text, index + 5, length);
+        if (month < 0 || year < 0) {
+            return null;
+        }
+        return new DateEntity(toTime(year, month, day), DatePrecision.DAY, DateQualifier.EXACT);
+    }
+
+    private DateEntity parseLenient(String text) {
+        try {
+            return new DateEntity(dateFormat.get().parse(text.replace(' ', '-')).getTime(), DatePrecision.DAY, DateQualifier.EXACT);
+        } catch (ParseException pe) {
+            return null;
+        }
+    }
+
+    private DateEntity parsePartial(String text) {
+        String[] tokens = text.trim().split("[ -]+");
+        int index = 0;
+        DateQualifier qualifier = DateQualifier.EXACT;
+        if (tokens.length > 1) {
+            for (DateQualifier candidate : QUALIFIERS) {
+                if (candidate != DateQualifier.EXACT && candidate.toString().equalsIgnoreCase(tokens[0])) {
+                    qualifier = candidate;
+                    index++;
+                    break;
+                }
+            }
+        }
+        int remaining = tokens.length - index;
+        if (remaining < 1 || remaining > 3) {
+            return null;
+        }
+        String yearToken = tokens[tokens.length - 1];
+        int year = year(yearToken, 0, yearToken.length());
+        int month = remaining > 1 ? monthToken(tokens[tokens.length - 2]) : 0;
+        int day = remaining > 2 ? dayToken(tokens[index]) : 1;
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        DatePrecision precision = remaining == 3 ? DatePrecision.DAY : remaining == 2 ? DatePrecision.MONTH : DatePrecision.YEAR;
+        return new DateEntity(toTime(year, month, day), precision, qualifier);
+    }
+
+    private long toTime(int year, int month, int day) {
+        Calendar current = calendar.get();
+        current.clear();
+        current.set(year, month, day);
+        return current.getTimeInMillis();
+    }
+
+    private static int month(CharSequence text, int start) {
+        for (int month = 0; month < MONTHS.length; month++) {
+            String candidate = MONTHS[month];
+            if (Character.toUpperCase(text.charAt(start)) == candidate.charAt(0)
+                    && Character.toUpperCase(text.charAt(start + 1)) == candidate.charAt(1)
+                    && Character.toUpperCase(text.charAt(start + 2)) == candidate.charAt(2)) {
+                return month;
+            }
+        }
+        return -1;
+    }
+
+    private static int monthToken(String token) {
+        return token.length() == 3 ? month(token, 0) : -1;
+    }
+
+    private static int dayToken(String token) {
+        if (token.isEmpty() || token.length() > 2) {
+            return -1;
+        }
+        int day = 0;
+        for (int index = 0; index < token.length(); index++) {
+            if (!isDigit(token.charAt(index))) {
+                return -1;
+            }
+            day = day * 10 + token.charAt(index) - '0';
+        }
+        return day >= 1 && day <= 31 ? day : -1;
+    }
+
+    private static int year(CharSequence text, int start, int end) {
+        if (end - start != 4) {
+            return -1;
+        }
+        int year = 0;
+        for (int index = start; index < end; index++) {
+            if (!isDigit(text.charAt(index))) {
+                return -1;
+            }
+            year = year * 10 + text.charAt(index) - '0';
+        }
+        return year;
+    }
+
+    private static boolean isDigit(char current) {
+        return current >= '0' && current <= '9';
+    }
+
+    private static boolean isSeparator(char current) {
+        return current == ' ' || current == '-';
+    }
+
+    private static int hash(CharSequence text) {
+        int hash = 0;
+        for (int index = 0; index < text.length(); index++) {
+            hash = 31 * hash + text.charAt(index);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean contentEquals(String key, CharSequence text) {
+        if (key.length() != text.length()) {
+            return false;
+        }
+        for (int index = 0; index < key.length(); index++) {
+            if (key.charAt(index) != text.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CacheEntity {
+        private final String text;
+        private final int hash;
+        private final DateEntity dateEntity;
+
+        private CacheEntity(String text, DateEntity dateEntity) {
+            this.text = text;
+            this.hash = DateParserUtils.hash(text);
+            this.dateEntity = dateEntity;
+        }
+    }
+}
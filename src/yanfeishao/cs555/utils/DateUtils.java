@@ -15,6 +15,13 @@ import java.util.Set;
  */
 public class DateUtils {
 
+    private static final int MARRIAGE_MIN_AGE = 14;
+    private static final int DAYS_IN_COMMON_YEAR = 365;
+    private static final int DAYS_IN_LEAP_YEAR = 366;
+    private static final int MIN_DAYS_IN_NINE_MONTHS = 9 * 28;
+    private static final long MOTHER_AGE_DAYS = Long.parseLong(KeywordsConstant.MOTHERAGE) * DAYS_IN_COMMON_YEAR;
+    private static final long FATHER_AGE_DAYS = Long.parseLong(KeywordsConstant.FATHERAGE) * DAYS_IN_COMMON_YEAR;
+
     private DateUtils() {
     }
 
@@ -27,6 +34,175 @@ public class DateUtils {
         return new DateUtils();
     }
 
+    /**
+     * Check the columns of one family for a date rule. The check only compares epoch days in primitive arrays; it may
+     * keep a family the rule then finds nothing in, but never drops one the rule would report. Families without both a
+     * husband and a wife are never kept.
+     *
+     * @param columns
+     *         the column utils
+     * @param prefix
+     *         the rule code
+     * @param family
+     *         the family index
+     * @param today
+     *         the current date as an epoch day
+     *
+     * @return true if the rule may report the family
+     */
+    public boolean isCandidate(ColumnUtils columns, String prefix, int family, int today) {
+        int father = columns.getHusband()[family];
+        int mother = columns.getWife()[family];
+        if (father < 0 || mother < 0) {
+            return false;
+        }
+        switch (prefix) {
+            case ErrorCode.US01:
+                return isUS01Candidate(columns, family, father, mother, today);
+            case ErrorCode.US02:
+                return isUS02Candidate(columns, family, father, mother);
+            case ErrorCode.US03:
+                return isUS03Candidate(columns, family, father, mother);
+            case ErrorCode.US04:
+                return isUS04Candidate(columns, family);
+            case ErrorCode.US05:
+                return isUS05Candidate(columns, family, father, mother);
+            case ErrorCode.US06:
+                return isUS06Candidate(columns, family, father, mother);
+            case ErrorCode.US08:
+                return isUS08Candidate(columns, family);
+            case ErrorCode.US09:
+                return isUS09Candidate(columns, family, father, mother);
+            case ErrorCode.US10:
+                return isUS10Candidate(columns, family, father, mother);
+            case ErrorCode.US12:
+                return isUS12Candidate(columns, family, father, mother);
+        }
+        return false;
+    }
+
+    private boolean isUS01Candidate(ColumnUtils columns, int family, int father, int mother, int today) {
+        int[] birthDay = columns.getBirthDay();
+        int[] deathDay = columns.getDeathDay();
+        int[] childOffsets = columns.getChildOffsets();
+        int[] children = columns.getChildren();
+        boolean hit = birthDay[father] > today || deathDay[father] > today || birthDay[mother] > today || deathDay[mother] > today || columns.getMarriageDay()[family] > today || columns.getDivorceDay()[family] > today;
+        for (int offset = childOffsets[family]; !hit && offset < childOffsets[family + 1]; offset++) {
+            int child = children[offset];
+            hit = child >= 0 && (birthDay[child] > today || deathDay[child] > today);
+        }
+        return hit;
+    }
+
+    private boolean isUS02Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] birthDay = columns.getBirthDay();
+        int marriage = columns.getMarriageDay()[family];
+        return known(marriage) && known(birthDay[father]) && known(birthDay[mother]) && (birthDay[father] > marriage || birthDay[mother] > marriage);
+    }
+
+    private boolean isUS03Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] birthDay = columns.getBirthDay();
+        int[] deathDay = columns.getDeathDay();
+        int[] childOffsets = columns.getChildOffsets();
+        int[] children = columns.getChildren();
+        boolean hit = diedBeforeBirth(birthDay[father], deathDay[father]) || diedBeforeBirth(birthDay[mother], deathDay[mother]);
+        for (int offset = childOffsets[family]; !hit && offset < childOffsets[family + 1]; offset++) {
+            int child = children[offset];
+            hit = child >= 0 && diedBeforeBirth(birthDay[child], deathDay[child]);
+        }
+        return hit;
+    }
+
+    private boolean isUS04Candidate(ColumnUtils columns, int family) {
+        int marriage = columns.getMarriageDay()[family];
+        int divorce = columns.getDivorceDay()[family];
+        return known(marriage) && known(divorce) && marriage > divorce;
+    }
+
+    private boolean isUS05Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] deathDay = columns.getDeathDay();
+        int marriage = columns.getMarriageDay()[family];
+        return known(marriage) && known(deathDay[father]) && known(deathDay[mother]) && (deathDay[father] < marriage || deathDay[mother] < marriage);
+    }
+
+    /**
+     * US06 is handed the spouses' birth dates by {@link ErrorUtils#parseFamilyDateError}, so the check compares those.
+     */
+    private boolean isUS06Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] birthDay = columns.getBirthDay();
+        int divorce = columns.getDivorceDay()[family];
+        return known(divorce) && known(birthDay[father]) && known(birthDay[mother]) && (divorce > birthDay[father] || divorce > birthDay[mother]);
+    }
+
+    private boolean isUS08Candidate(ColumnUtils columns, int family) {
+        int[] birthDay = columns.getBirthDay();
+        int[] childOffsets = columns.getChildOffsets();
+        int[] children = columns.getChildren();
+        int marriage = columns.getMarriageDay()[family];
+        int divorce = columns.getDivorceDay()[family];
+        boolean hit = false;
+        for (int offset = childOffsets[family]; !hit && offset < childOffsets[family + 1]; offset++) {
+            int child = children[offset];
+            int birth = child < 0 ? CommonUtils.UNKNOWN_DAY : birthDay[child];
+            hit = known(birth) && (known(marriage) && marriage > birth || known(divorce) && divorce < birth);
+        }
+        return hit;
+    }
+
+    /**
+     * A birth nine months or more after the father's death needs at least {@link #MIN_DAYS_IN_NINE_MONTHS} days.
+     */
+    private boolean isUS09Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] birthDay = columns.getBirthDay();
+        int[] childOffsets = columns.getChildOffsets();
+        int[] children = columns.getChildren();
+        int fatherDeath = columns.getDeathDay()[father];
+        int motherDeath = columns.getDeathDay()[mother];
+        boolean hit = false;
+        for (int offset = childOffsets[family]; !hit && offset < childOffsets[family + 1]; offset++) {
+            int child = children[offset];
+            int birth = child < 0 ? CommonUtils.UNKNOWN_DAY : birthDay[child];
+            hit = known(birth) && (known(motherDeath) && birth > motherDeath || known(fatherDeath) && (long) birth - fatherDeath >= MIN_DAYS_IN_NINE_MONTHS);
+        }
+        return hit;
+    }
+
+    /**
+     * A spouse younger than {@link #MARRIAGE_MIN_AGE} years at the marriage was born less than that many leap years
+     * before it.
+     */
+    private boolean isUS10Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] birthDay = columns.getBirthDay();
+        int marriage = columns.getMarriageDay()[family];
+        return known(marriage) && known(birthDay[father]) && known(birthDay[mother]) && ((long) marriage - birthDay[father] < MARRIAGE_MIN_AGE * DAYS_IN_LEAP_YEAR || (long) marriage - birthDay[mother] < MARRIAGE_MIN_AGE * DAYS_IN_LEAP_YEAR);
+    }
+
+    /**
+     * A parent at least N years older than a child was born at least N common years before it.
+     */
+    private boolean isUS12Candidate(ColumnUtils columns, int family, int father, int mother) {
+        int[] birthDay = columns.getBirthDay();
+        int[] childOffsets = columns.getChildOffsets();
+        int[] children = columns.getChildren();
+        int fatherBirth = birthDay[father];
+        int motherBirth = birthDay[mother];
+        boolean hit = false;
+        for (int offset = childOffsets[family]; !hit && offset < childOffsets[family + 1]; offset++) {
+            int child = children[offset];
+            int birth = child < 0 ? CommonUtils.UNKNOWN_DAY : birthDay[child];
+            hit = known(birth) && (known(motherBirth) && (long) birth - motherBirth >= MOTHER_AGE_DAYS || known(fatherBirth) && (long) birth - fatherBirth >= FATHER_AGE_DAYS);
+        }
+        return hit;
+    }
+
+    private static boolean known(int epochDay) {
+        return epochDay != CommonUtils.UNKNOWN_DAY;
+    }
+
+    private static boolean diedBeforeBirth(int birthDay, int deathDay) {
+        return known(birthDay) && known(deathDay) && birthDay > deathDay;
+    }
+
     private boolean birthDateWithRange(Date specificDate, Date birthDate) {
         return birthDate.after(specificDate);
     }
@@ -56,20 +232,26 @@ public class DateUtils {
     }
 
     private boolean us10ParseCondition(Date husbandBirthDate, Date wifeBirthDate, Date marriageDate) {
-        return (CommonUtils.isNotNull(husbandBirthDate) && CommonUtils.isNotNull(marriageDate) && CommonUtils.compareDateDiff(husbandBirthDate, marriageDate, DateType.YEAR) < 14) || (CommonUtils.isNotNull(wifeBirthDate) && CommonUtils.isNotNull(marriageDate) && CommonUtils.compareDateDiff(wifeBirthDate, marriageDate, DateType.YEAR) < 14);
+        return (CommonUtils.isNotNull(husbandBirthDate) && CommonUtils.isNotNull(marriageDate) && CommonUtils.compareDateDiff(husbandBirthDate, marriageDate, DateType.YEAR) < MARRIAGE_MIN_AGE) || (CommonUtils.isNotNull(wifeBirthDate) && CommonUtils.isNotNull(marriageDate) && CommonUtils.compareDateDiff(wifeBirthDate, marriageDate, DateType.YEAR) < MARRIAGE_MIN_AGE);
     }
 
+    /**
+     * The dates of the family and its spouses a rule compares every child with are made once, before the children.
+     */
     private void parseChildDateError(Set<String> result, FamilyEntity familyEntity, String prefix) {
+        boolean us08 = ErrorCode.US08.equals(prefix);
+        boolean us09 = ErrorCode.US09.equals(prefix);
+        boolean us12 = ErrorCode.US12.equals(prefix);
+        Date husbandDeathDate = us09 ? familyEntity.getFather().getDeathDate() : null;
+        Date wifeDeathDate = us09 ? familyEntity.getMother().getDeathDate() : null;
+        Date husbandBirthDate = us12 ? familyEntity.getFather().getBirthDate() : null;
+        Date wifeBirthDate = us12 ? familyEntity.getMother().getBirthDate() : null;
+        Date parentMarriedDate = us08 ? familyEntity.getMarriedDate() : null;
+        Date parentDivorceDate = us08 ? familyEntity.getDivorceDate() : null;
         familyEntity.getChildList().forEach(child -> {
             if (CommonUtils.isNotNull(child)) {
                 Date childBirthDate = child.getBirthDate();
                 Date childDeathDate = child.getDeathDate();
-                Date husbandDeathDate = familyEntity.getFather().getDeathDate();
-                Date wifeDeathDate = familyEntity.getMother().getDeathDate();
-                Date husbandBirthDate = familyEntity.getFather().getBirthDate();
-                Date wifeBirthDate = familyEntity.getMother().getBirthDate();
-                Date parentMarriedDate = familyEntity.getMarriedDate();
-                Date parentDivorceDate = familyEntity.getDivorceDate();
                 switch (prefix) {
                     case ErrorCode.US01: {
                         Date currentDate = CommonUtils.getCurrentDate();
@@ -90,9 +272,9 @@ public class DateUtils {
                     case ErrorCode.US08: {
                         if (CommonUtils.isNotNull(childBirthDate)) {
                             if (CommonUtils.isNotNull(parentMarriedDate) && parentMarriedDate.after(childBirthDate)) {
-                                result.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, prefix, child.getIdentifier(), child.getName(), CommonUtils.getFormattedDate(childBirthDate), KeywordsConstant.BEFORE, KeywordsConstant.MARRIAGE, CommonUtils.getFormattedDate(familyEntity.getMarriedDate()), familyEntity.getIdentifier()));
+                                result.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, prefix, child.getIdentifier(), child.getName(), CommonUtils.getFormattedDate(childBirthDate), KeywordsConstant.BEFORE, KeywordsConstant.MARRIAGE, CommonUtils.getFormattedDate(parentMarriedDate), familyEntity.getIdentifier()));
                             } else if (CommonUtils.isNotNull(parentDivorceDate) && parentDivorceDate.before(childBirthDate)) {
-                                result.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, prefix, child.getIdentifier(), child.getName(), CommonUtils.getFormattedDate(childBirthDate), KeywordsConstant.AFTER, KeywordsConstant.DIVORCE, CommonUtils.getFormattedDate(familyEntity.getDivorceDate()), familyEntity.getIdentifier()));
+                                result.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, prefix, child.getIdentifier(), child.getName(), CommonUtils.getFormattedDate(childBirthDate), KeywordsConstant.AFTER, KeywordsConstant.DIVORCE, CommonUtils.getFormattedDate(parentDivorceDate), familyEntity.getIdentifier()));
                             }
                         }
                     }
@@ -4,10 +4,13 @@ import yanfeishao.cs555.constant.ErrorCode;
 import yanfeishao.cs555.constant.ErrorInfo;
 import yanfeishao.cs555.constant.FormatterRegex;
 import yanfeishao.cs555.constant.KeywordsConstant;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.entities.ReferenceEntity;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -17,93 +20,113 @@ import java.util.Set;
 public class ErrorUtils {
 
     /**
-     * Parse date error.
+     * Parse the date errors of one family. The epoch days of the family and its spouses are read once, and only the
+     * dates the rule compares are made from them; a family without both spouses has no date errors.
      *
      * @param dateUtils
      *         the date utils
-     * @param simpleDBUtils
-     *         the simple db utils
+     * @param familyEntity
+     *         the family entity
      * @param prefix
      *         the prefix
      * @param result
      *         the result
      */
-    public void parseDateError(DateUtils dateUtils, SimpleDBUtils simpleDBUtils, String prefix, Set<String> result) {
-        simpleDBUtils.getFamilyDBList().forEach(familyEntity -> {
-            Date marriageDate = familyEntity.getMarriedDate();
-            Date divorceDate = familyEntity.getDivorceDate();
-            Date husbandBirthDate = familyEntity.getFather().getBirthDate();
-            Date wifeBirthDate = familyEntity.getMother().getBirthDate();
-            Date husbandDeathDate = familyEntity.getFather().getDeathDate();
-            Date wifeDeathDate = familyEntity.getMother().getDeathDate();
-            switch (prefix) {
-                case ErrorCode.US01: {
-                    dateUtils.parseUS01Error(result, prefix, familyEntity, marriageDate, divorceDate, husbandBirthDate, wifeBirthDate, husbandDeathDate, wifeDeathDate);
-                }
-                break;
-                case ErrorCode.US02: {
-                    dateUtils.parseUS02Error(result, prefix, familyEntity, marriageDate, husbandBirthDate, wifeBirthDate);
-                }
-                break;
-                case ErrorCode.US03: {
-                    dateUtils.parseUS03Error(result, prefix, familyEntity, husbandBirthDate, husbandDeathDate, wifeBirthDate, wifeDeathDate);
-                }
-                break;
-                case ErrorCode.US04: {
-                    dateUtils.parseUS04Error(result, prefix, familyEntity, marriageDate, divorceDate);
-                }
-                break;
-                case ErrorCode.US05: {
-                    dateUtils.parseUS05Error(result, prefix, familyEntity, husbandDeathDate, wifeDeathDate, marriageDate);
-                }
-                break;
-                case ErrorCode.US06: {
-                    dateUtils.parseUS06Error(result, prefix, familyEntity, husbandBirthDate, wifeBirthDate, divorceDate);
-                }
-                break;
-                case ErrorCode.US10: {
-                    dateUtils.parseUS10Error(result, prefix, familyEntity, husbandBirthDate, wifeBirthDate, marriageDate);
-                }
-                break;
-                case ErrorCode.US08:
-                case ErrorCode.US09:
-                case ErrorCode.US12: {
-                    dateUtils.parseUS08US09US12Error(result, prefix, familyEntity);
-                }
-                break;
+    void parseFamilyDateError(DateUtils dateUtils, FamilyEntity familyEntity, String prefix, Set<String> result) {
+        PersonEntity husbandEntity = familyEntity.getFather();
+        PersonEntity wifeEntity = familyEntity.getMother();
+        if (husbandEntity == null || wifeEntity == null) {
+            return;
+        }
+        int marriageDay = familyEntity.getMarriedDay();
+        int divorceDay = familyEntity.getDivorceDay();
+        int husbandBirthDay = husbandEntity.getBirthDay();
+        int wifeBirthDay = wifeEntity.getBirthDay();
+        int husbandDeathDay = husbandEntity.getDeathDay();
+        int wifeDeathDay = wifeEntity.getDeathDay();
+        switch (prefix) {
+            case ErrorCode.US01: {
+                dateUtils.parseUS01Error(result, prefix, familyEntity, CommonUtils.toDate(marriageDay), CommonUtils.toDate(divorceDay), CommonUtils.toDate(husbandBirthDay), CommonUtils.toDate(wifeBirthDay), CommonUtils.toDate(husbandDeathDay), CommonUtils.toDate(wifeDeathDay));
             }
-        });
+            break;
+            case ErrorCode.US02: {
+                dateUtils.parseUS02Error(result, prefix, familyEntity, CommonUtils.toDate(marriageDay), CommonUtils.toDate(husbandBirthDay), CommonUtils.toDate(wifeBirthDay));
+            }
+            break;
+            case ErrorCode.US03: {
+                dateUtils.parseUS03Error(result, prefix, familyEntity, CommonUtils.toDate(husbandBirthDay), CommonUtils.toDate(husbandDeathDay), CommonUtils.toDate(wifeBirthDay), CommonUtils.toDate(wifeDeathDay));
+            }
+            break;
+            case ErrorCode.US04: {
+                dateUtils.parseUS04Error(result, prefix, familyEntity, CommonUtils.toDate(marriageDay), CommonUtils.toDate(divorceDay));
+            }
+            break;
+            case ErrorCode.US05: {
+                dateUtils.parseUS05Error(result, prefix, familyEntity, CommonUtils.toDate(husbandDeathDay), CommonUtils.toDate(wifeDeathDay), CommonUtils.toDate(marriageDay));
+            }
+            break;
+            case ErrorCode.US06: {
+                dateUtils.parseUS06Error(result, prefix, familyEntity, CommonUtils.toDate(husbandBirthDay), CommonUtils.toDate(wifeBirthDay), CommonUtils.toDate(divorceDay));
+            }
+            break;
+            case ErrorCode.US10: {
+                dateUtils.parseUS10Error(result, prefix, familyEntity, CommonUtils.toDate(husbandBirthDay), CommonUtils.toDate(wifeBirthDay), CommonUtils.toDate(marriageDay));
+            }
+            break;
+            case ErrorCode.US08:
+            case ErrorCode.US09:
+            case ErrorCode.US12: {
+                dateUtils.parseUS08US09US12Error(result, prefix, familyEntity);
+            }
+            break;
+        }
     }
 
     /**
-     * Parse attribute error.
+     * Parse the attribute errors of one family.
      *
      * @param attributeUtils
      *         the name utils
      * @param simpleDBUtils
      *         the simple db utils
+     * @param familyEntity
+     *         the family entity
      * @param prefix
      *         the prefix
      * @param result
      *         the result
+     * @param ancestry
+     *         the ancestry of the db, needed by US17 only
+     * @param kinship
+     *         the kinship of the db, needed by US18 and US19 only
      */
-    public void parseAttributeError(AttributeUtils attributeUtils, SimpleDBUtils simpleDBUtils, String prefix, Set<String> result) {
-        simpleDBUtils.getFamilyDBList().forEach(familyEntity -> {
-            switch (prefix) {
-                case ErrorCode.US16: {
-                    attributeUtils.parseUS16Error(result, prefix, familyEntity);
-                }
-                break;
-                case ErrorCode.US21: {
-                    attributeUtils.parseUS21Error(result, prefix, familyEntity);
-                }
-                break;
-                case ErrorCode.US25: {
-                    attributeUtils.parseUS25Error(result, prefix, familyEntity);
-                }
-                break;
+    void parseFamilyAttributeError(AttributeUtils attributeUtils, SimpleDBUtils simpleDBUtils, FamilyEntity familyEntity, String prefix, Set<String> result, AncestryUtils ancestry, KinshipUtils kinship) {
+        switch (prefix) {
+            case ErrorCode.US16: {
+                attributeUtils.parseUS16Error(result, prefix, familyEntity);
             }
-        });
+            break;
+            case ErrorCode.US17: {
+                attributeUtils.parseUS17Error(result, prefix, familyEntity, ancestry);
+            }
+            break;
+            case ErrorCode.US18: {
+                attributeUtils.parseUS18Error(result, prefix, familyEntity, kinship, simpleDBUtils);
+            }
+            break;
+            case ErrorCode.US19: {
+                attributeUtils.parseUS19Error(result, prefix, familyEntity, kinship, simpleDBUtils);
+            }
+            break;
+            case ErrorCode.US21: {
+                attributeUtils.parseUS21Error(result, prefix, familyEntity);
+            }
+            break;
+            case ErrorCode.US25: {
+                attributeUtils.parseUS25Error(result, prefix, familyEntity);
+            }
+            break;
+        }
     }
 
     /**
@@ -125,7 +148,7 @@ public class ErrorUtils {
      *         the current date
      */
 
-    public static void parseError(StringBuffer currentDate) {
+    public static void parseError(CharSequence currentDate) {
         LogUtils.log(String.format(FormatterRegex.ERROR_TITLE, KeywordsConstant.ERROR, ErrorCode.US42));
         String message = String.format(ErrorInfo.US42, currentDate.toString());
         LogUtils.reason(message);
@@ -142,6 +165,24 @@ public class ErrorUtils {
         return results;
     }
 
+    /**
+     * Dangling reference error.
+     *
+     * @param results
+     *         the HUSB / WIFE / CHIL pointers without an individual record
+     *
+     * @return the results
+     */
+    public static List<ReferenceEntity> danglingReferenceError(List<ReferenceEntity> results) {
+        results.forEach(result -> {
+            LogUtils.log(String.format(FormatterRegex.ERROR_TITLE, KeywordsConstant.ERROR, ErrorCode.US26));
+            String message = String.format(ErrorInfo.US26, result.getFamilyEntity().getIdentifier(), result.getTag(), result.getIdentifier());
+            LogUtils.reason(message);
+            LogUtils.line();
+        });
+        return results;
+    }
+
     /**
      * Path error.
      *
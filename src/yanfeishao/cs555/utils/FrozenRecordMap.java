@@ -0,0 +1,97 @@
+package yanfeishao.cs555.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * The record map of a frozen SimpleDBUtils: a copy of another record map, with the same indices, that cannot be
+ * changed. Every field is final and filled in by the constructor, so once the map is constructed any number of threads
+ * can read it without locking.
+ *
+ * @param <V>
+ *         the record type
+ */
+class FrozenRecordMap<V> extends RecordMap<V> {
+
+    private final IdentifierUtils identifiers;
+    private final Object[] values;
+    private final List<V> list;
+
+    /**
+     * Instantiates a new Frozen record map.
+     *
+     * @param source
+     *         the source record map
+     * @param copy
+     *         the function that copies a record into one that cannot be changed
+     */
+    FrozenRecordMap(RecordMap<V> source, UnaryOperator<V> copy) {
+        identifiers = IdentifierUtils.createIdentifierFactory();
+        values = new Object[source.indexSize()];
+        List<V> records = new ArrayList<>(source.size());
+        for (int index = 0; index < source.indexSize(); index++) {
+            identifiers.intern(source.identifier(index));
+            V value = source.get(index);
+            if (value != null) {
+                V frozen = copy.apply(value);
+                values[index] = frozen;
+                records.add(frozen);
+            }
+        }
+        list = Collections.unmodifiableList(records);
+    }
+
+    @Override
+    int indexOf(String identifier) {
+        int index = identifiers.indexOf(identifier);
+        return index >= 0 && values[index] != null ? index : -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V get(int index) {
+        return index >= 0 && index < values.length ? (V) values[index] : null;
+    }
+
+    @Override
+    String identifier(int index) {
+        return identifiers.identifier(index);
+    }
+
+    @Override
+    int indexSize() {
+        return values.length;
+    }
+
+    @Override
+    int version() {
+        return 0;
+    }
+
+    @Override
+    List<V> list() {
+        return list;
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public V put(String key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+}
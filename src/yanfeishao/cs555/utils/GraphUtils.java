@@ -0,0 +1,291 @@
+package yanfeishao.cs555.utils;
+
+import java.util.Arrays;
+
+/**
+ * The family tree as a graph over person indices, built in one pass from the HUSB, WIFE and CHIL columns of a
+ * {@link ColumnUtils}: every child of a family has an edge from its husband and from its wife. The parent to child and
+ * the child to parent edges are each kept as CSR arrays, the edges of person {@code p} being {@code edges[offsets[p]]}
+ * up to, not including, {@code edges[offsets[p + 1]]}.
+ * <p>
+ * The ancestor and descendant traversals are breadth first and iterative, so the depth of a lineage never touches the
+ * call stack, and remember the individuals they have reached, so an individual listed by two families or a cycle in a
+ * broken file is visited once. Their cost follows the size of the result, not of the tree.
+ */
+public class GraphUtils {
+
+    /**
+     * The constant ALL_GENERATIONS.
+     */
+    public static final int ALL_GENERATIONS = Integer.MAX_VALUE;
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_SIZE = 16;
+
+    private final ColumnUtils columns;
+    private final int[] childOffsets;
+    private final int[] childEdges;
+    private final int[] parentOffsets;
+    private final int[] parentEdges;
+
+    private GraphUtils(SimpleDBUtils simpleDBUtils) {
+        columns = simpleDBUtils.getColumns();
+        int personCount = columns.getPersonCount();
+        int[] husband = columns.getHusband();
+        int[] wife = columns.getWife();
+        int[] familyChildOffsets = columns.getChildOffsets();
+        int[] children = columns.getChildren();
+        childOffsets = new int[personCount + 1];
+        parentOffsets = new int[personCount + 1];
+        for (int family = 0; family < columns.getFamilyCount(); family++) {
+            for (int child = familyChildOffsets[family]; child < familyChildOffsets[family + 1]; child++) {
+                if (isPerson(children[child], personCount)) {
+                    countEdge(husband[family], children[child], personCount);
+                    countEdge(wife[family], children[child], personCount);
+                }
+            }
+        }
+        childEdges = new int[accumulate(childOffsets)];
+        parentEdges = new int[accumulate(parentOffsets)];
+        int[] childNext = Arrays.copyOf(childOffsets, personCount);
+        int[] parentNext = Arrays.copyOf(parentOffsets, personCount);
+        for (int family = 0; family < columns.getFamilyCount(); family++) {
+            for (int child = familyChildOffsets[family]; child < familyChildOffsets[family + 1]; child++) {
+                if (isPerson(children[child], personCount)) {
+                    addEdge(childNext, parentNext, husband[family], children[child], personCount);
+                    addEdge(childNext, parentNext, wife[family], children[child], personCount);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create graph factory graph utils.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @return the graph utils
+     */
+    public static GraphUtils createGraphFactory(SimpleDBUtils simpleDBUtils) {
+        return new GraphUtils(simpleDBUtils);
+    }
+
+    /**
+     * Gets the children of an individual, a child being listed once for every family that links the two.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the person indices of the children
+     */
+    public int[] getChildren(int person) {
+        return Arrays.copyOfRange(childEdges, childOffsets[person], childOffsets[person + 1]);
+    }
+
+    /**
+     * Gets the parents of an individual, a parent being listed once for every family that links the two.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the person indices of the parents
+     */
+    public int[] getParents(int person) {
+        return Arrays.copyOfRange(parentEdges, parentOffsets[person], parentOffsets[person + 1]);
+    }
+
+    /**
+     * Gets every ancestor of an individual.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the person indices, parents first, then grandparents and so on
+     */
+    public int[] getAncestors(int person) {
+        return getAncestors(person, ALL_GENERATIONS);
+    }
+
+    /**
+     * Gets the ancestors of an individual up to a number of generations.
+     *
+     * @param person
+     *         the person index
+     * @param generations
+     *         the number of generations, 1 for the parents only
+     *
+     * @return the person indices, parents first, then grandparents and so on
+     */
+    public int[] getAncestors(int person, int generations) {
+        return traverse(parentOffsets, parentEdges, person, generations);
+    }
+
+    /**
+     * Gets every descendant of an individual.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the person indices, children first, then grandchildren and so on
+     */
+    public int[] getDescendants(int person) {
+        return getDescendants(person, ALL_GENERATIONS);
+    }
+
+    /**
+     * Gets the descendants of an individual up to a number of generations.
+     *
+     * @param person
+     *         the person index
+     * @param generations
+     *         the number of generations, 1 for the children only
+     *
+     * @return the person indices, children first, then grandchildren and so on
+     */
+    public int[] getDescendants(int person, int generations) {
+        return traverse(childOffsets, childEdges, person, generations);
+    }
+
+    /**
+     * Gets the columns the graph was built from.
+     *
+     * @return the column utils
+     */
+    ColumnUtils getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the child offsets, one more than the person count.
+     *
+     * @return the child offsets
+     */
+    int[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    /**
+     * Gets the parent to child edges.
+     *
+     * @return the child edges
+     */
+    int[] getChildEdges() {
+        return childEdges;
+    }
+
+    /**
+     * Gets the parent offsets, one more than the person count.
+     *
+     * @return the parent offsets
+     */
+    int[] getParentOffsets() {
+        return parentOffsets;
+    }
+
+    /**
+     * Gets the child to parent edges.
+     *
+     * @return the parent edges
+     */
+    int[] getParentEdges() {
+        return parentEdges;
+    }
+
+    private static int[] traverse(int[] offsets, int[] edges, int person, int generations) {
+        int[] queue = new int[INITIAL_SIZE];
+        int[] visited = new int[INITIAL_SIZE * 2];
+        Arrays.fill(visited, EMPTY);
+        queue[0] = person;
+        visited = visit(visited, 0, person);
+        int size = 1;
+        int generationStart = 0;
+        for (int generation = 0; generation < generations && generationStart < size; generation++) {
+            int generationEnd = size;
+            for (int next = generationStart; next < generationEnd; next++) {
+                int from = queue[next];
+                for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+                    int[] grown = visit(visited, size, edges[edge]);
+                    if (grown != null) {
+                        visited = grown;
+                        if (size == queue.length) {
+                            queue = Arrays.copyOf(queue, size * 2);
+                        }
+                        queue[size++] = edges[edge];
+                    }
+                }
+            }
+            generationStart = generationEnd;
+        }
+        return Arrays.copyOfRange(queue, 1, size);
+    }
+
+    /**
+     * Mark an individual as visited in an open addressed set of person indices, -1 being an empty slot.
+     *
+     * @param visited
+     *         the set, of which the length is a power of two
+     * @param size
+     *         the number of individuals already in the set
+     * @param person
+     *         the person index
+     *
+     * @return null if the individual was already visited, otherwise the set, grown into a new array once it is half full
+     */
+    static int[] visit(int[] visited, int size, int person) {
+        int mask = visited.length - 1;
+        int slot = mix(person) & mask;
+        while (visited[slot] != EMPTY) {
+            if (visited[slot] == person) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        visited[slot] = person;
+        if ((size + 1) * 2 <= visited.length) {
+            return visited;
+        }
+        int[] grown = new int[visited.length * 2];
+        Arrays.fill(grown, EMPTY);
+        for (int value : visited) {
+            if (value != EMPTY) {
+                int grownSlot = mix(value) & (grown.length - 1);
+                while (grown[grownSlot] != EMPTY) {
+                    grownSlot = (grownSlot + 1) & (grown.length - 1);
+                }
+                grown[grownSlot] = value;
+            }
+        }
+        return grown;
+    }
+
+    private static int mix(int value) {
+        value *= 0x9E3779B9;
+        return value ^ (value >>> 16);
+    }
+
+    private static boolean isPerson(int person, int personCount) {
+        return person >= 0 && person < personCount;
+    }
+
+    private void countEdge(int parent, int child, int personCount) {
+        if (isPerson(parent, personCount)) {
+            childOffsets[parent + 1]++;
+            parentOffsets[child + 1]++;
+        }
+    }
+
+    private void addEdge(int[] childNext, int[] parentNext, int parent, int child, int personCount) {
+        if (isPerson(parent, personCount)) {
+            childEdges[childNext[parent]++] = child;
+            parentEdges[parentNext[child]++] = parent;
+        }
+    }
+
+    private static int accumulate(int[] offsets) {
+        for (int person = 1; person < offsets.length; person++) {
+            offsets[person] += offsets[person - 1];
+        }
+        return offsets[offsets.length - 1];
+    }
+}
@@ -0,0 +1,132 @@
+package yanfeishao.cs555.utils;
+
+import java.util.Arrays;
+
+/**
+ * Interns GEDCOM cross reference identifiers such as {@code @I123@} to dense ints, 0, 1, 2... in the order they are
+ * first seen, so records can be kept in arrays indexed by that int and the identifier string is only needed again
+ * when a result is rendered.
+ * <p>
+ * The table is open addressed with linear probing over the cached {@link String#hashCode()}; the null identifier,
+ * which holds a record whose identifier was already taken, gets an index of its own like any other.
+ */
+public class IdentifierUtils {
+
+    private static final int INITIAL_SIZE = 64;
+    private static final int EMPTY = -1;
+
+    private int[] table;
+    private String[] identifiers;
+    private int nullIndex;
+    private int size;
+
+    private IdentifierUtils() {
+        table = new int[INITIAL_SIZE * 2];
+        Arrays.fill(table, EMPTY);
+        identifiers = new String[INITIAL_SIZE];
+        nullIndex = EMPTY;
+    }
+
+    /**
+     * Create identifier factory identifier utils.
+     *
+     * @return the identifier utils
+     */
+    public static IdentifierUtils createIdentifierFactory() {
+        return new IdentifierUtils();
+    }
+
+    /**
+     * Gets the index of an identifier, giving it the next free index the first time it is seen.
+     *
+     * @param identifier
+     *         the identifier
+     *
+     * @return the index
+     */
+    public int intern(String identifier) {
+        if (identifier == null) {
+            if (nullIndex == EMPTY) {
+                nullIndex = append(null);
+            }
+            return nullIndex;
+        }
+        int slot = slot(identifier);
+        if (table[slot] == EMPTY) {
+            table[slot] = append(identifier);
+            if (size * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            return size - 1;
+        }
+        return table[slot];
+    }
+
+    /**
+     * Gets the index of an identifier without interning it.
+     *
+     * @param identifier
+     *         the identifier
+     *
+     * @return the index, or -1 if the identifier was never interned
+     */
+    public int indexOf(String identifier) {
+        return identifier == null ? nullIndex : table[slot(identifier)];
+    }
+
+    /**
+     * Gets identifier.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the identifier
+     */
+    public String identifier(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return identifiers[index];
+    }
+
+    /**
+     * Gets size.
+     *
+     * @return the number of interned identifiers, one more than the highest index
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(String identifier) {
+        int mask = table.length - 1;
+        int slot = mix(identifier.hashCode()) & mask;
+        while (table[slot] != EMPTY && !identifier.equals(identifiers[table[slot]])) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int append(String identifier) {
+        if (size == identifiers.length) {
+            identifiers = Arrays.copyOf(identifiers, size * 2);
+        }
+        identifiers[size] = identifier;
+        return size++;
+    }
+
+    private void rehash(int length) {
+        table = new int[length];
+        Arrays.fill(table, EMPTY);
+        for (int index = 0; index < size; index++) {
+            if (identifiers[index] != null) {
+                table[slot(identifiers[index])] = index;
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
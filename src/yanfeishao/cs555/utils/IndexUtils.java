@@ -0,0 +1,392 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.enums.ParseEnum;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Secondary indexes over the individuals of a SimpleDBUtils, built in one pass from its {@link ColumnUtils}: surname to
+ * individuals, birth year and death year to individuals, individual to the families they are a spouse (FAMS) or a
+ * child (FAMC) in, and the marital status of every individual, so a lookup is a probe instead of a scan of every
+ * family.
+ * <p>
+ * Individuals and families are given by their person / family index. The spouse and child links are taken from the
+ * HUSB, WIFE and CHIL pointers of the families, which is what the rules read as well; a dangling pointer links nothing.
+ * <p>
+ * An individual is married for as long as a family lists them as a spouse, and a marriage is current while it has no
+ * divorce date and the other spouse has no death date. A marriage that has lost its other spouse to death, without a
+ * divorce, widows the individual unless they have a current marriage as well.
+ */
+public class IndexUtils {
+
+    private static final int[] NONE = new int[0];
+
+    private final ColumnUtils columns;
+    private final Map<String, int[]> surnamePersons;
+    private final int[] birthYears;
+    private final int[] birthPersons;
+    private final int[] deathYears;
+    private final int[] deathPersons;
+    private final int[] spouseOffsets;
+    private final int[] spouseFamilies;
+    private final int[] childOffsets;
+    private final int[] childFamilies;
+    private final int[] currentSpouses;
+    private final boolean[] bereaved;
+
+    private IndexUtils(SimpleDBUtils simpleDBUtils) {
+        columns = simpleDBUtils.getColumns();
+        int personCount = columns.getPersonCount();
+        String[] surnames = new String[personCount];
+        Map<String, Integer> surnameCounts = new HashMap<>();
+        for (int person = 0; person < personCount; person++) {
+            PersonEntity personEntity = simpleDBUtils.getPerson(person);
+            surnames[person] = personEntity == null ? null : surname(personEntity.getName());
+            if (surnames[person] != null) {
+                surnameCounts.merge(surnames[person], 1, Integer::sum);
+            }
+        }
+        surnamePersons = new HashMap<>();
+        for (int person = 0; person < personCount; person++) {
+            if (surnames[person] != null) {
+                int[] persons = surnamePersons.computeIfAbsent(surnames[person], surname -> new int[surnameCounts.get(surname)]);
+                persons[persons.length - 1 - surnameCounts.merge(surnames[person], -1, Integer::sum)] = person;
+            }
+        }
+        long[] births = byYear(columns.getBirthDay());
+        birthYears = years(births);
+        birthPersons = persons(births);
+        long[] deaths = byYear(columns.getDeathDay());
+        deathYears = years(deaths);
+        deathPersons = persons(deaths);
+        int familyCount = columns.getFamilyCount();
+        spouseOffsets = new int[personCount + 1];
+        childOffsets = new int[personCount + 1];
+        for (int family = 0; family < familyCount; family++) {
+            count(spouseOffsets, columns.getHusband()[family]);
+            count(spouseOffsets, columns.getWife()[family]);
+        }
+        for (int child = 0; child < columns.getChildren().length; child++) {
+            count(childOffsets, columns.getChildren()[child]);
+        }
+        spouseFamilies = new int[accumulate(spouseOffsets)];
+        childFamilies = new int[accumulate(childOffsets)];
+        int[] spouseNext = Arrays.copyOf(spouseOffsets, personCount);
+        int[] childNext = Arrays.copyOf(childOffsets, personCount);
+        currentSpouses = new int[personCount];
+        bereaved = new boolean[personCount];
+        for (int family = 0; family < familyCount; family++) {
+            int husband = columns.getHusband()[family];
+            int wife = columns.getWife()[family];
+            link(spouseFamilies, spouseNext, husband, family);
+            link(spouseFamilies, spouseNext, wife, family);
+            for (int child = columns.getChildOffsets()[family]; child < columns.getChildOffsets()[family + 1]; child++) {
+                link(childFamilies, childNext, columns.getChildren()[child], family);
+            }
+            if (columns.getDivorceDay()[family] == CommonUtils.UNKNOWN_DAY) {
+                marry(husband, wife);
+                marry(wife, husband);
+            }
+        }
+    }
+
+    /**
+     * Create index factory index utils.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @return the index utils
+     */
+    public static IndexUtils createIndexFactory(SimpleDBUtils simpleDBUtils) {
+        return new IndexUtils(simpleDBUtils);
+    }
+
+    /**
+     * Gets the surname of a GEDCOM name, the part between the slashes.
+     *
+     * @param name
+     *         the name, such as {@code Darlene /Cook/}
+     *
+     * @return the surname, or null if the name has none
+     */
+    public static String surname(String name) {
+        if (name == null) {
+            return null;
+        }
+        String[] splitResult = name.split(ParseEnum.PERSON_NAME_SPLIT.toString());
+        return splitResult.length > 1 ? splitResult[1] : null;
+    }
+
+    /**
+     * Gets the individuals with a surname.
+     *
+     * @param surname
+     *         the surname
+     *
+     * @return the person indices, in index order
+     */
+    public int[] getPersonsBySurname(String surname) {
+        int[] persons = surnamePersons.get(surname);
+        return persons == null ? NONE : persons.clone();
+    }
+
+    /**
+     * Gets the individuals born in a year.
+     *
+     * @param year
+     *         the year
+     *
+     * @return the person indices
+     */
+    public int[] getPersonsBornIn(int year) {
+        return getPersonsBornBetween(year, year);
+    }
+
+    /**
+     * Gets the individuals born between two years.
+     *
+     * @param fromYear
+     *         the first year
+     * @param toYear
+     *         the last year, inclusive
+     *
+     * @return the person indices, by birth year and then index
+     */
+    public int[] getPersonsBornBetween(int fromYear, int toYear) {
+        return range(birthYears, birthPersons, fromYear, toYear);
+    }
+
+    /**
+     * Gets the individuals who died in a year.
+     *
+     * @param year
+     *         the year
+     *
+     * @return the person indices
+     */
+    public int[] getPersonsDiedIn(int year) {
+        return getPersonsDiedBetween(year, year);
+    }
+
+    /**
+     * Gets the individuals who died between two years.
+     *
+     * @param fromYear
+     *         the first year
+     * @param toYear
+     *         the last year, inclusive
+     *
+     * @return the person indices, by death year and then index
+     */
+    public int[] getPersonsDiedBetween(int fromYear, int toYear) {
+        return range(deathYears, deathPersons, fromYear, toYear);
+    }
+
+    /**
+     * Gets the families an individual is a spouse in.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the family indices, in index order
+     */
+    public int[] getSpouseFamilies(int person) {
+        return Arrays.copyOfRange(spouseFamilies, spouseOffsets[person], spouseOffsets[person + 1]);
+    }
+
+    /**
+     * Gets the families an individual is a child in.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the family indices, in index order
+     */
+    public int[] getChildFamilies(int person) {
+        return Arrays.copyOfRange(childFamilies, childOffsets[person], childOffsets[person + 1]);
+    }
+
+    /**
+     * Gets the family an individual is a child in.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the first family index, or -1 if the individual is nobody's child
+     */
+    public int getChildFamily(int person) {
+        return childOffsets[person] == childOffsets[person + 1] ? FamilyEntity.NO_PERSON : childFamilies[childOffsets[person]];
+    }
+
+    /**
+     * Check whether an individual is a spouse or a child in any family.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return true if the individual is linked to a family
+     */
+    public boolean isInFamily(int person) {
+        return spouseOffsets[person] != spouseOffsets[person + 1] || childOffsets[person] != childOffsets[person + 1];
+    }
+
+    /**
+     * Check whether an individual has ever married, that is is a spouse in any family.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return true if the individual has ever married
+     */
+    public boolean isEverMarried(int person) {
+        return spouseOffsets[person] != spouseOffsets[person + 1];
+    }
+
+    /**
+     * Gets the number of current marriages of an individual.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return the number of families without a divorce date whose other spouse has no death date
+     */
+    public int getCurrentSpouseCount(int person) {
+        return currentSpouses[person];
+    }
+
+    /**
+     * Check whether an individual is living and has never married.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return true if the individual has no death date and is a spouse in no family
+     */
+    public boolean isLivingSingle(int person) {
+        return isLiving(person) && !isEverMarried(person);
+    }
+
+    /**
+     * Check whether an individual is living and currently married.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return true if the individual has no death date and a current marriage
+     */
+    public boolean isLivingMarried(int person) {
+        return isLiving(person) && currentSpouses[person] > 0;
+    }
+
+    /**
+     * Check whether an individual is living and widowed.
+     *
+     * @param person
+     *         the person index
+     *
+     * @return true if the individual has no death date and no current marriage, and lost a spouse to death before any
+     * divorce
+     */
+    public boolean isWidowed(int person) {
+        return isLiving(person) && currentSpouses[person] == 0 && bereaved[person];
+    }
+
+    /**
+     * Gets the columns the indexes were built from.
+     *
+     * @return the column utils
+     */
+    ColumnUtils getColumns() {
+        return columns;
+    }
+
+    private boolean isLiving(int person) {
+        return columns.getDeathDay()[person] == CommonUtils.UNKNOWN_DAY;
+    }
+
+    private void marry(int person, int spouse) {
+        if (person < 0 || person >= currentSpouses.length || spouse < 0 || spouse >= currentSpouses.length) {
+            return;
+        }
+        if (columns.getDeathDay()[spouse] == CommonUtils.UNKNOWN_DAY) {
+            currentSpouses[person]++;
+        } else {
+            bereaved[person] = true;
+        }
+    }
+
+    private static long[] byYear(int[] days) {
+        long[] entries = new long[days.length];
+        int size = 0;
+        for (int person = 0; person < days.length; person++) {
+            if (days[person] != CommonUtils.UNKNOWN_DAY) {
+                entries[size++] = ((long) LocalDate.ofEpochDay(days[person]).getYear() << 32) | person;
+            }
+        }
+        entries = Arrays.copyOf(entries, size);
+        Arrays.sort(entries);
+        return entries;
+    }
+
+    private static int[] years(long[] entries) {
+        int[] years = new int[entries.length];
+        for (int entry = 0; entry < entries.length; entry++) {
+            years[entry] = (int) (entries[entry] >> 32);
+        }
+        return years;
+    }
+
+    private static int[] persons(long[] entries) {
+        int[] persons = new int[entries.length];
+        for (int entry = 0; entry < entries.length; entry++) {
+            persons[entry] = (int) entries[entry];
+        }
+        return persons;
+    }
+
+    private static int[] range(int[] years, int[] persons, int fromYear, int toYear) {
+        if (fromYear > toYear) {
+            return NONE;
+        }
+        return Arrays.copyOfRange(persons, lowerBound(years, fromYear), lowerBound(years, (long) toYear + 1));
+    }
+
+    private static int lowerBound(int[] years, long year) {
+        int low = 0;
+        int high = years.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (years[middle] < year) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void count(int[] offsets, int person) {
+        if (person >= 0 && person < offsets.length - 1) {
+            offsets[person + 1]++;
+        }
+    }
+
+    private static int accumulate(int[] offsets) {
+        for (int person = 1; person < offsets.length; person++) {
+            offsets[person] += offsets[person - 1];
+        }
+        return offsets[offsets.length - 1];
+    }
+
+    private static void link(int[] families, int[] next, int person, int family) {
+        if (person >= 0 && person < next.length) {
+            families[next[person]++] = family;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.KinshipEntity;
+
+import java.util.Arrays;
+
+/**
+ * Finds how two individuals are related over the child to parent edges of a {@link GraphUtils}: their nearest common
+ * ancestor and the generations between each of them and it.
+ * <p>
+ * A tree has one lowest common ancestor, which an Euler tour or binary lifting finds in constant or logarithmic time,
+ * but every individual here has two parents, so two individuals can meet in several lines and lifting along one parent
+ * misses the others. The query instead walks the ancestors of the first individual breadth first, remembering the
+ * generation of each, then walks the ancestors of the second until no closer common ancestor can turn up. Bounded to
+ * {@code g} generations each walk visits at most {@code 2^(g + 1)} individuals, whatever the size of the tree, so the
+ * marriage checks, which look no further than second cousins, cost a constant per couple.
+ * <p>
+ * The nearest common ancestor is the one with the fewest generations to both individuals together, then the fewest to
+ * the further of the two, then the lowest person index.
+ */
+public class KinshipUtils {
+
+    /**
+     * The constant SIBLING_GENERATIONS.
+     */
+    public static final int SIBLING_GENERATIONS = 1;
+    /**
+     * The constant FIRST_COUSIN_GENERATIONS.
+     */
+    public static final int FIRST_COUSIN_GENERATIONS = 2;
+    /**
+     * The constant SECOND_COUSIN_GENERATIONS.
+     */
+    public static final int SECOND_COUSIN_GENERATIONS = 3;
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_SIZE = 16;
+
+    private final ColumnUtils columns;
+    private final int[] parentOffsets;
+    private final int[] parentEdges;
+
+    private KinshipUtils(SimpleDBUtils simpleDBUtils) {
+        GraphUtils graph = simpleDBUtils.getGraph();
+        columns = graph.getColumns();
+        parentOffsets = graph.getParentOffsets();
+        parentEdges = graph.getParentEdges();
+    }
+
+    /**
+     * Create kinship factory kinship utils.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @return the kinship utils
+     */
+    public static KinshipUtils createKinshipFactory(SimpleDBUtils simpleDBUtils) {
+        return new KinshipUtils(simpleDBUtils);
+    }
+
+    /**
+     * Gets the lowest common ancestor of two individuals.
+     *
+     * @param person
+     *         the person index
+     * @param other
+     *         the person index of the other individual
+     *
+     * @return the person index of the nearest common ancestor, which is one of the two when one is in the line of the
+     * other, or -1 if they are not related
+     */
+    public int lowestCommonAncestor(int person, int other) {
+        KinshipEntity kinshipEntity = relate(person, other);
+        return kinshipEntity == null ? FamilyEntity.NO_PERSON : kinshipEntity.getCommonAncestor();
+    }
+
+    /**
+     * Find how two individuals are related.
+     *
+     * @param person
+     *         the person index
+     * @param other
+     *         the person index of the other individual
+     *
+     * @return the kinship, or null if they are not related
+     */
+    public KinshipEntity relate(int person, int other) {
+        return relate(person, other, GraphUtils.ALL_GENERATIONS);
+    }
+
+    /**
+     * Find how two individuals are related through an ancestor no more than a number of generations above either.
+     *
+     * @param person
+     *         the person index
+     * @param other
+     *         the person index of the other individual
+     * @param generations
+     *         the number of generations, {@link #FIRST_COUSIN_GENERATIONS} to find first cousins, siblings and parents
+     *
+     * @return the kinship, or null if they are not related within the generations
+     */
+    public KinshipEntity relate(int person, int other, int generations) {
+        Ancestors ancestors = new Ancestors(person, generations);
+        int[] queue = new int[INITIAL_SIZE];
+        int[] queueGenerations = new int[INITIAL_SIZE];
+        int[] visited = new int[INITIAL_SIZE * 2];
+        Arrays.fill(visited, EMPTY);
+        queue[0] = other;
+        visited = GraphUtils.visit(visited, 0, other);
+        int size = 1;
+        int bestAncestor = FamilyEntity.NO_PERSON;
+        int bestPersonGenerations = 0;
+        int bestOtherGenerations = 0;
+        for (int next = 0; next < size; next++) {
+            int from = queue[next];
+            int generation = queueGenerations[next];
+            if (bestAncestor != FamilyEntity.NO_PERSON && generation > bestPersonGenerations + bestOtherGenerations) {
+                break;
+            }
+            int personGenerations = ancestors.generationOf(from);
+            if (personGenerations != EMPTY && (bestAncestor == FamilyEntity.NO_PERSON || isCloser(personGenerations, generation, from, bestPersonGenerations, bestOtherGenerations, bestAncestor))) {
+                bestAncestor = from;
+                bestPersonGenerations = personGenerations;
+                bestOtherGenerations = generation;
+            }
+            if (generation == generations) {
+                continue;
+            }
+            for (int edge = parentOffsets[from]; edge < parentOffsets[from + 1]; edge++) {
+                int[] grown = GraphUtils.visit(visited, size, parentEdges[edge]);
+                if (grown != null) {
+                    visited = grown;
+                    if (size == queue.length) {
+                        queue = Arrays.copyOf(queue, size * 2);
+                        queueGenerations = Arrays.copyOf(queueGenerations, size * 2);
+                    }
+                    queue[size] = parentEdges[edge];
+                    queueGenerations[size++] = generation + 1;
+                }
+            }
+        }
+        return bestAncestor == FamilyEntity.NO_PERSON ? null : new KinshipEntity(bestAncestor, bestPersonGenerations, bestOtherGenerations);
+    }
+
+    /**
+     * Find how the husband and wife of every family are related, in one pass over the families.
+     *
+     * @param generations
+     *         the number of generations to look up from each spouse
+     *
+     * @return the kinship of the husband to the wife by family index, null for a family without both spouses or whose
+     * spouses are not related within the generations
+     */
+    public KinshipEntity[] relateSpouses(int generations) {
+        int[] husband = columns.getHusband();
+        int[] wife = columns.getWife();
+        KinshipEntity[] kinships = new KinshipEntity[columns.getFamilyCount()];
+        for (int family = 0; family < kinships.length; family++) {
+            if (husband[family] != FamilyEntity.NO_PERSON && wife[family] != FamilyEntity.NO_PERSON) {
+                kinships[family] = relate(husband[family], wife[family], generations);
+            }
+        }
+        return kinships;
+    }
+
+    private static boolean isCloser(int personGenerations, int otherGenerations, int ancestor, int bestPersonGenerations, int bestOtherGenerations, int bestAncestor) {
+        int degree = personGenerations + otherGenerations;
+        int bestDegree = bestPersonGenerations + bestOtherGenerations;
+        if (degree != bestDegree) {
+            return degree < bestDegree;
+        }
+        int further = Math.max(personGenerations, otherGenerations);
+        int bestFurther = Math.max(bestPersonGenerations, bestOtherGenerations);
+        return further != bestFurther ? further < bestFurther : ancestor < bestAncestor;
+    }
+
+    /**
+     * The ancestors of an individual, the individual included, with the generation each is first reached at.
+     */
+    private class Ancestors {
+
+        private int[] persons = new int[INITIAL_SIZE * 2];
+        private int[] generations = new int[INITIAL_SIZE * 2];
+        private int size;
+
+        private Ancestors(int person, int maxGenerations) {
+            Arrays.fill(persons, EMPTY);
+            int[] queue = new int[INITIAL_SIZE];
+            queue[0] = person;
+            put(person, 0);
+            int queued = 1;
+            for (int next = 0; next < queued; next++) {
+                int from = queue[next];
+                int generation = generationOf(from);
+                if (generation == maxGenerations) {
+                    continue;
+                }
+                for (int edge = parentOffsets[from]; edge < parentOffsets[from + 1]; edge++) {
+                    if (put(parentEdges[edge], generation + 1)) {
+                        if (queued == queue.length) {
+                            queue = Arrays.copyOf(queue, queued * 2);
+                        }
+                        queue[queued++] = parentEdges[edge];
+                    }
+                }
+            }
+        }
+
+        private int generationOf(int person) {
+            int mask = persons.length - 1;
+            for (int slot = mix(person) & mask; persons[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (persons[slot] == person) {
+                    return generations[slot];
+                }
+            }
+            return EMPTY;
+        }
+
+        private boolean put(int person, int generation) {
+            int mask = persons.length - 1;
+            int slot = mix(person) & mask;
+            while (persons[slot] != EMPTY) {
+                if (persons[slot] == person) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            persons[slot] = person;
+            generations[slot] = generation;
+            if (++size * 2 > persons.length) {
+                int[] oldPersons = persons;
+                int[] oldGenerations = generations;
+                persons = new int[oldPersons.length * 2];
+                generations = new int[oldPersons.length * 2];
+                Arrays.fill(persons, EMPTY);
+                size = 0;
+                for (int old = 0; old < oldPersons.length; old++) {
+                    if (oldPersons[old] != EMPTY) {
+                        put(oldPersons[old], oldGenerations[old]);
+                    }
+                }
+            }
+            return true;
+        }
+
+        private int mix(int value) {
+            value *= 0x9E3779B9;
+            return value ^ (value >>> 16);
+        }
+    }
+}
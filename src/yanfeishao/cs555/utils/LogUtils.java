@@ -2,11 +2,32 @@ package yanfeishao.cs555.utils;
 
 import yanfeishao.cs555.constant.KeywordsConstant;
 
+import java.io.PrintStream;
+
 /**
  * Created by JackieDreamy on 2015.
  */
 public class LogUtils {
 
+    private static final ThreadLocal<PrintStream> OUTPUT = new ThreadLocal<>();
+
+    /**
+     * Send the log of the current thread to the given stream instead of System.out.
+     *
+     * @param printStream
+     *         the print stream
+     */
+    public static void redirect(PrintStream printStream) {
+        OUTPUT.set(printStream);
+    }
+
+    /**
+     * Send the log of the current thread back to System.out.
+     */
+    public static void reset() {
+        OUTPUT.remove();
+    }
+
     /**
      * Info.
      *
@@ -14,7 +35,7 @@ public class LogUtils {
      *         the message
      */
     public static void info(String message) {
-        System.out.println(KeywordsConstant.INFO + message);
+        output().println(KeywordsConstant.INFO + message);
     }
 
     /**
@@ -24,7 +45,7 @@ public class LogUtils {
      *         the message
      */
     public static void log(String message) {
-        System.out.println(message);
+        output().println(message);
     }
 
     /**
@@ -34,7 +55,7 @@ public class LogUtils {
      *         the message
      */
     public static void error(String message) {
-        System.out.println(KeywordsConstant.ERROR + message);
+        output().println(KeywordsConstant.ERROR + message);
     }
 
     /**
@@ -44,14 +65,18 @@ public class LogUtils {
      *         the message
      */
     public static void reason(String message) {
-        System.out.println(KeywordsConstant.REASON + message);
+        output().println(KeywordsConstant.REASON + message);
     }
 
     /**
      * Line.
      */
     public static void line() {
-        System.out.println();
+        output().println();
     }
 
+    private static PrintStream output() {
+        PrintStream printStream = OUTPUT.get();
+        return printStream == null ? System.out : printStream;
+    }
 }
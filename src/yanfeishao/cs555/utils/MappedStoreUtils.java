@@ -0,0 +1,473 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keeps a SimpleDBUtils in a file that is memory mapped when it is opened, so a tree is read without parsing the
+ * GEDCOM file again, is not bounded by the heap, and leaves nothing for the collector but the entities being looked
+ * at. An opened db is read only; its entities are decoded from the file on every lookup.
+ * <p>
+ * After a fixed header the file holds a string heap, one fixed width slot per individual and per family, the child
+ * indices of every family, and one open addressed identifier table per db. Strings are a length and their UTF-8
+ * bytes, referred to by file offset. Records are renumbered densely when written, so an opened db has no empty index.
+ * Files larger than one mapping are mapped in segments that overlap by the longest single read.
+ */
+public class MappedStoreUtils {
+
+    private static final int MAGIC = 0x47454453;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 128;
+    private static final int PERSON_SLOT_SIZE = 28;
+    private static final int FAMILY_SLOT_SIZE = 40;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final int MAX_READ = 1 << 16;
+    private static final int EMPTY = 0;
+    private static final long NO_STRING = -1;
+
+    private final Path storePath;
+    private final int segmentShift;
+
+    private MappedStoreUtils(Path storePath, int segmentShift) {
+        this.storePath = storePath;
+        this.segmentShift = segmentShift;
+    }
+
+    /**
+     * Create mapped store factory mapped store utils.
+     *
+     * @param storePath
+     *         the store file path
+     *
+     * @return the mapped store utils
+     */
+    public static MappedStoreUtils createMappedStoreFactory(Path storePath) {
+        return new MappedStoreUtils(storePath, SEGMENT_SHIFT);
+    }
+
+    /**
+     * Create mapped store factory mapped store utils with small mappings, so tests cross segment boundaries.
+     *
+     * @param storePath
+     *         the store file path
+     * @param segmentShift
+     *         log2 of the mapping size
+     *
+     * @return the mapped store utils
+     */
+    static MappedStoreUtils createMappedStoreFactory(Path storePath, int segmentShift) {
+        return new MappedStoreUtils(storePath, segmentShift);
+    }
+
+    /**
+     * Write a db to the store file, replacing it.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public void write(SimpleDBUtils simpleDBUtils) throws IOException {
+        int[] personIndices = renumber(simpleDBUtils.getPersonIndexSize(), simpleDBUtils::getPerson);
+        List<PersonEntity> persons = simpleDBUtils.getPersonDBList();
+        List<FamilyEntity> families = simpleDBUtils.getFamilyDBList();
+        try (FileChannel fileChannel = FileChannel.open(storePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            fileChannel.position(HEADER_SIZE);
+            StoreOutput output = new StoreOutput(Channels.newOutputStream(fileChannel), HEADER_SIZE);
+            long[] personStrings = new long[persons.size() * 2];
+            for (int person = 0; person < persons.size(); person++) {
+                personStrings[person * 2] = output.writeString(persons.get(person).getIdentifier());
+                personStrings[person * 2 + 1] = output.writeString(persons.get(person).getName());
+            }
+            long[] familyStrings = new long[families.size()];
+            for (int family = 0; family < families.size(); family++) {
+                familyStrings[family] = output.writeString(families.get(family).getIdentifier());
+            }
+            long personSlots = output.position;
+            for (int person = 0; person < persons.size(); person++) {
+                PersonEntity personEntity = persons.get(person);
+                output.writeLong(personStrings[person * 2]);
+                output.writeLong(personStrings[person * 2 + 1]);
+                output.writeInt(personEntity.getBirthDay());
+                output.writeInt(personEntity.getDeathDay());
+                output.writePadding(personEntity.getSexCode(), PERSON_SLOT_SIZE - 24);
+            }
+            long familySlots = output.position;
+            long children = familySlots + (long) families.size() * FAMILY_SLOT_SIZE;
+            for (int family = 0; family < families.size(); family++) {
+                FamilyEntity familyEntity = families.get(family);
+                output.writeLong(familyStrings[family]);
+                output.writeLong(children);
+                output.writeInt(familyEntity.getChildIndices().length);
+                output.writeInt(renumbered(personIndices, familyEntity.getFatherIndex()));
+                output.writeInt(renumbered(personIndices, familyEntity.getMotherIndex()));
+                output.writeInt(familyEntity.getMarriedDay());
+                output.writeInt(familyEntity.getDivorceDay());
+                output.writePadding((byte) 0, FAMILY_SLOT_SIZE - 36);
+                children += (long) familyEntity.getChildIndices().length * Integer.BYTES;
+            }
+            for (FamilyEntity familyEntity : families) {
+                for (int child : familyEntity.getChildIndices()) {
+                    output.writeInt(renumbered(personIndices, child));
+                }
+            }
+            long personTable = output.position;
+            int personTableSize = output.writeTable(persons.size(), person -> persons.get(person).getIdentifier());
+            long familyTable = output.position;
+            int familyTableSize = output.writeTable(families.size(), family -> families.get(family).getIdentifier());
+            output.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(persons.size()).putInt(families.size());
+            header.putInt(nullIndex(persons.size(), person -> persons.get(person).getIdentifier()));
+            header.putInt(nullIndex(families.size(), family -> families.get(family).getIdentifier()));
+            header.putInt(personTableSize).putInt(familyTableSize);
+            header.putLong(personSlots).putLong(familySlots).putLong(personTable).putLong(familyTable).putLong(output.position);
+            header.clear();
+            while (header.hasRemaining()) {
+                fileChannel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Open the store file as a read only db.
+     *
+     * @return the simple db utils
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public SimpleDBUtils open() throws IOException {
+        MappedFile mappedFile;
+        try (FileChannel fileChannel = FileChannel.open(storePath, StandardOpenOption.READ)) {
+            mappedFile = new MappedFile(fileChannel, segmentShift);
+        }
+        if (mappedFile.size < HEADER_SIZE || mappedFile.getInt(0) != MAGIC || mappedFile.getInt(4) != VERSION || mappedFile.getLong(64) != mappedFile.size) {
+            throw new IOException("Not a GEDCOM store: " + storePath);
+        }
+        MappedPersonMap personMap = new MappedPersonMap(mappedFile, mappedFile.getInt(8), mappedFile.getLong(32), mappedFile.getInt(16), mappedFile.getLong(48), mappedFile.getInt(24));
+        MappedFamilyMap familyMap = new MappedFamilyMap(mappedFile, mappedFile.getInt(12), mappedFile.getLong(40), mappedFile.getInt(20), mappedFile.getLong(56), mappedFile.getInt(28), personMap);
+        return new SimpleDBUtils(personMap, familyMap);
+    }
+
+    private static int[] renumber(int indexSize, IntFunction<?> records) {
+        int[] indices = new int[indexSize];
+        int next = 0;
+        for (int index = 0; index < indexSize; index++) {
+            indices[index] = records.apply(index) == null ? FamilyEntity.NO_PERSON : next++;
+        }
+        return indices;
+    }
+
+    private static int renumbered(int[] indices, int index) {
+        return index < 0 || index >= indices.length ? FamilyEntity.NO_PERSON : indices[index];
+    }
+
+    private static int nullIndex(int count, IntFunction<String> identifiers) {
+        for (int index = 0; index < count; index++) {
+            if (identifiers.apply(index) == null) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static int tableSize(int count) {
+        return Integer.highestOneBit(Math.max(count, 1)) << 2;
+    }
+
+    private static int hash(byte[] identifier) {
+        int hash = Arrays.hashCode(identifier) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Counts the bytes written, so string references and regions are known by offset.
+     */
+    private static class StoreOutput {
+        private final DataOutputStream dataOutputStream;
+        private long position;
+
+        private StoreOutput(OutputStream outputStream, long position) {
+            dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+            this.position = position;
+        }
+
+        private long writeString(String value) throws IOException {
+            if (value == null) {
+                return NO_STRING;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_READ - Integer.BYTES) {
+                throw new IllegalArgumentException("String too long for the store: " + bytes.length + " bytes");
+            }
+            long reference = position;
+            writeInt(bytes.length);
+            dataOutputStream.write(bytes);
+            position += bytes.length;
+            return reference;
+        }
+
+        private void writeInt(int value) throws IOException {
+            dataOutputStream.writeInt(value);
+            position += Integer.BYTES;
+        }
+
+        private void writeLong(long value) throws IOException {
+            dataOutputStream.writeLong(value);
+            position += Long.BYTES;
+        }
+
+        private void writePadding(byte first, int length) throws IOException {
+            dataOutputStream.writeByte(first);
+            for (int index = 1; index < length; index++) {
+                dataOutputStream.writeByte(0);
+            }
+            position += length;
+        }
+
+        /**
+         * Write an open addressed table of index + 1 by identifier hash, leaving out the null identifier.
+         */
+        private int writeTable(int count, IntFunction<String> identifiers) throws IOException {
+            int[] table = new int[tableSize(count)];
+            int mask = table.length - 1;
+            for (int index = 0; index < count; index++) {
+                String identifier = identifiers.apply(index);
+                if (identifier != null) {
+                    int slot = hash(identifier.getBytes(StandardCharsets.UTF_8)) & mask;
+                    while (table[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = index + 1;
+                }
+            }
+            for (int slot : table) {
+                writeInt(slot);
+            }
+            return table.length;
+        }
+
+        private void flush() throws IOException {
+            dataOutputStream.flush();
+        }
+    }
+
+    /**
+     * The store file mapped read only in segments of {@code 1 << segmentShift} bytes, each mapped {@link #MAX_READ}
+     * bytes longer than that so no single read crosses the end of a mapping.
+     */
+    private static class MappedFile {
+        private final MappedByteBuffer[] segments;
+        private final int segmentShift;
+        private final long segmentMask;
+        private final long size;
+
+        private MappedFile(FileChannel fileChannel, int segmentShift) throws IOException {
+            this.segmentShift = segmentShift;
+            segmentMask = (1L << segmentShift) - 1;
+            size = fileChannel.size();
+            segments = new MappedByteBuffer[(int) ((size + segmentMask) >>> segmentShift)];
+            for (int segment = 0; segment < segments.length; segment++) {
+                long start = (long) segment << segmentShift;
+                segments[segment] = fileChannel.map(FileChannel.MapMode.READ_ONLY, start, Math.min((1L << segmentShift) + MAX_READ, size - start));
+            }
+        }
+
+        private ByteBuffer segment(long position) {
+            return segments[(int) (position >>> segmentShift)];
+        }
+
+        private int getInt(long position) {
+            return segment(position).getInt((int) (position & segmentMask));
+        }
+
+        private long getLong(long position) {
+            return segment(position).getLong((int) (position & segmentMask));
+        }
+
+        private byte getByte(long position) {
+            return segment(position).get((int) (position & segmentMask));
+        }
+
+        private byte[] getBytes(long reference) {
+            byte[] bytes = new byte[getInt(reference)];
+            ByteBuffer buffer = segment(reference).duplicate();
+            buffer.position((int) ((reference + Integer.BYTES) & segmentMask));
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private String getString(long reference) {
+            return reference == NO_STRING ? null : new String(getBytes(reference), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * A read only record map over one db of the store file.
+     */
+    private abstract static class MappedRecordMap<V> extends RecordMap<V> {
+        private final List<V> list;
+        final MappedFile mappedFile;
+        final int count;
+        final long slots;
+        final int slotSize;
+        private final int nullIndex;
+        private final long table;
+        private final int tableSize;
+
+        private MappedRecordMap(MappedFile mappedFile, int count, long slots, int slotSize, int nullIndex, long table, int tableSize) {
+            this.mappedFile = mappedFile;
+            this.count = count;
+            this.slots = slots;
+            this.slotSize = slotSize;
+            this.nullIndex = nullIndex;
+            this.table = table;
+            this.tableSize = tableSize;
+            list = new RecordList();
+        }
+
+        /**
+         * Decode the record in a slot.
+         */
+        abstract V decode(int index, long slot);
+
+        @Override
+        int indexOf(String identifier) {
+            if (identifier == null) {
+                return nullIndex;
+            }
+            byte[] bytes = identifier.getBytes(StandardCharsets.UTF_8);
+            int mask = tableSize - 1;
+            for (int slot = hash(bytes) & mask; ; slot = (slot + 1) & mask) {
+                int entry = mappedFile.getInt(table + (long) slot * Integer.BYTES);
+                if (entry == EMPTY) {
+                    return -1;
+                }
+                long reference = mappedFile.getLong(slots + (long) (entry - 1) * slotSize);
+                if (reference != NO_STRING && Arrays.equals(bytes, mappedFile.getBytes(reference))) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        @Override
+        V get(int index) {
+            return index >= 0 && index < count ? decode(index, slots + (long) index * slotSize) : null;
+        }
+
+        @Override
+        String identifier(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return mappedFile.getString(mappedFile.getLong(slots + (long) index * slotSize));
+        }
+
+        @Override
+        int indexSize() {
+            return count;
+        }
+
+        @Override
+        int version() {
+            return 0;
+        }
+
+        @Override
+        List<V> list() {
+            return list;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        @Override
+        public V remove(Object key) {
+            throw new UnsupportedOperationException();
+        }
+
+        private class RecordList extends AbstractList<V> implements RandomAccess {
+            @Override
+            public V get(int index) {
+                if (index < 0 || index >= count) {
+                    throw new IndexOutOfBoundsException(String.valueOf(index));
+                }
+                return MappedRecordMap.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        }
+    }
+
+    private static class MappedPersonMap extends MappedRecordMap<PersonEntity> {
+
+        private MappedPersonMap(MappedFile mappedFile, int count, long slots, int nullIndex, long table, int tableSize) {
+            super(mappedFile, count, slots, PERSON_SLOT_SIZE, nullIndex, table, tableSize);
+        }
+
+        @Override
+        PersonEntity decode(int index, long slot) {
+            PersonEntity personEntity = new PersonEntity();
+            personEntity.setIdentifier(mappedFile.getString(mappedFile.getLong(slot)));
+            personEntity.setName(mappedFile.getString(mappedFile.getLong(slot + 8)));
+            personEntity.setBirthDay(mappedFile.getInt(slot + 16));
+            personEntity.setDeathDay(mappedFile.getInt(slot + 20));
+            personEntity.setSexCode(mappedFile.getByte(slot + 24));
+            return personEntity;
+        }
+    }
+
+    private static class MappedFamilyMap extends MappedRecordMap<FamilyEntity> {
+        private final IntFunction<PersonEntity> persons;
+        private final ToIntFunction<String> personIndices;
+
+        private MappedFamilyMap(MappedFile mappedFile, int count, long slots, int nullIndex, long table, int tableSize, MappedPersonMap personMap) {
+            super(mappedFile, count, slots, FAMILY_SLOT_SIZE, nullIndex, table, tableSize);
+            persons = personMap::get;
+            personIndices = personMap::indexOf;
+        }
+
+        @Override
+        FamilyEntity decode(int index, long slot) {
+            FamilyEntity familyEntity = new FamilyEntity();
+            familyEntity.setIdentifier(mappedFile.getString(mappedFile.getLong(slot)));
+            long children = mappedFile.getLong(slot + 8);
+            int[] childIndices = new int[mappedFile.getInt(slot + 16)];
+            for (int child = 0; child < childIndices.length; child++) {
+                childIndices[child] = mappedFile.getInt(children + (long) child * Integer.BYTES);
+            }
+            familyEntity.setChildIndices(childIndices);
+            familyEntity.setFatherIndex(mappedFile.getInt(slot + 20));
+            familyEntity.setMotherIndex(mappedFile.getInt(slot + 24));
+            familyEntity.setMarriedDay(mappedFile.getInt(slot + 28));
+            familyEntity.setDivorceDay(mappedFile.getInt(slot + 32));
+            familyEntity.setPersons(persons, personIndices);
+            return familyEntity;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import yanfeishao.cs555.entities.FamilyEntity;
 import yanfeishao.cs555.entities.PersonEntity;
 import yanfeishao.cs555.enums.DateType;
 
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -16,6 +17,7 @@ import java.util.*;
  */
 public class OutputUtils {
 
+    private static final int RECENT_DAYS = 30;
 
     private OutputUtils() {
     }
@@ -32,7 +34,8 @@ public class OutputUtils {
     /**
      * Read all of the data of GEDCOM file
      * print the unique identifiers and names of the husbands and wives, in order by unique family identifiers and names
-     * of each of the individuals in order by their unique identifiers.
+     * of each of the individuals in order by their unique identifiers. A record stored without an identifier, such as a
+     * duplicate of an identifier already read, is left out of the tables.
      *
      * @param simpleDBUtils
      *         the simple DB utils
@@ -44,6 +47,9 @@ public class OutputUtils {
             case KeywordsConstant.INDI: {
                 LogUtils.info(String.format(FormatterRegex.PERSON_TABLE_TITLE, KeywordsConstant.IDENTIFIER, KeywordsConstant.NAME));
                 for (PersonEntity personEntity : simpleDBUtils.getPersonDBList()) {
+                    if (personEntity.getIdentifier() == null) {
+                        continue;
+                    }
                     try {
                         LogUtils.info(String.format(FormatterRegex.PERSON_TABLE_DATA, personEntity.getIdentifier(), personEntity.getName()));
                     } catch (NullPointerException npe) {
@@ -55,6 +61,9 @@ public class OutputUtils {
             case KeywordsConstant.FAM: {
                 LogUtils.info(String.format(FormatterRegex.FAMILY_TABLE_TITLE, KeywordsConstant.IDENTIFIER, KeywordsConstant.HUSBAND_NAME, KeywordsConstant.WIFE_NAME));
                 for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+                    if (familyEntity.getIdentifier() == null) {
+                        continue;
+                    }
                     LogUtils.info(String.format(FormatterRegex.FAMILY_TABLE_DATA, familyEntity.getIdentifier(), familyEntity.getFather().getName(), familyEntity.getMother().getName()));
                 }
             }
@@ -75,15 +84,24 @@ public class OutputUtils {
      * @return the set
      */
     public Set<String> outputError(SimpleDBUtils simpleDBUtils, String prefix) {
-        Set<String> results = new HashSet<>();
-        new ErrorUtils().parseDateError(DateUtils.createDateFactory(), simpleDBUtils, prefix, results);
-        new ErrorUtils().parseAttributeError(AttributeUtils.createAttributeFactory(), simpleDBUtils, prefix, results);
+        return outputError(RuleEngineUtils.createRuleEngineFactory(Collections.singletonList(prefix)).evaluate(simpleDBUtils).get(prefix));
+    }
+
+    /**
+     * Print the error information a rule engine found for one US case.
+     *
+     * @param results
+     *         the results of the US case
+     *
+     * @return the set
+     */
+    public Set<String> outputError(Set<String> results) {
         results.forEach((result -> LogUtils.error(result)));
         LogUtils.line();
         return results;
     }
 
-    private void parseChild(List<PersonEntity> childList, Set<String> results, String prefix, SimpleDBUtils simpleDBUtils) {
+    private void parseChild(List<PersonEntity> childList, Set<String> results, String prefix) {
         childList.forEach(child -> {
             switch (prefix) {
                 case ErrorCode.US29: {
@@ -92,22 +110,6 @@ public class OutputUtils {
                     }
                 }
                 break;
-                case ErrorCode.US31: {
-                    ArrayList<String> unmarriedIndividuals = getAllUnMarriedIndividuals(simpleDBUtils);
-                    if (CommonUtils.isNotNull(child) && unmarriedIndividuals.contains(child.getIdentifier()) && (CommonUtils.compareDateDiff(child.getBirthDate(), CommonUtils.getCurrentDate(), DateType.YEAR) > Integer.parseInt(KeywordsConstant.MARRIAGEAGE))) {
-                        results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US31, ErrorCode.US31, child.getIdentifier(), child.getName(), CommonUtils.compareDateDiff(child.getBirthDate(), CommonUtils.getCurrentDate(), DateType.YEAR)));
-                    }
-                }
-                break;
-                case ErrorCode.US36: {
-                    if (CommonUtils.isNotNull(child) && CommonUtils.isNotNull(child.getDeathDate())) {
-                        long days = CommonUtils.compareDateDiff(child.getDeathDate(), CommonUtils.getCurrentDate(), DateType.DAY);
-                        if (days >= 0 && days <= 30) {
-                            results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US36, prefix, child.getIdentifier(), child.getName(), CommonUtils.getFormattedDate(child.getDeathDate()), CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
-                        }
-                    }
-                }
-                break;
                 case ErrorCode.US38: {
                     if (CommonUtils.isNotNull(child) && CommonUtils.isNotNull(child.getBirthDate()) && CommonUtils.compareWithCurrentDateDiff(child.getBirthDate(), CommonUtils.getCurrentDate()) <= 30) {
                         results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US38, prefix, child.getIdentifier(), child.getName(), CommonUtils.getFormattedDate(child.getBirthDate()), CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
@@ -118,7 +120,7 @@ public class OutputUtils {
     }
 
     private void parseUS29Condition(FamilyEntity familyEntity, Set<String> results) {
-        parseChild(familyEntity.getChildList(), results, ErrorCode.US29, null);
+        parseChild(familyEntity.getChildList(), results, ErrorCode.US29);
         if (CommonUtils.isNotNull(familyEntity.getFather()) && CommonUtils.isNotNull(familyEntity.getFather().getDeathDate())) {
             results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US29, ErrorCode.US29, familyEntity.getFather().getIdentifier(), familyEntity.getFather().getName(), CommonUtils.getFormattedDate(familyEntity.getFather().getDeathDate())));
         }
@@ -133,6 +135,18 @@ public class OutputUtils {
         }
     }
 
+    private void parseUS31Condition(SimpleDBUtils simpleDBUtils, FamilyEntity familyEntity, Set<String> results) {
+        IndexUtils indexes = simpleDBUtils.getIndexes();
+        int[] childIndices = familyEntity.getChildIndices();
+        List<PersonEntity> childList = familyEntity.getChildList();
+        for (int slot = 0; slot < childIndices.length; slot++) {
+            PersonEntity child = childList.get(slot);
+            if (CommonUtils.isNotNull(child) && indexes.isLivingSingle(childIndices[slot]) && (CommonUtils.compareDateDiff(child.getBirthDate(), CommonUtils.getCurrentDate(), DateType.YEAR) > Integer.parseInt(KeywordsConstant.MARRIAGEAGE))) {
+                results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US31, ErrorCode.US31, child.getIdentifier(), child.getName(), CommonUtils.compareDateDiff(child.getBirthDate(), CommonUtils.getCurrentDate(), DateType.YEAR)));
+            }
+        }
+    }
+
     private void parseUS33Condition(FamilyEntity familyEntity, Set<String> results) {
         if (CommonUtils.isNotNull(familyEntity.getFather()) && CommonUtils.isNotNull(familyEntity.getFather().getDeathDate()) && CommonUtils.isNotNull(familyEntity.getMother()) && CommonUtils.isNotNull(familyEntity.getMother().getDeathDate())) {
             Date orphanDate;
@@ -149,25 +163,21 @@ public class OutputUtils {
         }
     }
 
-    private void parseUS36Condition(FamilyEntity familyEntity, Set<String> results) {
-        parseChild(familyEntity.getChildList(), results, ErrorCode.US36, null);
-        long days;
-        if (CommonUtils.isNotNull(familyEntity.getFather().getDeathDate())) {
-            days = CommonUtils.compareDateDiff(familyEntity.getFather().getDeathDate(), CommonUtils.getCurrentDate(), DateType.DAY);
-            if (days >= 0 && days <= 30) {
-                results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US36, ErrorCode.US36, familyEntity.getFather().getIdentifier(), familyEntity.getFather().getName(), CommonUtils.getFormattedDate(familyEntity.getFather().getDeathDate()), CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
-            }
-        }
-        if (CommonUtils.isNotNull(familyEntity.getMother().getDeathDate())) {
-            days = CommonUtils.compareDateDiff(familyEntity.getMother().getDeathDate(), CommonUtils.getCurrentDate(), DateType.DAY);
-            if (days >= 0 && days <= 30) {
-                results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US36, ErrorCode.US36, familyEntity.getMother().getIdentifier(), familyEntity.getMother().getName(), CommonUtils.getFormattedDate(familyEntity.getMother().getDeathDate()), CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
+    void parseUS36Condition(SimpleDBUtils simpleDBUtils, Set<String> results) {
+        IndexUtils indexes = simpleDBUtils.getIndexes();
+        Date currentDate = CommonUtils.getCurrentDate();
+        int currentDay = CommonUtils.toEpochDay(currentDate);
+        int fromDay = currentDay - RECENT_DAYS;
+        for (int person : indexes.getPersonsDiedBetween(LocalDate.ofEpochDay(fromDay).getYear(), LocalDate.ofEpochDay(currentDay).getYear())) {
+            PersonEntity personEntity = simpleDBUtils.getPerson(person);
+            if (personEntity.getDeathDay() >= fromDay && personEntity.getDeathDay() <= currentDay && indexes.isInFamily(person)) {
+                results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US36, ErrorCode.US36, personEntity.getIdentifier(), personEntity.getName(), CommonUtils.getFormattedDate(personEntity.getDeathDate()), CommonUtils.getFormattedDate(currentDate)));
             }
         }
     }
 
     private void parseUS38Condition(FamilyEntity familyEntity, Set<String> results) {
-        parseChild(familyEntity.getChildList(), results, ErrorCode.US38, null);
+        parseChild(familyEntity.getChildList(), results, ErrorCode.US38);
         if (CommonUtils.isNotNull(familyEntity.getFather().getBirthDate()) && CommonUtils.compareWithCurrentDateDiff(familyEntity.getFather().getBirthDate(), CommonUtils.getCurrentDate()) <= 30) {
             results.add(String.format(FormatterRegex.INFO_PERSON + ErrorInfo.US38, ErrorCode.US38, familyEntity.getFather().getIdentifier(), familyEntity.getFather().getName(), CommonUtils.getFormattedDate(familyEntity.getFather().getBirthDate()), CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
         }
@@ -182,21 +192,6 @@ public class OutputUtils {
         }
     }
 
-    private ArrayList<String> getAllUnMarriedIndividuals(SimpleDBUtils simpleDBUtils) {
-        ArrayList<String> children = new ArrayList<>();
-        simpleDBUtils.getFamilyDBList().forEach(familyEntity -> {
-            if (children.contains(familyEntity.getMother().getIdentifier()) || children.contains(familyEntity.getFather().getIdentifier()))
-                children.remove(familyEntity.getFather().getIdentifier());
-            familyEntity.getChildList().forEach(child -> {
-                if (CommonUtils.isNotNull(child)) {
-                    children.add(child.getIdentifier());
-                }
-            });
-
-        });
-        return children;
-    }
-
     /**
      * Output special condition result set.
      *
@@ -208,40 +203,60 @@ public class OutputUtils {
      * @return the set of special result
      */
     public Set<String> outputSpecialConditionResult(SimpleDBUtils simpleDBUtils, String prefix) {
-        Set<String> results = new HashSet<>();
-        simpleDBUtils.getFamilyDBList().forEach(familyEntity -> {
-            switch (prefix) {
-                case ErrorCode.US29: {
-                    parseUS29Condition(familyEntity, results);
-                }
-                break;
-                case ErrorCode.US30: {
-                    parseUS30Condition(familyEntity, results);
-                }
-                break;
-                case ErrorCode.US31: {
-                    parseChild(familyEntity.getChildList(), results, ErrorCode.US31, simpleDBUtils);
-                }
-                break;
-                case ErrorCode.US33: {
-                    parseUS33Condition(familyEntity, results);
-                }
-                break;
-                case ErrorCode.US36: {
-                    parseUS36Condition(familyEntity, results);
-                }
-                break;
-                case ErrorCode.US38: {
-                    parseUS38Condition(familyEntity, results);
-                }
-                break;
-                case ErrorCode.US39: {
-                    parseUS39Condition(familyEntity, results);
-                }
-            }
-        });
+        return outputSpecialConditionResult(RuleEngineUtils.createRuleEngineFactory(Collections.singletonList(prefix)).evaluate(simpleDBUtils).get(prefix));
+    }
+
+    /**
+     * Print the special condition results a rule engine found for one US case.
+     *
+     * @param results
+     *         the results of the US case
+     *
+     * @return the set of special result
+     */
+    public Set<String> outputSpecialConditionResult(Set<String> results) {
         results.forEach((result -> LogUtils.info(result)));
         LogUtils.line();
         return results;
     }
+
+    /**
+     * Parse the special condition of one family. US36 is not a family condition, see {@link #parseUS36Condition}.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     * @param familyEntity
+     *         the family entity
+     * @param prefix
+     *         the prefix
+     * @param results
+     *         the results
+     */
+    void parseSpecialCondition(SimpleDBUtils simpleDBUtils, FamilyEntity familyEntity, String prefix, Set<String> results) {
+        switch (prefix) {
+            case ErrorCode.US29: {
+                parseUS29Condition(familyEntity, results);
+            }
+            break;
+            case ErrorCode.US30: {
+                parseUS30Condition(familyEntity, results);
+            }
+            break;
+            case ErrorCode.US31: {
+                parseUS31Condition(simpleDBUtils, familyEntity, results);
+            }
+            break;
+            case ErrorCode.US33: {
+                parseUS33Condition(familyEntity, results);
+            }
+            break;
+            case ErrorCode.US38: {
+                parseUS38Condition(familyEntity, results);
+            }
+            break;
+            case ErrorCode.US39: {
+                parseUS39Condition(familyEntity, results);
+            }
+        }
+    }
 }
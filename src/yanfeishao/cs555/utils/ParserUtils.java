@@ -1,36 +1,44 @@
 package yanfeishao.cs555.utils;
 
-import yanfeishao.cs555.constant.ErrorCode;
 import yanfeishao.cs555.constant.KeywordsConstant;
-import yanfeishao.cs555.entities.FamilyEntity;
-import yanfeishao.cs555.entities.PersonEntity;
-import yanfeishao.cs555.enums.ParseEnum;
+import yanfeishao.cs555.entities.ReferenceEntity;
+import yanfeishao.cs555.entities.RuleCostEntity;
+import yanfeishao.cs555.entities.SnapshotEntity;
+import yanfeishao.cs555.enums.Compression;
+import yanfeishao.cs555.enums.InputMode;
+import yanfeishao.cs555.enums.RuleCategory;
+import yanfeishao.cs555.handler.EntityHandler;
+import yanfeishao.cs555.rule.Rule;
 
-import java.io.BufferedReader;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashSet;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Created by Yanfei Shao on 2015.
  */
 public class ParserUtils {
 
-    private BufferedReader gedReader;
-    private TagsUtils tagsUtils;
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final RuleEngineUtils ruleEngineUtils = RuleEngineUtils.createRuleEngineFactory();
     private SimpleDBUtils simpleDBUtils;
-    private PersonEntity personEntity;
-    private FamilyEntity familyEntity;
     private OutputUtils outputUtils;
-    private Set<String> personUniqueSet;
-    private Set<String> familyUniqueSet;
     private Set<String> uniqueResult;
+    private List<ReferenceEntity> danglingReferences;
+    private int errorCount;
+    private int infoCount;
+
     private ParserUtils() {
     }
 
@@ -52,24 +60,157 @@ public class ParserUtils {
      * @return Simple NoSQL DB
      */
     public SimpleDBUtils readGEDCOM(String filePath) {
+        return readGEDCOM(filePath, InputMode.STREAM);
+    }
+
+    /**
+     * Read GED from file with the given input mode. gzip files and zip bundles are decompressed while they are read;
+     * every entry of a zip bundle is read and reported as a tree of its own, and the tree of the first entry is
+     * returned.
+     *
+     * @param filePath
+     *         the file path
+     * @param inputMode
+     *         the input mode, MAPPED scans the memory mapped file instead of copying it through a heap buffer
+     *
+     * @return Simple NoSQL DB
+     */
+    public SimpleDBUtils readGEDCOM(String filePath, InputMode inputMode) {
+        List<SimpleDBUtils> simpleDBUtilsList = readGEDCOMBundle(filePath, inputMode);
+        return simpleDBUtilsList == null || simpleDBUtilsList.isEmpty() ? null : simpleDBUtilsList.get(0);
+    }
+
+    /**
+     * Read GED from file through a snapshot. If the snapshot was saved from the current content of the file, the tree
+     * is loaded from it and reported without parsing; otherwise the file is parsed and the snapshot is saved for the
+     * next run. A snapshot that cannot be read or saved is ignored.
+     *
+     * @param filePath
+     *         the file path
+     * @param snapshotPath
+     *         the snapshot path
+     *
+     * @return Simple NoSQL DB
+     */
+    public SimpleDBUtils readGEDCOM(String filePath, Path snapshotPath) {
+        SnapshotUtils snapshotUtils = SnapshotUtils.createSnapshotFactory(snapshotPath);
+        Path sourcePath = Paths.get(filePath);
+        if (snapshotUtils.matches(sourcePath)) {
+            try {
+                SnapshotEntity snapshotEntity = snapshotUtils.load();
+                errorCount = 0;
+                infoCount = 0;
+                snapshotEntity.getInvalidDates().forEach(ErrorUtils::parseError);
+                return output(snapshotEntity);
+            } catch (IOException ioe) {
+                // fall through and parse the file again
+            }
+        }
+        errorCount = 0;
+        infoCount = 0;
+        List<EntityHandler> entityHandlers = StreamUtils.createStreamFactory().readGEDCOMEntries(filePath, InputMode.STREAM, () -> EntityHandler.createHandlerFactory(false));
+        if (entityHandlers == null || entityHandlers.isEmpty()) {
+            return null;
+        }
+        SnapshotEntity snapshotEntity = snapshot(entityHandlers.get(0));
+        output(snapshotEntity);
+        entityHandlers.subList(1, entityHandlers.size()).forEach(entityHandler -> output(snapshot(entityHandler)));
         try {
-            tagsUtils = TagsUtils.createTagFactory();
-            gedReader = new BufferedReader(new FileReader(filePath));
-            simpleDBUtils = SimpleDBUtils.createDBFactory();
-            outputUtils = OutputUtils.createOutputFactory();
-            personUniqueSet = new HashSet<>();
-            familyUniqueSet = new HashSet<>();
-            uniqueResult = new HashSet<>();
-            String line = gedReader.readLine();
-            while (line != null) {
-                parseTag(line);
-                line = gedReader.readLine();
+            snapshotUtils.save(snapshotEntity, sourcePath);
+        } catch (IOException ioe) {
+            // the next run parses the file again
+        }
+        return snapshotEntity.getSimpleDBUtils();
+    }
+
+    /**
+     * Read every GED tree of a file: the only tree of a plain or gzip file, or one tree per entry of a zip bundle.
+     *
+     * @param filePath
+     *         the file path
+     *
+     * @return Simple NoSQL DB per tree
+     */
+    public List<SimpleDBUtils> readGEDCOMBundle(String filePath) {
+        return readGEDCOMBundle(filePath, InputMode.STREAM);
+    }
+
+    /**
+     * Read every GED tree of a file with the given input mode.
+     *
+     * @param filePath
+     *         the file path
+     * @param inputMode
+     *         the input mode, only used for uncompressed files
+     *
+     * @return Simple NoSQL DB per tree
+     */
+    public List<SimpleDBUtils> readGEDCOMBundle(String filePath, InputMode inputMode) {
+        errorCount = 0;
+        infoCount = 0;
+        List<EntityHandler> entityHandlers = StreamUtils.createStreamFactory().readGEDCOMEntries(filePath, inputMode, () -> EntityHandler.createHandlerFactory(false));
+        if (entityHandlers == null) {
+            return null;
+        }
+        List<SimpleDBUtils> simpleDBUtilsList = new ArrayList<>();
+        entityHandlers.forEach(entityHandler -> simpleDBUtilsList.add(output(snapshot(entityHandler))));
+        return simpleDBUtilsList;
+    }
+
+    /**
+     * Read GED from file, parsing chunks of level 0 INDI / FAM records on a fork join pool. Every chunk scans its own
+     * memory mapped range of the file. Chunk results are merged in file order, so duplicate identifiers (US22) are
+     * detected across chunks, and the HUSB / WIFE / CHIL pointers are resolved once all chunks are merged. Compressed
+     * files are read sequentially. The rules are then evaluated over ranges of families on a pool of the same size; the
+     * report is the same as the sequential one.
+     *
+     * @param filePath
+     *         the file path
+     * @param parallelism
+     *         the number of parser and validation threads, 1 for the sequential reader
+     *
+     * @return Simple NoSQL DB
+     */
+    public SimpleDBUtils readGEDCOM(String filePath, int parallelism) {
+        return readGEDCOM(filePath, parallelism, CHUNK_SIZE);
+    }
+
+    /**
+     * Read GED from file in parallel with the given minimum chunk size.
+     *
+     * @param filePath
+     *         the file path
+     * @param parallelism
+     *         the number of parser threads
+     * @param chunkSize
+     *         the minimum chunk size in bytes
+     *
+     * @return Simple NoSQL DB
+     */
+    SimpleDBUtils readGEDCOM(String filePath, int parallelism, int chunkSize) {
+        if (parallelism <= 1) {
+            return readGEDCOM(filePath);
+        }
+        errorCount = 0;
+        infoCount = 0;
+        try (FileInputStream inputStream = new FileInputStream(filePath)) {
+            FileChannel fileChannel = inputStream.getChannel();
+            if (StreamUtils.detectCompression(fileChannel) != Compression.NONE) {
+                return readGEDCOM(filePath);
             }
-            gedReader.close();
-            outputResult();
-            outputSpecialResult();
-            outputError();
-            return simpleDBUtils;
+            int chunks = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD, fileChannel.size() / chunkSize));
+            long[] offsets = TokenizerUtils.splitRecords(fileChannel, chunks);
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+            List<EntityHandler> chunkHandlers;
+            try {
+                chunkHandlers = forkJoinPool.invoke(new ChunkTask(fileChannel, offsets, 0, offsets.length - 1));
+            } finally {
+                forkJoinPool.shutdown();
+            }
+            EntityHandler entityHandler = EntityHandler.createHandlerFactory(false);
+            chunkHandlers.forEach(entityHandler::merge);
+            entityHandler.resolveReferences();
+            return output(snapshot(entityHandler), parallelism);
         } catch (FileNotFoundException fnfe) {
             ErrorUtils.pathError(fnfe, filePath);
             return null;
@@ -79,163 +220,116 @@ public class ParserUtils {
         }
     }
 
-    private void outputSpecialResult() {
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US29);
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US30);
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US31);
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US33);
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US36);
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US38);
-        outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US39);
+    /**
+     * Gets the number of errors reported by the last read, summed over its trees.
+     *
+     * @return the error count
+     */
+    public int getErrorCount() {
+        return errorCount;
     }
 
-    private void outputResult() {
-        outputUtils.outputResult(simpleDBUtils, KeywordsConstant.FAM);
-        outputUtils.outputResult(simpleDBUtils, KeywordsConstant.INDI);
+    /**
+     * Gets the number of special condition results reported by the last read, summed over its trees.
+     *
+     * @return the info count
+     */
+    public int getInfoCount() {
+        return infoCount;
     }
 
-    private void outputError() {
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US01);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US02);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US03);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US04);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US05);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US06);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US08);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US09);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US10);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US12);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US16);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US21);
-        ErrorUtils.uniqueIdError(uniqueResult);
-        outputUtils.outputError(simpleDBUtils, ErrorCode.US25);
-    }
-
-    private Date parseDate(String line) {
-        String[] lineArray = splitString(line);
-        StringBuffer currentDate = new StringBuffer();
-        for (int index = 2; index < lineArray.length - 1; index++) {
-            currentDate.append(lineArray[index]);
-            currentDate.append(ParseEnum.SPLIT_DATE.toString());
-        }
-        currentDate.append(lineArray[lineArray.length - 1]);
-        DateFormat dateFormat = new SimpleDateFormat(ParseEnum.DATE_FORMAT.toString());
-        try {
-            return dateFormat.parse(currentDate.toString());
-        } catch (ParseException pe) {
-            ErrorUtils.parseError(currentDate);
-            return null;
-        }
+    /**
+     * Gets what every rule has cost the reads of the parser so far, summed over their trees.
+     *
+     * @return the rule costs, in the order the rules are reported
+     */
+    public List<RuleCostEntity> getRuleCosts() {
+        return ruleEngineUtils.getCosts();
     }
 
-    private String parseLevel(String line) {
-        return splitString(line)[0];
+    private static SnapshotEntity snapshot(EntityHandler entityHandler) {
+        SnapshotEntity snapshotEntity = new SnapshotEntity();
+        snapshotEntity.setSimpleDBUtils(entityHandler.getSimpleDBUtils());
+        snapshotEntity.setUniqueResult(entityHandler.getUniqueResult());
+        snapshotEntity.setDanglingReferences(entityHandler.getDanglingReferences());
+        snapshotEntity.setInvalidDates(entityHandler.getInvalidDates());
+        return snapshotEntity;
     }
 
-    private void parseTag(String line) {
-        String tag;
-        String[] lineArray = splitString(line);
-        if (parseLevel(line).equals("0") && lineArray[1].charAt(0) == '@' && lineArray[2].charAt(0) == 'I') {
-            personEntity = new PersonEntity();
-            tag = lineArray[2];
-        } else if (parseLevel(line).equals("0") && lineArray[1].charAt(0) == '@' && lineArray[2].charAt(0) == 'F') {
-            familyEntity = new FamilyEntity();
-            tag = lineArray[2];
-        } else {
-            tag = lineArray[1];
-        }
-        if (personEntity != null) {
-            writePersonEntity(tag, lineArray);
-            simpleDBUtils.getPersonDB().put(personEntity.getIdentifier(), personEntity);
-        }
-        if (familyEntity != null) {
-            writeFamilyEntity(tag, lineArray);
-            simpleDBUtils.getFamilyDB().put(familyEntity.getIdentifier(), familyEntity);
-        }
+    private SimpleDBUtils output(SnapshotEntity snapshotEntity) {
+        return output(snapshotEntity, 1);
     }
 
-    private PersonEntity getPersonEntity(String[] lineArray) {
-        return simpleDBUtils.getPersonDB().get(lineArray[2]);
-    }
-
-    private void writeFamilyEntity(String tag, String[] lineArray) {
-        if (tagsUtils.getTagSets().contains(tag)) {
-            switch (tag) {
-                case KeywordsConstant.FAM:
-                    if (familyUniqueSet.contains(lineArray[1])){
-                        uniqueResult.add(lineArray[1]);
-                    }else{
-                        familyUniqueSet.add(lineArray[1]);
-                        familyEntity.setIdentifier(lineArray[1]);
-                    }
-                    break;
-                case KeywordsConstant.HUSB:
-                    familyEntity.setFather(getPersonEntity(lineArray));
-                    break;
-                case KeywordsConstant.WIFE:
-                    familyEntity.setMother(getPersonEntity(lineArray));
-                    break;
-                case KeywordsConstant.MARR:
-                    try {
-                        familyEntity.setMarriedDate(parseDate(gedReader.readLine()));
-                    } catch (IOException ioe) {
-                        ErrorUtils.readGEDError(ioe);
-                    }
-                    break;
-                case KeywordsConstant.DIV:
-                    try {
-                        familyEntity.setDivorceDate(parseDate(gedReader.readLine()));
-                    } catch (IOException ioe) {
-                        ErrorUtils.readGEDError(ioe);
-                    }
-                    break;
-                case KeywordsConstant.CHIL:
-                    familyEntity.getChildList().add(getPersonEntity(lineArray));
-                    break;
+    private SimpleDBUtils output(SnapshotEntity snapshotEntity, int parallelism) {
+        simpleDBUtils = snapshotEntity.getSimpleDBUtils();
+        uniqueResult = snapshotEntity.getUniqueResult();
+        danglingReferences = snapshotEntity.getDanglingReferences();
+        errorCount += snapshotEntity.getInvalidDates().size();
+        outputUtils = OutputUtils.createOutputFactory();
+        outputResult();
+        Map<String, Set<String>> results = ruleEngineUtils.evaluate(simpleDBUtils, parallelism);
+        outputSpecialResult(results);
+        outputError(results);
+        return simpleDBUtils;
+    }
+
+    private void outputSpecialResult(Map<String, Set<String>> results) {
+        for (Rule rule : ruleEngineUtils.getRules()) {
+            if (rule.getCategory() == RuleCategory.INFO) {
+                infoCount += outputUtils.outputSpecialConditionResult(results.get(rule.getCode())).size();
             }
         }
     }
 
-    private void writePersonEntity(String tag, String[] lineArray) {
-        if (tagsUtils.getTagSets().contains(tag)) {
-            switch (tag) {
-                case KeywordsConstant.INDI:
-                    if (personUniqueSet.contains(lineArray[1])){
-                        uniqueResult.add(lineArray[1]);
-                    }else{
-                        personUniqueSet.add(lineArray[1]);
-                        personEntity.setIdentifier(lineArray[1]);
-                    }
-                    break;
-                case KeywordsConstant.NAME:
-                    StringBuffer nameBuffer = new StringBuffer();
-                    for (int index = 2; index < lineArray.length; index++) {
-                        nameBuffer.append(lineArray[index]);
-                    }
-                    personEntity.setName(nameBuffer.toString());
-                    break;
-                case KeywordsConstant.SEX:
-                    personEntity.setSex(lineArray[2]);
-                    break;
-                case KeywordsConstant.BIRT:
-                    try {
-                        personEntity.setBirthDate(parseDate(gedReader.readLine()));
-                    } catch (IOException ioe) {
-                        ErrorUtils.readGEDError(ioe);
-                    }
-                    break;
-                case KeywordsConstant.DEAT:
-                    try {
-                        personEntity.setDeathDate(parseDate(gedReader.readLine()));
-                    } catch (IOException ioe) {
-                        ErrorUtils.readGEDError(ioe);
-                    }
-                    break;
+    private void outputResult() {
+        outputUtils.outputResult(simpleDBUtils, KeywordsConstant.FAM);
+        outputUtils.outputResult(simpleDBUtils, KeywordsConstant.INDI);
+    }
+
+    private void outputError(Map<String, Set<String>> results) {
+        for (Rule rule : ruleEngineUtils.getRules()) {
+            if (rule.getCategory() != RuleCategory.ERROR) {
+                continue;
             }
+            errorCount += outputUtils.outputError(results.get(rule.getCode())).size();
         }
+        errorCount += ErrorUtils.uniqueIdError(uniqueResult).size();
+        errorCount += ErrorUtils.danglingReferenceError(danglingReferences).size();
     }
 
-    private String[] splitString(String line) {
-        return line.split(ParseEnum.SPLIT_REGEX.toString());
+    private static class ChunkTask extends RecursiveTask<List<EntityHandler>> {
+        private final FileChannel fileChannel;
+        private final long[] offsets;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(FileChannel fileChannel, long[] offsets, int from, int to) {
+            this.fileChannel = fileChannel;
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<EntityHandler> compute() {
+            if (to - from == 1) {
+                EntityHandler chunkHandler = EntityHandler.createHandlerFactory(true);
+                try {
+                    StreamUtils.createStreamFactory().readGEDCOM(TokenizerUtils.createTokenizerFactory(fileChannel, offsets[from], offsets[to]), chunkHandler);
+                } catch (IOException ioe) {
+                    ErrorUtils.readGEDError(ioe);
+                }
+                List<EntityHandler> chunkHandlers = new ArrayList<>();
+                chunkHandlers.add(chunkHandler);
+                return chunkHandlers;
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(fileChannel, offsets, from, middle);
+            left.fork();
+            List<EntityHandler> right = new ChunkTask(fileChannel, offsets, middle, to).compute();
+            List<EntityHandler> chunkHandlers = left.join();
+            chunkHandlers.addAll(right);
+            return chunkHandlers;
+        }
     }
 }
@@ -0,0 +1,117 @@
+package yanfeishao.cs555.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a source stream on a background thread into a small ring of blocks, so a slow source such as an inflater
+ * runs while the caller is busy with the previous blocks. The source is read up to its end and is not closed.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int BLOCKS = 4;
+
+    private final BlockingQueue<Block> filled;
+    private final BlockingQueue<Block> empty;
+    private final Thread reader;
+    private volatile IOException failure;
+    private Block current;
+    private int position;
+    private boolean endOfInput;
+
+    /**
+     * Instantiates a new Read ahead input stream and starts reading the source.
+     *
+     * @param source
+     *         the source
+     */
+    public ReadAheadInputStream(InputStream source) {
+        filled = new ArrayBlockingQueue<>(BLOCKS + 1);
+        empty = new ArrayBlockingQueue<>(BLOCKS);
+        for (int index = 0; index < BLOCKS; index++) {
+            empty.add(new Block());
+        }
+        reader = new Thread(() -> readSource(source), "gedcom-read-ahead");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (current == null || position == current.length) {
+            if (endOfInput) {
+                return -1;
+            }
+            if (current != null) {
+                empty.add(current);
+            }
+            current = take();
+            position = 0;
+            if (current.length < 0) {
+                endOfInput = true;
+                current = null;
+                if (failure != null) {
+                    throw failure;
+                }
+                return -1;
+            }
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, target, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        reader.interrupt();
+    }
+
+    private Block take() throws IOException {
+        try {
+            return filled.take();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void readSource(InputStream source) {
+        try {
+            while (true) {
+                Block block = empty.take();
+                block.length = source.read(block.data, 0, block.data.length);
+                if (block.length < 0) {
+                    filled.put(block);
+                    return;
+                }
+                filled.put(block);
+            }
+        } catch (IOException ioe) {
+            failure = ioe;
+            Block end = new Block();
+            end.length = -1;
+            filled.offer(end);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Block {
+        private final byte[] data = new byte[BLOCK_SIZE];
+        private int length;
+    }
+}
@@ -0,0 +1,144 @@
+package yanfeishao.cs555.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map from identifier to record that is really a table indexed by the interned identifier, the storage behind
+ * SimpleDBUtils. Iteration follows the index order, and an index whose record was removed reads as null.
+ *
+ * @param <V>
+ *         the record type
+ */
+abstract class RecordMap<V> extends AbstractMap<String, V> {
+
+    /**
+     * Gets the index of the record with an identifier.
+     *
+     * @param identifier
+     *         the identifier
+     *
+     * @return the index, or -1 if there is no such record
+     */
+    abstract int indexOf(String identifier);
+
+    /**
+     * Gets the record at an index.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the record, or null if the index has none
+     */
+    abstract V get(int index);
+
+    /**
+     * Gets the identifier of an index.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the identifier
+     */
+    abstract String identifier(int index);
+
+    /**
+     * Gets index size.
+     *
+     * @return one more than the highest index
+     */
+    abstract int indexSize();
+
+    /**
+     * Gets version, which changes whenever a record is added or removed.
+     *
+     * @return the version
+     */
+    abstract int version();
+
+    /**
+     * Gets the records in index order.
+     *
+     * @return a read only list
+     */
+    abstract List<V> list();
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key == null || key instanceof String ? get(indexOf((String) key)) : null;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public int size() {
+                return RecordMap.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<Entry<String, V>>() {
+                    private int next = advance(0);
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < indexSize();
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next;
+                        next = advance(next + 1);
+                        return new RecordEntry(last);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+                        RecordMap.this.remove(identifier(last));
+                        last = -1;
+                    }
+                };
+            }
+        };
+    }
+
+    private int advance(int index) {
+        while (index < indexSize() && get(index) == null) {
+            index++;
+        }
+        return index;
+    }
+
+    private class RecordEntry extends SimpleEntry<String, V> {
+
+        private RecordEntry(int index) {
+            super(identifier(index), get(index));
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw new NullPointerException();
+            }
+            super.setValue(value);
+            return put(getKey(), value);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.constant.KeywordsConstant;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.entities.ReferenceEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * The HUSB, WIFE and CHIL pointers read so far, linked to the individual records in one pass after the whole file is
+ * read, so families may come before the individuals they point to.
+ * <p>
+ * A pointer is a handle into three parallel arrays: the family, the pointed identifier and a slot, which is
+ * {@link #FATHER}, {@link #MOTHER} or the index of the placeholder in the child list.
+ */
+public class ReferenceUtils {
+
+    private static final int FATHER = -1;
+    private static final int MOTHER = -2;
+    private static final int INITIAL_SIZE = 64;
+
+    private FamilyEntity[] families;
+    private String[] identifiers;
+    private int[] slots;
+    private int size;
+
+    private ReferenceUtils() {
+        families = new FamilyEntity[INITIAL_SIZE];
+        identifiers = new String[INITIAL_SIZE];
+        slots = new int[INITIAL_SIZE];
+    }
+
+    /**
+     * Create reference factory reference utils.
+     *
+     * @return the reference utils
+     */
+    public static ReferenceUtils createReferenceFactory() {
+        return new ReferenceUtils();
+    }
+
+    /**
+     * Add a HUSB pointer.
+     *
+     * @param familyEntity
+     *         the family entity
+     * @param identifier
+     *         the individual identifier
+     *
+     * @return the handle
+     */
+    public int addFather(FamilyEntity familyEntity, String identifier) {
+        return add(familyEntity, identifier, FATHER);
+    }
+
+    /**
+     * Add a WIFE pointer.
+     *
+     * @param familyEntity
+     *         the family entity
+     * @param identifier
+     *         the individual identifier
+     *
+     * @return the handle
+     */
+    public int addMother(FamilyEntity familyEntity, String identifier) {
+        return add(familyEntity, identifier, MOTHER);
+    }
+
+    /**
+     * Add a CHIL pointer, keeping its place in the child list with a {@link FamilyEntity#NO_PERSON} placeholder.
+     *
+     * @param familyEntity
+     *         the family entity
+     * @param identifier
+     *         the individual identifier
+     *
+     * @return the handle
+     */
+    public int addChild(FamilyEntity familyEntity, String identifier) {
+        return add(familyEntity, identifier, familyEntity.addChild(FamilyEntity.NO_PERSON));
+    }
+
+    /**
+     * Append the pointers of another table, in order.
+     *
+     * @param referenceUtils
+     *         the reference utils
+     */
+    public void addAll(ReferenceUtils referenceUtils) {
+        ensureCapacity(size + referenceUtils.size);
+        System.arraycopy(referenceUtils.families, 0, families, size, referenceUtils.size);
+        System.arraycopy(referenceUtils.identifiers, 0, identifiers, size, referenceUtils.size);
+        System.arraycopy(referenceUtils.slots, 0, slots, size, referenceUtils.size);
+        size += referenceUtils.size;
+    }
+
+    /**
+     * Gets size.
+     *
+     * @return the number of pointers not resolved yet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Link every pointer to its individual and empty the table.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils holding the individuals
+     *
+     * @return the pointers without an individual record (US26)
+     */
+    public List<ReferenceEntity> resolve(SimpleDBUtils simpleDBUtils) {
+        List<ReferenceEntity> danglingReferences = new ArrayList<>();
+        IntFunction<PersonEntity> persons = simpleDBUtils::getPerson;
+        ToIntFunction<String> personIndices = simpleDBUtils::getPersonIndex;
+        for (int handle = 0; handle < size; handle++) {
+            int personIndex = identifiers[handle] == null ? FamilyEntity.NO_PERSON : simpleDBUtils.getPersonIndex(identifiers[handle]);
+            FamilyEntity familyEntity = families[handle];
+            int slot = slots[handle];
+            familyEntity.setPersons(persons, personIndices);
+            if (slot == FATHER) {
+                familyEntity.setFatherIndex(personIndex);
+            } else if (slot == MOTHER) {
+                familyEntity.setMotherIndex(personIndex);
+            } else {
+                familyEntity.setChild(slot, personIndex);
+            }
+            if (personIndex == FamilyEntity.NO_PERSON) {
+                danglingReferences.add(new ReferenceEntity(familyEntity, tag(slot), identifiers[handle], slot));
+            }
+        }
+        Arrays.fill(families, 0, size, null);
+        Arrays.fill(identifiers, 0, size, null);
+        size = 0;
+        return danglingReferences;
+    }
+
+    private int add(FamilyEntity familyEntity, String identifier, int slot) {
+        ensureCapacity(size + 1);
+        families[size] = familyEntity;
+        identifiers[size] = identifier;
+        slots[size] = slot;
+        return size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > families.length) {
+            int length = Math.max(capacity, families.length * 2);
+            families = Arrays.copyOf(families, length);
+            identifiers = Arrays.copyOf(identifiers, length);
+            slots = Arrays.copyOf(slots, length);
+        }
+    }
+
+    private static String tag(int slot) {
+        return slot == FATHER ? KeywordsConstant.HUSB : slot == MOTHER ? KeywordsConstant.WIFE : KeywordsConstant.CHIL;
+    }
+}
@@ -0,0 +1,292 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.RuleCostEntity;
+import yanfeishao.cs555.enums.RuleAttribute;
+import yanfeishao.cs555.enums.RuleScope;
+import yanfeishao.cs555.rule.Rule;
+import yanfeishao.cs555.rule.RuleContext;
+import yanfeishao.cs555.rule.RuleProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a set of rules over a SimpleDBUtils in one pass over its families, instead of one pass for every rule.
+ * <p>
+ * The rules are those of the {@link RuleProvider}s that {@link ServiceLoader} finds on the class path, in the order the
+ * providers are found and then the order each gives; when none is registered the engine falls back to the
+ * {@link CoreRuleProvider}. Every family is fetched once and handed to each enabled {@link RuleScope#FAMILY} rule in
+ * turn, and every rule writes to its own result set, so the findings of a rule are the same whichever other rules run
+ * beside it. The structures behind the attributes the rules declare are built once per evaluation, in a
+ * {@link RuleContext}. The {@link RuleScope#TREE} rules run once after the pass.
+ * <p>
+ * The engine counts the evaluations of every rule and the nanoseconds they took, summed over the evaluations of the
+ * engine, so the rules that dominate the validation of a tree can be told apart.
+ */
+public class RuleEngineUtils {
+
+    private static final int MIN_FAMILIES_PER_TASK = 1024;
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final List<Rule> rules;
+    private final List<String> codes;
+    private final List<Rule> familyRules = new ArrayList<>();
+    private final List<Rule> treeRules = new ArrayList<>();
+    private final Set<RuleAttribute> attributes = EnumSet.noneOf(RuleAttribute.class);
+    private final int[] familyRuleIndices;
+    private final int[] treeRuleIndices;
+    private final long[] evaluations;
+    private final long[] nanos;
+
+    private RuleEngineUtils(List<Rule> rules, Collection<String> codes) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.codes = new ArrayList<>(new LinkedHashSet<>(codes));
+        List<Integer> familyIndices = new ArrayList<>();
+        List<Integer> treeIndices = new ArrayList<>();
+        for (int index = 0; index < this.rules.size(); index++) {
+            Rule rule = this.rules.get(index);
+            if (rule.getScope() == RuleScope.TREE) {
+                treeRules.add(rule);
+                treeIndices.add(index);
+            } else {
+                familyRules.add(rule);
+                familyIndices.add(index);
+            }
+            attributes.addAll(rule.getAttributes());
+        }
+        familyRuleIndices = familyIndices.stream().mapToInt(Integer::intValue).toArray();
+        treeRuleIndices = treeIndices.stream().mapToInt(Integer::intValue).toArray();
+        evaluations = new long[this.rules.size()];
+        nanos = new long[this.rules.size()];
+    }
+
+    /**
+     * Create rule engine factory rule engine utils.
+     *
+     * @param codes
+     *         the codes of the rules to evaluate, a code no registered rule has finds nothing
+     *
+     * @return the rule engine utils
+     */
+    public static RuleEngineUtils createRuleEngineFactory(Collection<String> codes) {
+        Set<String> enabled = new HashSet<>(codes);
+        List<Rule> rules = new ArrayList<>();
+        loadRules(RuleEngineUtils.class.getClassLoader()).stream().filter(rule -> enabled.contains(rule.getCode())).forEach(rules::add);
+        return new RuleEngineUtils(rules, codes);
+    }
+
+    /**
+     * Create rule engine factory for every registered rule.
+     *
+     * @return the rule engine utils
+     */
+    public static RuleEngineUtils createRuleEngineFactory() {
+        return createRuleEngineFactory(RuleEngineUtils.class.getClassLoader());
+    }
+
+    /**
+     * Create rule engine factory for every rule registered with a class loader.
+     *
+     * @param classLoader
+     *         the class loader to find the providers with
+     *
+     * @return the rule engine utils
+     */
+    public static RuleEngineUtils createRuleEngineFactory(ClassLoader classLoader) {
+        List<Rule> rules = loadRules(classLoader);
+        List<String> codes = new ArrayList<>(rules.size());
+        rules.forEach(rule -> codes.add(rule.getCode()));
+        return new RuleEngineUtils(rules, codes);
+    }
+
+    /**
+     * Load the rules of every provider registered with a class loader.
+     *
+     * @param classLoader
+     *         the class loader
+     *
+     * @return the rules, those of the {@link CoreRuleProvider} if no provider is registered
+     */
+    static List<Rule> loadRules(ClassLoader classLoader) {
+        List<Rule> rules = new ArrayList<>();
+        boolean registered = false;
+        for (RuleProvider ruleProvider : ServiceLoader.load(RuleProvider.class, classLoader)) {
+            rules.addAll(ruleProvider.getRules());
+            registered = true;
+        }
+        if (!registered) {
+            rules.addAll(new CoreRuleProvider().getRules());
+        }
+        Set<String> codes = new HashSet<>();
+        for (Rule rule : rules) {
+            if (!codes.add(rule.getCode())) {
+                throw new IllegalStateException(String.format("Rule %s is registered more than once", rule.getCode()));
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Gets the rules the engine evaluates, in the order they are reported.
+     *
+     * @return the rules
+     */
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets what every rule has cost the evaluations of the engine so far.
+     *
+     * @return the costs, in the order of the rules
+     */
+    public synchronized List<RuleCostEntity> getCosts() {
+        List<RuleCostEntity> costs = new ArrayList<>(rules.size());
+        for (int rule = 0; rule < rules.size(); rule++) {
+            costs.add(new RuleCostEntity(rules.get(rule).getCode(), evaluations[rule], nanos[rule]));
+        }
+        return costs;
+    }
+
+    /**
+     * Evaluate the rules over a db.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     *
+     * @return the results of every rule by its code, in the order the rules were given, each in family index order
+     */
+    public Map<String, Set<String>> evaluate(SimpleDBUtils simpleDBUtils) {
+        return evaluate(simpleDBUtils, 1);
+    }
+
+    /**
+     * Evaluate the rules over a db, splitting the families into ranges that are evaluated on a fork join pool. Every
+     * range collects its findings and its costs into insertion ordered result sets and counters of its own, and the
+     * left range of a split is always merged before the right one. A result set therefore iterates by family index, the
+     * findings of one family in the order the rule made them and the findings of a tree rule after all of them,
+     * whatever the parallelism; a finding made for more than one family keeps the place of the first.
+     * <p>
+     * The db must not change while it is evaluated; the structures the rules declare they read are built into the
+     * {@link RuleContext} before the ranges are handed out.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     * @param parallelism
+     *         the number of threads, 1 to evaluate on the calling thread
+     *
+     * @return the results of every rule by its code, in the order the rules were given
+     */
+    public Map<String, Set<String>> evaluate(SimpleDBUtils simpleDBUtils, int parallelism) {
+        RuleContext ruleContext = new RuleContext(simpleDBUtils, attributes);
+        int familyCount = simpleDBUtils.getFamilyIndexSize();
+        Range range;
+        if (parallelism <= 1 || familyCount < MIN_FAMILIES_PER_TASK * 2) {
+            range = evaluate(ruleContext, 0, familyCount);
+        } else {
+            int threshold = Math.max(MIN_FAMILIES_PER_TASK, familyCount / (parallelism * TASKS_PER_THREAD));
+            ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+            try {
+                range = forkJoinPool.invoke(new EvaluationTask(ruleContext, 0, familyCount, threshold));
+            } finally {
+                forkJoinPool.shutdown();
+            }
+        }
+        for (int tree = 0; tree < treeRuleIndices.length; tree++) {
+            int index = treeRuleIndices[tree];
+            long start = System.nanoTime();
+            treeRules.get(tree).evaluate(ruleContext, range.ruleResults.get(index));
+            range.nanos[index] += System.nanoTime() - start;
+            range.evaluations[index]++;
+        }
+        synchronized (this) {
+            for (int rule = 0; rule < rules.size(); rule++) {
+                evaluations[rule] += range.evaluations[rule];
+                nanos[rule] += range.nanos[rule];
+            }
+        }
+        return range.results;
+    }
+
+    private Range evaluate(RuleContext ruleContext, int from, int to) {
+        Range range = new Range();
+        SimpleDBUtils simpleDBUtils = ruleContext.getSimpleDBUtils();
+        for (int family = from; family < to; family++) {
+            FamilyEntity familyEntity = simpleDBUtils.getFamily(family);
+            if (familyEntity == null) {
+                continue;
+            }
+            for (int rule = 0; rule < familyRuleIndices.length; rule++) {
+                int index = familyRuleIndices[rule];
+                long start = System.nanoTime();
+                familyRules.get(rule).evaluate(ruleContext, family, familyEntity, range.ruleResults.get(index));
+                range.nanos[index] += System.nanoTime() - start;
+                range.evaluations[index]++;
+            }
+        }
+        return range;
+    }
+
+    /**
+     * The findings and the costs of one range of families.
+     */
+    private class Range {
+
+        private final Map<String, Set<String>> results = new LinkedHashMap<>();
+        private final List<Set<String>> ruleResults = new ArrayList<>(rules.size());
+        private final long[] evaluations = new long[rules.size()];
+        private final long[] nanos = new long[rules.size()];
+
+        private Range() {
+            codes.forEach(code -> results.put(code, new LinkedHashSet<>()));
+            rules.forEach(rule -> ruleResults.add(results.get(rule.getCode())));
+        }
+
+        private Range merge(Range right) {
+            results.forEach((code, result) -> result.addAll(right.results.get(code)));
+            for (int rule = 0; rule < evaluations.length; rule++) {
+                evaluations[rule] += right.evaluations[rule];
+                nanos[rule] += right.nanos[rule];
+            }
+            return this;
+        }
+    }
+
+    private class EvaluationTask extends RecursiveTask<Range> {
+        private final RuleContext ruleContext;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private EvaluationTask(RuleContext ruleContext, int from, int to, int threshold) {
+            this.ruleContext = ruleContext;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Range compute() {
+            if (to - from <= threshold) {
+                return evaluate(ruleContext, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            EvaluationTask left = new EvaluationTask(ruleContext, from, middle, threshold);
+            left.fork();
+            Range right = new EvaluationTask(ruleContext, middle, to, threshold).compute();
+            return left.join().merge(right);
+        }
+    }
+}
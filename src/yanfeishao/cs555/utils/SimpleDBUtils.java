@@ -1,30 +1,65 @@
 package yanfeishao.cs555.utils;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import yanfeishao.cs555.entities.EntityVersion;
 import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.FrozenFamilyEntity;
+import yanfeishao.cs555.entities.FrozenPersonEntity;
 import yanfeishao.cs555.entities.PersonEntity;
-import yanfeishao.cs555.enums.ParseEnum;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Created by Yanfei Shao on 2015.
  */
 @Data
+@EqualsAndHashCode(exclude = {"columns", "columnsVersion", "columnsEntityVersion", "indexes", "graph", "ancestry"})
+@ToString(exclude = {"columns", "columnsVersion", "columnsEntityVersion", "indexes", "graph", "ancestry"})
 public class SimpleDBUtils {
 
-    private Map<String, PersonEntity> personDB;
-    private Map<String, FamilyEntity> familyDB;
+    private final RecordMap<PersonEntity> personDB;
+    private final RecordMap<FamilyEntity> familyDB;
+    @Setter(AccessLevel.NONE)
+    private ColumnUtils columns;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long columnsVersion;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long columnsEntityVersion;
+    @Setter(AccessLevel.NONE)
+    private IndexUtils indexes;
+    @Setter(AccessLevel.NONE)
+    private GraphUtils graph;
+    @Setter(AccessLevel.NONE)
+    private AncestryUtils ancestry;
 
     /**
      * Instantiates a new Simple dB utils.
      */
     private SimpleDBUtils() {
-        personDB = new HashMap<>();
-        familyDB = new HashMap<>();
+        this(new ArrayRecordMap<>(), new ArrayRecordMap<>());
+    }
+
+    /**
+     * Instantiates a new Simple dB utils over the given storage.
+     *
+     * @param personDB
+     *         the person db
+     * @param familyDB
+     *         the family db
+     */
+    SimpleDBUtils(RecordMap<PersonEntity> personDB, RecordMap<FamilyEntity> familyDB) {
+        this.personDB = personDB;
+        this.familyDB = familyDB;
     }
 
     /**
@@ -37,29 +72,253 @@ public class SimpleDBUtils {
     }
 
     /**
-     * Gets family db list.
+     * Freeze this db into a copy that cannot be changed: putting or removing a record, or calling a setter of one of its
+     * entities, throws {@link UnsupportedOperationException}. The copy keeps every index, and its columns, indexes, graph
+     * and ancestry are built before it is returned, so any number of threads can read it without locking once it is
+     * published.
+     *
+     * @return the frozen copy, or this db if it is already frozen
+     */
+    public SimpleDBUtils freeze() {
+        if (isFrozen()) {
+            return this;
+        }
+        FrozenRecordMap<PersonEntity> frozenPersons = new FrozenRecordMap<>(personDB, FrozenPersonEntity::new);
+        SimpleDBUtils frozenDBUtils = new SimpleDBUtils(frozenPersons, new FrozenRecordMap<>(familyDB, familyEntity -> new FrozenFamilyEntity(familyEntity, frozenPersons::get, frozenPersons::indexOf)));
+        frozenDBUtils.getIndexes();
+        frozenDBUtils.getAncestry();
+        return frozenDBUtils;
+    }
+
+    /**
+     * Thaw this db into a copy that can be changed, the draft of the next version of a frozen db. Every entity is
+     * copied and keeps its index.
+     *
+     * @return the changeable copy
+     */
+    public SimpleDBUtils thaw() {
+        ArrayRecordMap<PersonEntity> draftPersons = new ArrayRecordMap<>(personDB, SimpleDBUtils::copyPerson);
+        return new SimpleDBUtils(draftPersons, new ArrayRecordMap<>(familyDB, familyEntity -> copyFamily(familyEntity, draftPersons::get, draftPersons::indexOf)));
+    }
+
+    /**
+     * Is frozen boolean.
+     *
+     * @return true if this db was made by {@link #freeze()}
+     */
+    public boolean isFrozen() {
+        return personDB instanceof FrozenRecordMap;
+    }
+
+    /**
+     * Gets person db.
+     *
+     * @return the person db, keyed by identifier
+     */
+    public Map<String, PersonEntity> getPersonDB() {
+        return personDB;
+    }
+
+    /**
+     * Gets family db.
+     *
+     * @return the family db, keyed by identifier
+     */
+    public Map<String, FamilyEntity> getFamilyDB() {
+        return familyDB;
+    }
+
+    /**
+     * Gets family db list, in the order the families were first added. The list is read only and is cached until the
+     * family db changes.
      *
      * @return the family db list
      */
     public List<FamilyEntity> getFamilyDBList() {
-        List<FamilyEntity> familyEntities = new ArrayList<>();
-        for (int index = 1; index <= getFamilyDB().size(); index++) {
-            familyEntities.add(getFamilyDB().get(ParseEnum.FAMILY_PREFIX.toString() + index + ParseEnum.PREFIX.toString()));
-        }
-        return familyEntities;
+        return familyDB.list();
     }
 
     /**
-     * Gets person db list.
+     * Gets person db list, in the order the individuals were first added. The list is read only and is cached until
+     * the person db changes.
      *
      * @return the person db list
      */
     public List<PersonEntity> getPersonDBList() {
-        List<PersonEntity> personEntities = new ArrayList<>();
-        for (int index = 1; index <= getPersonDB().size(); index++) {
-            personEntities.add(getPersonDB().get(ParseEnum.PERSON_PREFIX.toString() + index + ParseEnum.PREFIX.toString()));
+        return personDB.list();
+    }
+
+    /**
+     * Gets columns, the struct of arrays copy of the person and family attributes. The copy is cached until a record is
+     * added to or removed from the db or the {@link EntityVersion} moves on, which every entity setter does; the columns
+     * of a frozen db never change once built.
+     *
+     * @return the column utils
+     */
+    public ColumnUtils getColumns() {
+        if (columns != null && isFrozen()) {
+            return columns;
+        }
+        long version = ((long) personDB.version() << 32) + (familyDB.version() & 0xFFFFFFFFL);
+        long entityVersion = EntityVersion.get();
+        if (columns == null || columnsVersion != version || columnsEntityVersion != entityVersion) {
+            columns = ColumnUtils.createColumnFactory(this);
+            columnsVersion = version;
+            columnsEntityVersion = entityVersion;
+        }
+        return columns;
+    }
+
+    /**
+     * Gets indexes, the surname, birth year, death year and spouse / child family indexes. They are built in one pass
+     * the first time they are asked for and rebuilt with the columns, so they stay consistent with every record added to
+     * or removed from the db and every change made through the entity setters.
+     *
+     * @return the index utils
+     */
+    public IndexUtils getIndexes() {
+        if (indexes == null || indexes.getColumns() != getColumns()) {
+            indexes = IndexUtils.createIndexFactory(this);
         }
-        return personEntities;
+        return indexes;
     }
 
+    /**
+     * Gets graph, the parent / child adjacency of the family tree with its ancestor and descendant traversals. It is
+     * built the first time it is asked for and rebuilt with the columns, so a spouse or child changed through the entity
+     * setters is picked up as well.
+     *
+     * @return the graph utils
+     */
+    public GraphUtils getGraph() {
+        if (graph == null || graph.getColumns() != getColumns()) {
+            graph = GraphUtils.createGraphFactory(this);
+        }
+        return graph;
+    }
+
+    /**
+     * Gets ancestry, the reachability index that tells whether one individual is an ancestor of another. It is built the
+     * first time it is asked for and rebuilt with the graph.
+     *
+     * @return the ancestry utils
+     */
+    public AncestryUtils getAncestry() {
+        if (ancestry == null || ancestry.getGraph() != getGraph()) {
+            ancestry = AncestryUtils.createAncestryFactory(this);
+        }
+        return ancestry;
+    }
+
+    /**
+     * Gets person index.
+     *
+     * @param identifier
+     *         the identifier
+     *
+     * @return the index of the individual in the person db, or -1 if there is no such individual
+     */
+    public int getPersonIndex(String identifier) {
+        return personDB.indexOf(identifier);
+    }
+
+    /**
+     * Gets person.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the individual, or null if the index has no individual
+     */
+    public PersonEntity getPerson(int index) {
+        return personDB.get(index);
+    }
+
+    /**
+     * Gets person identifier.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the identifier
+     */
+    public String getPersonIdentifier(int index) {
+        return personDB.identifier(index);
+    }
+
+    /**
+     * Gets person index size.
+     *
+     * @return one more than the highest person index
+     */
+    public int getPersonIndexSize() {
+        return personDB.indexSize();
+    }
+
+    /**
+     * Gets family index.
+     *
+     * @param identifier
+     *         the identifier
+     *
+     * @return the index of the family in the family db, or -1 if there is no such family
+     */
+    public int getFamilyIndex(String identifier) {
+        return familyDB.indexOf(identifier);
+    }
+
+    /**
+     * Gets family.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the family, or null if the index has no family
+     */
+    public FamilyEntity getFamily(int index) {
+        return familyDB.get(index);
+    }
+
+    /**
+     * Gets family identifier.
+     *
+     * @param index
+     *         the index
+     *
+     * @return the identifier
+     */
+    public String getFamilyIdentifier(int index) {
+        return familyDB.identifier(index);
+    }
+
+    /**
+     * Gets family index size.
+     *
+     * @return one more than the highest family index
+     */
+    public int getFamilyIndexSize() {
+        return familyDB.indexSize();
+    }
+
+    private static PersonEntity copyPerson(PersonEntity personEntity) {
+        PersonEntity copyEntity = new PersonEntity();
+        copyEntity.setIdentifier(personEntity.getIdentifier());
+        copyEntity.setName(personEntity.getName());
+        copyEntity.setSexCode(personEntity.getSexCode());
+        copyEntity.setBirthDay(personEntity.getBirthDay());
+        copyEntity.setDeathDay(personEntity.getDeathDay());
+        return copyEntity;
+    }
+
+    private static FamilyEntity copyFamily(FamilyEntity familyEntity, IntFunction<PersonEntity> persons, ToIntFunction<String> personIndices) {
+        FamilyEntity copyEntity = new FamilyEntity();
+        copyEntity.setIdentifier(familyEntity.getIdentifier());
+        copyEntity.setFatherIndex(familyEntity.getFatherIndex());
+        copyEntity.setMotherIndex(familyEntity.getMotherIndex());
+        copyEntity.setMarriedDay(familyEntity.getMarriedDay());
+        copyEntity.setDivorceDay(familyEntity.getDivorceDay());
+        copyEntity.setChildIndices(familyEntity.getChildIndices().clone());
+        copyEntity.setPersons(persons, personIndices);
+        return copyEntity;
+    }
 }
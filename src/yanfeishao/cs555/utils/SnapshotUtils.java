@@ -0,0 +1,337 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.entities.ReferenceEntity;
+import yanfeishao.cs555.entities.SnapshotEntity;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Saves a parsed tree to a binary snapshot and loads it back in one sequential read, so a run against a GEDCOM file
+ * that has not changed skips tokenizing it.
+ * <p>
+ * The snapshot starts with a version and the size, modification time and CRC32 of the GEDCOM file it was parsed
+ * from, then holds every distinct string once, the individuals and families with epoch days and int references into
+ * the string table and person list, the duplicate identifiers (US22), the dangling pointers (US26) and the dates that
+ * did not parse (US42). It ends with the CRC32 of everything before it.
+ */
+public class SnapshotUtils {
+
+    private static final int MAGIC = 0x47454450;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int HASH_BUFFER_SIZE = 1 << 20;
+    private static final int NO_STRING = -1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+
+    private final Path snapshotPath;
+
+    private SnapshotUtils(Path snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Create snapshot factory snapshot utils.
+     *
+     * @param snapshotPath
+     *         the snapshot file path
+     *
+     * @return the snapshot utils
+     */
+    public static SnapshotUtils createSnapshotFactory(Path snapshotPath) {
+        return new SnapshotUtils(snapshotPath);
+    }
+
+    /**
+     * Check whether the snapshot was saved from the current content of a GEDCOM file.
+     *
+     * @param sourcePath
+     *         the GEDCOM file path
+     *
+     * @return true if the snapshot exists, has this version and matches the size, modification time and content
+     * hash of the file
+     */
+    public boolean matches(Path sourcePath) {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION) {
+                return false;
+            }
+            long size = inputStream.readLong();
+            long modified = inputStream.readLong();
+            long hash = inputStream.readLong();
+            return size == Files.size(sourcePath) && modified == Files.getLastModifiedTime(sourcePath).toMillis() && hash == contentHash(sourcePath);
+        } catch (IOException ioe) {
+            return false;
+        }
+    }
+
+    /**
+     * Save a parsed tree, replacing the snapshot file once it is completely written.
+     *
+     * @param snapshotEntity
+     *         the parsed tree
+     * @param sourcePath
+     *         the GEDCOM file it was parsed from
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public void save(SnapshotEntity snapshotEntity, Path sourcePath) throws IOException {
+        Path temporaryPath = Files.createTempFile(snapshotPath.toAbsolutePath().getParent(), snapshotPath.getFileName().toString(), ".tmp");
+        try {
+            CRC32 checksum = new CRC32();
+            try (DataOutputStream outputStream = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath), BUFFER_SIZE), checksum))) {
+                outputStream.writeInt(MAGIC);
+                outputStream.writeInt(VERSION);
+                outputStream.writeLong(Files.size(sourcePath));
+                outputStream.writeLong(Files.getLastModifiedTime(sourcePath).toMillis());
+                outputStream.writeLong(contentHash(sourcePath));
+                writeTree(outputStream, snapshotEntity);
+                outputStream.flush();
+                outputStream.writeLong(checksum.getValue());
+            }
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    /**
+     * Load the snapshot.
+     *
+     * @return the parsed tree
+     *
+     * @throws IOException
+     *         if the snapshot cannot be read, fails its checksum or has another version
+     */
+    public SnapshotEntity load() throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshotPath);
+        if (bytes.length < HEADER_SIZE + Long.BYTES) {
+            throw new IOException("Snapshot is truncated: " + snapshotPath);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, bytes.length - Long.BYTES);
+        if (ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong() != checksum.getValue()) {
+            throw new IOException("Snapshot checksum mismatch: " + snapshotPath);
+        }
+        DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - Long.BYTES));
+        if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION) {
+            throw new IOException("Not a snapshot of this version: " + snapshotPath);
+        }
+        inputStream.skipBytes(HEADER_SIZE - 2 * Integer.BYTES);
+        return readTree(inputStream);
+    }
+
+    /**
+     * Gets the CRC32 of a file's content.
+     *
+     * @param path
+     *         the path
+     *
+     * @return the content hash
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    static long contentHash(Path path) throws IOException {
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (fileChannel.read(buffer) >= 0) {
+                buffer.flip();
+                checksum.update(buffer);
+                buffer.clear();
+            }
+        }
+        return checksum.getValue();
+    }
+
+    private static void writeTree(DataOutputStream outputStream, SnapshotEntity snapshotEntity) throws IOException {
+        SimpleDBUtils simpleDBUtils = snapshotEntity.getSimpleDBUtils();
+        List<PersonEntity> persons = simpleDBUtils.getPersonDBList();
+        List<FamilyEntity> families = simpleDBUtils.getFamilyDBList();
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> stringTable = new ArrayList<>();
+        for (PersonEntity personEntity : persons) {
+            intern(strings, stringTable, personEntity.getIdentifier());
+            intern(strings, stringTable, personEntity.getName());
+        }
+        for (FamilyEntity familyEntity : families) {
+            intern(strings, stringTable, familyEntity.getIdentifier());
+        }
+        for (int index = 0; index < simpleDBUtils.getPersonIndexSize(); index++) {
+            intern(strings, stringTable, simpleDBUtils.getPersonIdentifier(index));
+        }
+        for (int index = 0; index < simpleDBUtils.getFamilyIndexSize(); index++) {
+            intern(strings, stringTable, simpleDBUtils.getFamilyIdentifier(index));
+        }
+        for (ReferenceEntity referenceEntity : snapshotEntity.getDanglingReferences()) {
+            intern(strings, stringTable, referenceEntity.getTag());
+            intern(strings, stringTable, referenceEntity.getIdentifier());
+        }
+        snapshotEntity.getUniqueResult().forEach(identifier -> intern(strings, stringTable, identifier));
+        snapshotEntity.getInvalidDates().forEach(date -> intern(strings, stringTable, date));
+        outputStream.writeInt(stringTable.size());
+        for (String value : stringTable) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            outputStream.writeInt(bytes.length);
+            outputStream.write(bytes);
+        }
+        int[] personIndices = new int[simpleDBUtils.getPersonIndexSize()];
+        for (int index = 0, next = 0; index < personIndices.length; index++) {
+            personIndices[index] = simpleDBUtils.getPerson(index) == null ? FamilyEntity.NO_PERSON : next++;
+        }
+        outputStream.writeInt(persons.size());
+        for (int index = 0; index < personIndices.length; index++) {
+            PersonEntity personEntity = simpleDBUtils.getPerson(index);
+            if (personEntity == null) {
+                continue;
+            }
+            outputStream.writeInt(reference(strings, simpleDBUtils.getPersonIdentifier(index)));
+            outputStream.writeInt(reference(strings, personEntity.getIdentifier()));
+            outputStream.writeInt(reference(strings, personEntity.getName()));
+            outputStream.writeByte(personEntity.getSexCode());
+            outputStream.writeInt(personEntity.getBirthDay());
+            outputStream.writeInt(personEntity.getDeathDay());
+        }
+        Map<FamilyEntity, Integer> familyIndices = new IdentityHashMap<>();
+        outputStream.writeInt(families.size());
+        for (int index = 0; index < simpleDBUtils.getFamilyIndexSize(); index++) {
+            FamilyEntity familyEntity = simpleDBUtils.getFamily(index);
+            if (familyEntity == null) {
+                continue;
+            }
+            familyIndices.put(familyEntity, familyIndices.size());
+            outputStream.writeInt(reference(strings, simpleDBUtils.getFamilyIdentifier(index)));
+            outputStream.writeInt(reference(strings, familyEntity.getIdentifier()));
+            outputStream.writeInt(renumbered(personIndices, familyEntity.getFatherIndex()));
+            outputStream.writeInt(renumbered(personIndices, familyEntity.getMotherIndex()));
+            outputStream.writeInt(familyEntity.getMarriedDay());
+            outputStream.writeInt(familyEntity.getDivorceDay());
+            outputStream.writeInt(familyEntity.getChildIndices().length);
+            for (int child : familyEntity.getChildIndices()) {
+                outputStream.writeInt(renumbered(personIndices, child));
+            }
+        }
+        outputStream.writeInt(snapshotEntity.getUniqueResult().size());
+        for (String identifier : snapshotEntity.getUniqueResult()) {
+            outputStream.writeInt(reference(strings, identifier));
+        }
+        outputStream.writeInt(snapshotEntity.getDanglingReferences().size());
+        for (ReferenceEntity referenceEntity : snapshotEntity.getDanglingReferences()) {
+            outputStream.writeInt(familyIndices.get(referenceEntity.getFamilyEntity()));
+            outputStream.writeInt(reference(strings, referenceEntity.getTag()));
+            outputStream.writeInt(reference(strings, referenceEntity.getIdentifier()));
+            outputStream.writeInt(referenceEntity.getChildIndex());
+        }
+        outputStream.writeInt(snapshotEntity.getInvalidDates().size());
+        for (String date : snapshotEntity.getInvalidDates()) {
+            outputStream.writeInt(reference(strings, date));
+        }
+    }
+
+    private static SnapshotEntity readTree(DataInputStream inputStream) throws IOException {
+        String[] stringTable = new String[inputStream.readInt()];
+        byte[] bytes = new byte[0];
+        for (int index = 0; index < stringTable.length; index++) {
+            int length = inputStream.readInt();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            inputStream.readFully(bytes, 0, length);
+            stringTable[index] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = inputStream.readInt(); person > 0; person--) {
+            String key = string(stringTable, inputStream.readInt());
+            PersonEntity personEntity = new PersonEntity();
+            personEntity.setIdentifier(string(stringTable, inputStream.readInt()));
+            personEntity.setName(string(stringTable, inputStream.readInt()));
+            personEntity.setSexCode(inputStream.readByte());
+            personEntity.setBirthDay(inputStream.readInt());
+            personEntity.setDeathDay(inputStream.readInt());
+            simpleDBUtils.getPersonDB().put(key, personEntity);
+        }
+        List<FamilyEntity> families = new ArrayList<>();
+        for (int family = inputStream.readInt(); family > 0; family--) {
+            String key = string(stringTable, inputStream.readInt());
+            FamilyEntity familyEntity = new FamilyEntity();
+            familyEntity.setIdentifier(string(stringTable, inputStream.readInt()));
+            familyEntity.setFatherIndex(inputStream.readInt());
+            familyEntity.setMotherIndex(inputStream.readInt());
+            familyEntity.setMarriedDay(inputStream.readInt());
+            familyEntity.setDivorceDay(inputStream.readInt());
+            int[] childIndices = new int[inputStream.readInt()];
+            for (int child = 0; child < childIndices.length; child++) {
+                childIndices[child] = inputStream.readInt();
+            }
+            familyEntity.setChildIndices(childIndices);
+            familyEntity.setPersons(simpleDBUtils::getPerson, simpleDBUtils::getPersonIndex);
+            simpleDBUtils.getFamilyDB().put(key, familyEntity);
+            families.add(familyEntity);
+        }
+        Set<String> uniqueResult = new LinkedHashSet<>();
+        for (int identifier = inputStream.readInt(); identifier > 0; identifier--) {
+            uniqueResult.add(string(stringTable, inputStream.readInt()));
+        }
+        List<ReferenceEntity> danglingReferences = new ArrayList<>();
+        for (int reference = inputStream.readInt(); reference > 0; reference--) {
+            FamilyEntity familyEntity = families.get(inputStream.readInt());
+            danglingReferences.add(new ReferenceEntity(familyEntity, string(stringTable, inputStream.readInt()), string(stringTable, inputStream.readInt()), inputStream.readInt()));
+        }
+        List<String> invalidDates = new ArrayList<>();
+        for (int date = inputStream.readInt(); date > 0; date--) {
+            invalidDates.add(string(stringTable, inputStream.readInt()));
+        }
+        SnapshotEntity snapshotEntity = new SnapshotEntity();
+        snapshotEntity.setSimpleDBUtils(simpleDBUtils);
+        snapshotEntity.setUniqueResult(uniqueResult);
+        snapshotEntity.setDanglingReferences(danglingReferences);
+        snapshotEntity.setInvalidDates(invalidDates);
+        return snapshotEntity;
+    }
+
+    private static void intern(Map<String, Integer> strings, List<String> stringTable, String value) {
+        if (value != null && !strings.containsKey(value)) {
+            strings.put(value, stringTable.size());
+            stringTable.add(value);
+        }
+    }
+
+    private static int reference(Map<String, Integer> strings, String value) {
+        return value == null ? NO_STRING : strings.get(value);
+    }
+
+    private static String string(String[] stringTable, int reference) {
+        return reference == NO_STRING ? null : stringTable[reference];
+    }
+
+    private static int renumbered(int[] indices, int index) {
+        return index < 0 || index >= indices.length ? FamilyEntity.NO_PERSON : indices[index];
+    }
+}
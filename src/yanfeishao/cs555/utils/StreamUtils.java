@@ -0,0 +1,203 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.LineEntity;
+import yanfeishao.cs555.enums.Compression;
+import yanfeishao.cs555.enums.InputMode;
+import yanfeishao.cs555.enums.RecordType;
+import yanfeishao.cs555.handler.GedcomHandler;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Push style GEDCOM reader: tokenizes a file and fires {@link GedcomHandler} events without building SimpleDBUtils.
+ * <p>
+ * gzip files and zip bundles are recognized by their magic bytes and decompressed while they are read, on a read
+ * ahead thread so inflating overlaps with parsing. Every entry of a zip bundle is streamed as a document of its own.
+ */
+public class StreamUtils {
+
+    private static final int GZIP_MAGIC = 0x1F8B;
+    private static final int ZIP_MAGIC = 0x504B0304;
+
+    private StreamUtils() {
+    }
+
+    /**
+     * Create stream factory stream utils.
+     *
+     * @return the stream utils
+     */
+    public static StreamUtils createStreamFactory() {
+        return new StreamUtils();
+    }
+
+    /**
+     * Stream GED from file.
+     *
+     * @param filePath
+     *         the file path
+     * @param gedcomHandler
+     *         the handler receiving the events
+     *
+     * @return true if the whole file was streamed
+     */
+    public boolean readGEDCOM(String filePath, GedcomHandler gedcomHandler) {
+        return readGEDCOM(filePath, InputMode.STREAM, gedcomHandler);
+    }
+
+    /**
+     * Stream GED from file with the given input mode. The input mode only applies to uncompressed files, and every
+     * entry of a zip bundle is streamed to the same handler as a document of its own.
+     *
+     * @param filePath
+     *         the file path
+     * @param inputMode
+     *         the input mode
+     * @param gedcomHandler
+     *         the handler receiving the events
+     *
+     * @return true if the whole file was streamed
+     */
+    public boolean readGEDCOM(String filePath, InputMode inputMode, GedcomHandler gedcomHandler) {
+        return readGEDCOMEntries(filePath, inputMode, () -> gedcomHandler) != null;
+    }
+
+    /**
+     * Stream GED from file with a new handler for every document: one for a plain or gzip file, one per entry for a
+     * zip bundle.
+     *
+     * @param <T>
+     *         the handler type
+     * @param filePath
+     *         the file path
+     * @param inputMode
+     *         the input mode, only used for uncompressed files
+     * @param handlerFactory
+     *         creates the handler of a document
+     *
+     * @return the handlers in document order, or null if the file could not be read
+     */
+    public <T extends GedcomHandler> List<T> readGEDCOMEntries(String filePath, InputMode inputMode, Supplier<T> handlerFactory) {
+        List<T> gedcomHandlers = new ArrayList<>();
+        try (FileInputStream inputStream = new FileInputStream(filePath)) {
+            Compression compression = detectCompression(inputStream.getChannel());
+            if (compression == Compression.GZIP) {
+                gedcomHandlers.add(readDocument(new GZIPInputStream(inputStream, 1 << 16), handlerFactory.get()));
+            } else if (compression == Compression.ZIP) {
+                ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+                for (ZipEntry zipEntry = zipInputStream.getNextEntry(); zipEntry != null; zipEntry = zipInputStream.getNextEntry()) {
+                    if (!zipEntry.isDirectory()) {
+                        gedcomHandlers.add(readDocument(zipInputStream, handlerFactory.get()));
+                    }
+                }
+            } else if (inputMode == InputMode.MAPPED) {
+                gedcomHandlers.add(readDocument(TokenizerUtils.createTokenizerFactory(inputStream.getChannel()), handlerFactory.get()));
+            } else {
+                gedcomHandlers.add(readDocument(TokenizerUtils.createTokenizerFactory(inputStream), handlerFactory.get()));
+            }
+            return gedcomHandlers;
+        } catch (FileNotFoundException fnfe) {
+            ErrorUtils.pathError(fnfe, filePath);
+            return null;
+        } catch (IOException ioe) {
+            ErrorUtils.readGEDError(ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Detect the compression of a file from its first bytes.
+     *
+     * @param fileChannel
+     *         the file channel, its position is not changed
+     *
+     * @return the compression
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public static Compression detectCompression(FileChannel fileChannel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        while (magic.hasRemaining() && fileChannel.read(magic, magic.position()) > 0) {
+            continue;
+        }
+        if (magic.position() >= 2 && (magic.getShort(0) & 0xFFFF) == GZIP_MAGIC) {
+            return Compression.GZIP;
+        }
+        if (magic.position() == 4 && magic.getInt(0) == ZIP_MAGIC) {
+            return Compression.ZIP;
+        }
+        return Compression.NONE;
+    }
+
+    private <T extends GedcomHandler> T readDocument(InputStream decompressedStream, T gedcomHandler) throws IOException {
+        try (ReadAheadInputStream readAheadInputStream = new ReadAheadInputStream(decompressedStream)) {
+            readGEDCOM(TokenizerUtils.createTokenizerFactory(readAheadInputStream), gedcomHandler);
+        }
+        return gedcomHandler;
+    }
+
+    private <T extends GedcomHandler> T readDocument(TokenizerUtils tokenizerUtils, T gedcomHandler) throws IOException {
+        readGEDCOM(tokenizerUtils, gedcomHandler);
+        return gedcomHandler;
+    }
+
+    /**
+     * Stream the lines of a tokenizer.
+     *
+     * @param tokenizerUtils
+     *         the tokenizer utils
+     * @param gedcomHandler
+     *         the handler receiving the events
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public void readGEDCOM(TokenizerUtils tokenizerUtils, GedcomHandler gedcomHandler) throws IOException {
+        RecordType recordType = null;
+        gedcomHandler.startDocument();
+        for (LineEntity lineEntity = tokenizerUtils.nextLine(); lineEntity != null; lineEntity = tokenizerUtils.nextLine()) {
+            if (lineEntity.getLevel() == 0) {
+                endRecord(recordType, gedcomHandler);
+                recordType = startRecord(lineEntity, gedcomHandler);
+                if (recordType != null) {
+                    continue;
+                }
+            }
+            gedcomHandler.tag(lineEntity);
+        }
+        endRecord(recordType, gedcomHandler);
+        gedcomHandler.endDocument();
+    }
+
+    private RecordType startRecord(LineEntity lineEntity, GedcomHandler gedcomHandler) {
+        if (lineEntity.hasXref() && lineEntity.getTagInitial() == 'I') {
+            gedcomHandler.startPerson(lineEntity.getXref());
+            return RecordType.PERSON;
+        }
+        if (lineEntity.hasXref() && lineEntity.getTagInitial() == 'F') {
+            gedcomHandler.startFamily(lineEntity.getXref());
+            return RecordType.FAMILY;
+        }
+        return null;
+    }
+
+    private void endRecord(RecordType recordType, GedcomHandler gedcomHandler) {
+        if (recordType == RecordType.PERSON) {
+            gedcomHandler.endPerson();
+        } else if (recordType == RecordType.FAMILY) {
+            gedcomHandler.endFamily();
+        }
+    }
+}
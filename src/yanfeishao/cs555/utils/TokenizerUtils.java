@@ -0,0 +1,333 @@
+package yanfeishao.cs555.utils;
+
+import yanfeishao.cs555.entities.LineEntity;
+import yanfeishao.cs555.enums.GedcomTag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Byte level GEDCOM tokenizer.
+ * <p>
+ * Lines are scanned straight from the byte buffer and handed out as a reusable {@link LineEntity} view, so no regex,
+ * no String[] and no line String is allocated per line. The buffer is either filled from a stream, or is a read only
+ * memory mapped window of the file that is moved forward as the scan reaches its end, so files over 2 GB are read
+ * through several windows.
+ */
+public class TokenizerUtils {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int WINDOW_SIZE = 1 << 28;
+    private static final int PEEK_SIZE = 1 << 16;
+
+    private final LineEntity lineEntity;
+    private InputStream inputStream;
+    private FileChannel fileChannel;
+    private long windowOffset;
+    private long rangeEnd;
+    private int windowSize;
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private boolean skipLineFeed;
+    private boolean firstLine;
+
+    private TokenizerUtils() {
+        lineEntity = new LineEntity();
+        firstLine = true;
+    }
+
+    /**
+     * Create tokenizer factory reading from a stream.
+     *
+     * @param inputStream
+     *         the input stream
+     *
+     * @return the tokenizer utils
+     */
+    public static TokenizerUtils createTokenizerFactory(InputStream inputStream) {
+        TokenizerUtils tokenizerUtils = new TokenizerUtils();
+        tokenizerUtils.inputStream = inputStream;
+        tokenizerUtils.array = new byte[BUFFER_SIZE];
+        tokenizerUtils.buffer = ByteBuffer.wrap(tokenizerUtils.array);
+        return tokenizerUtils;
+    }
+
+    /**
+     * Create tokenizer factory scanning the remaining bytes of a buffer in place.
+     *
+     * @param buffer
+     *         the buffer, scanned from its position to its limit
+     *
+     * @return the tokenizer utils
+     */
+    public static TokenizerUtils createTokenizerFactory(ByteBuffer buffer) {
+        TokenizerUtils tokenizerUtils = new TokenizerUtils();
+        tokenizerUtils.buffer = buffer;
+        tokenizerUtils.position = buffer.position();
+        tokenizerUtils.limit = buffer.limit();
+        tokenizerUtils.endOfInput = true;
+        return tokenizerUtils;
+    }
+
+    /**
+     * Create tokenizer factory scanning a memory mapped file.
+     *
+     * @param fileChannel
+     *         the file channel
+     *
+     * @return the tokenizer utils
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public static TokenizerUtils createTokenizerFactory(FileChannel fileChannel) throws IOException {
+        return createTokenizerFactory(fileChannel, 0, fileChannel.size());
+    }
+
+    /**
+     * Create tokenizer factory scanning a byte range of a memory mapped file.
+     *
+     * @param fileChannel
+     *         the file channel
+     * @param start
+     *         the start offset of the range
+     * @param end
+     *         the end offset of the range
+     *
+     * @return the tokenizer utils
+     */
+    public static TokenizerUtils createTokenizerFactory(FileChannel fileChannel, long start, long end) {
+        return createTokenizerFactory(fileChannel, start, end, WINDOW_SIZE);
+    }
+
+    /**
+     * Create tokenizer factory scanning a byte range of a memory mapped file with the given window size.
+     *
+     * @param fileChannel
+     *         the file channel
+     * @param start
+     *         the start offset of the range
+     * @param end
+     *         the end offset of the range
+     * @param windowSize
+     *         the initial size of a mapped window
+     *
+     * @return the tokenizer utils
+     */
+    static TokenizerUtils createTokenizerFactory(FileChannel fileChannel, long start, long end, int windowSize) {
+        TokenizerUtils tokenizerUtils = new TokenizerUtils();
+        tokenizerUtils.fileChannel = fileChannel;
+        tokenizerUtils.windowOffset = start;
+        tokenizerUtils.rangeEnd = end;
+        tokenizerUtils.windowSize = windowSize;
+        tokenizerUtils.endOfInput = start >= end;
+        return tokenizerUtils;
+    }
+
+    /**
+     * Split a file into roughly equal chunks that each start at a level 0 INDI or FAM record, so every chunk can be
+     * tokenized on its own. Only a small window around every split point is mapped to find the record start.
+     *
+     * @param fileChannel
+     *         the file channel
+     * @param chunks
+     *         the wanted number of chunks
+     *
+     * @return the chunk start offsets followed by the file size
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public static long[] splitRecords(FileChannel fileChannel, int chunks) throws IOException {
+        long size = fileChannel.size();
+        long[] offsets = new long[chunks + 1];
+        int count = 0;
+        offsets[count++] = 0;
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long candidate = Math.max(size * chunk / chunks, offsets[count - 1] + 1);
+            long boundary = nextRecordStart(fileChannel, candidate, size);
+            if (boundary >= size) {
+                break;
+            }
+            offsets[count++] = boundary;
+        }
+        offsets[count++] = size;
+        return Arrays.copyOf(offsets, count);
+    }
+
+    private static long nextRecordStart(FileChannel fileChannel, long from, long size) throws IOException {
+        long windowStart = from - 1;
+        while (windowStart < size - 1) {
+            int windowLength = (int) Math.min(PEEK_SIZE, size - windowStart);
+            ByteBuffer window = fileChannel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+            int boundary = nextRecordStart(window, 1, windowLength);
+            if (boundary < windowLength) {
+                return windowStart + boundary;
+            }
+            windowStart += windowLength - 1;
+        }
+        return size;
+    }
+
+    private static int nextRecordStart(ByteBuffer buffer, int from, int end) {
+        for (int index = from; index < end; index++) {
+            byte previous = buffer.get(index - 1);
+            if ((previous == '\n' || previous == '\r') && isRecordStart(buffer, index, end)) {
+                return index;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isRecordStart(ByteBuffer buffer, int index, int end) {
+        if (index + 3 > end || buffer.get(index) != '0' || buffer.get(index + 1) != ' ' || buffer.get(index + 2) != '@') {
+            return false;
+        }
+        int cursor = index + 3;
+        while (cursor < end && buffer.get(cursor) != ' ' && buffer.get(cursor) != '\n' && buffer.get(cursor) != '\r') {
+            cursor++;
+        }
+        return cursor + 1 < end && buffer.get(cursor) == ' ' && (buffer.get(cursor + 1) == 'I' || buffer.get(cursor + 1) == 'F');
+    }
+
+    /**
+     * Tokenize the next non blank line.
+     *
+     * @return the line view, valid until the next call, or null at the end of input
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public LineEntity nextLine() throws IOException {
+        while (true) {
+            if (skipLineFeed) {
+                if (position == limit && !endOfInput) {
+                    fill();
+                    continue;
+                }
+                if (position < limit && buffer.get(position) == '\n') {
+                    position++;
+                }
+                skipLineFeed = false;
+            }
+            int end = indexOfLineBreak();
+            if (end < 0) {
+                if (!endOfInput) {
+                    fill();
+                    continue;
+                }
+                if (position >= limit) {
+                    return null;
+                }
+                end = limit;
+            }
+            int start = position;
+            position = end < limit ? end + 1 : end;
+            skipLineFeed = end < limit && buffer.get(end) == '\r';
+            if (firstLine) {
+                firstLine = false;
+                start = skipByteOrderMark(start, end);
+            }
+            if (start < end) {
+                tokenize(start, end);
+                return lineEntity;
+            }
+        }
+    }
+
+    private int indexOfLineBreak() {
+        for (int index = position; index < limit; index++) {
+            byte current = buffer.get(index);
+            if (current == '\n' || current == '\r') {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int skipByteOrderMark(int start, int end) {
+        if (end - start >= 3 && buffer.get(start) == (byte) 0xEF && buffer.get(start + 1) == (byte) 0xBB && buffer.get(start + 2) == (byte) 0xBF) {
+            return start + 3;
+        }
+        return start;
+    }
+
+    private void fill() throws IOException {
+        if (fileChannel != null) {
+            remap();
+            return;
+        }
+        if (inputStream == null) {
+            endOfInput = true;
+            return;
+        }
+        int remaining = limit - position;
+        if (remaining == array.length) {
+            byte[] grown = new byte[array.length * 2];
+            System.arraycopy(array, position, grown, 0, remaining);
+            array = grown;
+            buffer = ByteBuffer.wrap(array);
+        } else if (position > 0) {
+            System.arraycopy(array, position, array, 0, remaining);
+        }
+        position = 0;
+        limit = remaining;
+        int read = inputStream.read(array, limit, array.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    private void remap() throws IOException {
+        long offset = windowOffset + position;
+        if (position == 0 && limit == windowSize) {
+            windowSize = (int) Math.min(2L * windowSize, Integer.MAX_VALUE);
+        }
+        int size = (int) Math.min(windowSize, rangeEnd - offset);
+        buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowOffset = offset;
+        position = 0;
+        limit = size;
+        endOfInput = offset + size >= rangeEnd;
+    }
+
+    private void tokenize(int start, int end) {
+        int index = start;
+        int level = 0;
+        while (index < end && buffer.get(index) >= '0' && buffer.get(index) <= '9') {
+            level = level * 10 + buffer.get(index) - '0';
+            index++;
+        }
+        index = skipSpace(index, end);
+        int xrefStart = -1;
+        int xrefEnd = -1;
+        if (index < end && buffer.get(index) == '@') {
+            xrefStart = index;
+            xrefEnd = indexOfSpace(index, end);
+            index = skipSpace(xrefEnd, end);
+        }
+        int tagStart = index;
+        int tagEnd = indexOfSpace(index, end);
+        int valueStart = skipSpace(tagEnd, end);
+        lineEntity.reset(buffer, level, xrefStart, xrefEnd, tagStart, tagEnd, valueStart, end, GedcomTag.find(buffer, tagStart, tagEnd));
+    }
+
+    private int indexOfSpace(int index, int end) {
+        while (index < end && buffer.get(index) != ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private int skipSpace(int index, int end) {
+        return index < end && buffer.get(index) == ' ' ? index + 1 : index;
+    }
+}
@@ -31,13 +31,22 @@ public class TestCases {
      */
     protected static final int US30_EXPECTED_SIZE = 1;
     /**
-     * The constant US31_EXPECTED_SIZE.
+     * The constant US31_EXPECTED_SIZE. Every living single child in the data file is over 30 already, so the size
+     * does not change with the current date.
      */
-    protected static final int US31_EXPECTED_SIZE = 10;
+    protected static final int US31_EXPECTED_SIZE = 4;
     /**
      * The constant US33_EXPECTED_SIZE.
      */
     protected static final int US33_EXPECTED_SIZE = 1;
+    /**
+     * The constant PARALLELISM.
+     */
+    protected static final int PARALLELISM = 4;
+    /**
+     * The constant CHUNK_SIZE, small enough to split the sample file into many chunks.
+     */
+    protected static final int CHUNK_SIZE = 256;
     /**
      * The constant FILE_PATH.
      */
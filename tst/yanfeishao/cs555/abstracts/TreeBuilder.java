@@ -0,0 +1,272 @@
+package yanfeishao.cs555.abstracts;
+
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.utils.SimpleDBUtils;
+
+import java.util.Random;
+
+/**
+ * Builds family trees for the tests: individuals {@code @P0@}, {@code @P1@} and so on, and families {@code @F0@},
+ * {@code @F1@} and so on, put straight into a SimpleDBUtils with person n at person index n.
+ * <p>
+ * A random tree draws the spouses of every family from the first individuals and its children from the individuals
+ * after the later spouse, so nobody is their own ancestor. The decorators fill in what a test needs beyond the
+ * structure, such as names and dates, from the same random source.
+ */
+public class TreeBuilder {
+
+    private final Random random;
+    private final int persons;
+    private final int families;
+    private int spouseRange;
+    private boolean couples;
+    private int missingMothers;
+    private int minChildren = 1;
+    private int maxChildren = 1;
+    private int childWindow = Integer.MAX_VALUE;
+    private int danglingChildren;
+    private PersonDecorator personDecorator = (random, person, personEntity) -> {
+    };
+    private FamilyDecorator familyDecorator = (random, family, familyEntity) -> {
+    };
+
+    /**
+     * Instantiates a new Tree builder for a random tree.
+     *
+     * @param random
+     *         the random source
+     * @param persons
+     *         the number of individuals
+     * @param families
+     *         the number of families
+     */
+    public TreeBuilder(Random random, int persons, int families) {
+        this.random = random;
+        this.persons = persons;
+        this.families = families;
+        spouseRange = persons - 1;
+    }
+
+    /**
+     * Draw the spouses from the first individuals only.
+     *
+     * @param spouseRange
+     *         the number of individuals the spouses are drawn from
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder spouses(int spouseRange) {
+        this.spouseRange = spouseRange;
+        return this;
+    }
+
+    /**
+     * Marry individuals 2n and 2n + 1 in family n, every spouse in one family only, and draw the children from the
+     * individuals after the last couple.
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder couples() {
+        couples = true;
+        return this;
+    }
+
+    /**
+     * Leave out the wife of some families.
+     *
+     * @param oneIn
+     *         one family in this many has no wife
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder missingMothers(int oneIn) {
+        missingMothers = oneIn;
+        return this;
+    }
+
+    /**
+     * Sets the number of children of a family.
+     *
+     * @param minChildren
+     *         the least number of children
+     * @param maxChildren
+     *         the most number of children
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder children(int minChildren, int maxChildren) {
+        this.minChildren = minChildren;
+        this.maxChildren = maxChildren;
+        return this;
+    }
+
+    /**
+     * Draw the children from the individuals right after the later spouse only.
+     *
+     * @param childWindow
+     *         the number of individuals the children are drawn from
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder childWindow(int childWindow) {
+        this.childWindow = childWindow;
+        return this;
+    }
+
+    /**
+     * Let some children name no individual.
+     *
+     * @param oneIn
+     *         one child in this many is a dangling pointer
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder danglingChildren(int oneIn) {
+        danglingChildren = oneIn;
+        return this;
+    }
+
+    /**
+     * Sets the person decorator, called once for every individual in index order.
+     *
+     * @param personDecorator
+     *         the person decorator
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder persons(PersonDecorator personDecorator) {
+        this.personDecorator = personDecorator;
+        return this;
+    }
+
+    /**
+     * Sets the family decorator, called once for every family after its members are set.
+     *
+     * @param familyDecorator
+     *         the family decorator
+     *
+     * @return the tree builder
+     */
+    public TreeBuilder families(FamilyDecorator familyDecorator) {
+        this.familyDecorator = familyDecorator;
+        return this;
+    }
+
+    /**
+     * Build the random tree.
+     *
+     * @return the simple db utils
+     */
+    public SimpleDBUtils build() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < persons; person++) {
+            personDecorator.decorate(random, person, addPerson(simpleDBUtils, person));
+        }
+        for (int family = 0; family < families; family++) {
+            int father = couples ? family * 2 : random.nextInt(spouseRange);
+            int mother = couples ? family * 2 + 1 : oneIn(missingMothers) ? FamilyEntity.NO_PERSON : random.nextInt(spouseRange);
+            int first = couples ? families * 2 : Math.max(father, mother) + 1;
+            int window = Math.min(persons - first, childWindow);
+            FamilyEntity familyEntity = createFamily(simpleDBUtils, family, father, mother);
+            for (int child = minChildren + random.nextInt(maxChildren - minChildren + 1); child > 0; child--) {
+                familyEntity.addChild(oneIn(danglingChildren) ? FamilyEntity.NO_PERSON : first + random.nextInt(window));
+            }
+            familyDecorator.decorate(random, family, familyEntity);
+            simpleDBUtils.getFamilyDB().put(familyEntity.getIdentifier(), familyEntity);
+        }
+        return simpleDBUtils;
+    }
+
+    /**
+     * Add an individual named after its index.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     * @param person
+     *         the person index, which the individual gets if the persons before it were added in order
+     *
+     * @return the person entity
+     */
+    public static PersonEntity addPerson(SimpleDBUtils simpleDBUtils, int person) {
+        PersonEntity personEntity = new PersonEntity();
+        personEntity.setIdentifier("@P" + person + "@");
+        personEntity.setName("Person" + person + "/Line/");
+        simpleDBUtils.getPersonDB().put(personEntity.getIdentifier(), personEntity);
+        return personEntity;
+    }
+
+    /**
+     * Add a family with one child.
+     *
+     * @param simpleDBUtils
+     *         the simple db utils
+     * @param family
+     *         the family number
+     * @param father
+     *         the person index of the husband, or {@link FamilyEntity#NO_PERSON}
+     * @param mother
+     *         the person index of the wife, or {@link FamilyEntity#NO_PERSON}
+     * @param child
+     *         the person index of the child, or {@link FamilyEntity#NO_PERSON} for a family without children
+     *
+     * @return the family entity, to which more children can be added
+     */
+    public static FamilyEntity addFamily(SimpleDBUtils simpleDBUtils, int family, int father, int mother, int child) {
+        FamilyEntity familyEntity = createFamily(simpleDBUtils, family, father, mother);
+        if (child != FamilyEntity.NO_PERSON) {
+            familyEntity.addChild(child);
+        }
+        simpleDBUtils.getFamilyDB().put(familyEntity.getIdentifier(), familyEntity);
+        return familyEntity;
+    }
+
+    private static FamilyEntity createFamily(SimpleDBUtils simpleDBUtils, int family, int father, int mother) {
+        FamilyEntity familyEntity = new FamilyEntity();
+        familyEntity.setIdentifier("@F" + family + "@");
+        familyEntity.setPersons(simpleDBUtils::getPerson, simpleDBUtils::getPersonIndex);
+        familyEntity.setFatherIndex(father);
+        familyEntity.setMotherIndex(mother);
+        return familyEntity;
+    }
+
+    private boolean oneIn(int oneIn) {
+        return oneIn > 0 && random.nextInt(oneIn) == 0;
+    }
+
+    /**
+     * Fills in an individual of a random tree.
+     */
+    public interface PersonDecorator {
+
+        /**
+         * Decorate.
+         *
+         * @param random
+         *         the random source of the tree
+         * @param person
+         *         the person index
+         * @param personEntity
+         *         the person entity
+         */
+        void decorate(Random random, int person, PersonEntity personEntity);
+    }
+
+    /**
+     * Fills in a family of a random tree.
+     */
+    public interface FamilyDecorator {
+
+        /**
+         * Decorate.
+         *
+         * @param random
+         *         the random source of the tree
+         * @param family
+         *         the family number
+         * @param familyEntity
+         *         the family entity
+         */
+        void decorate(Random random, int family, FamilyEntity familyEntity);
+    }
+}
@@ -0,0 +1,302 @@
+package yanfeishao.cs555.benchmark;
+
+import yanfeishao.cs555.entities.LineEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+import yanfeishao.cs555.enums.GedcomTag;
+import yanfeishao.cs555.enums.ParseEnum;
+import yanfeishao.cs555.handler.CountHandler;
+import yanfeishao.cs555.handler.EntityHandler;
+import yanfeishao.cs555.utils.DateParserUtils;
+import yanfeishao.cs555.utils.SimpleDBUtils;
+import yanfeishao.cs555.utils.StreamUtils;
+import yanfeishao.cs555.utils.TokenizerUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Parser throughput benchmark, run by hand with {@code java yanfeishao.cs555.benchmark.ParserBenchmark [copies]}.
+ * <p>
+ * The sample GEDCOM file is replicated with renumbered identifiers into a temporary file so the numbers reflect a
+ * large export rather than the 375 line sample.
+ */
+public class ParserBenchmark {
+
+    private static final String FILE_PATH = "src/yanfeishao/cs555/data/data.ged";
+    private static final int DEFAULT_COPIES = 20000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * The entry point of the benchmark.
+     *
+     * @param args
+     *         the number of copies of the sample file
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    public static void main(String[] args) throws IOException {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COPIES;
+        File syntheticFile = createSyntheticFile(copies);
+        try {
+            long bytes = syntheticFile.length();
+            System.out.println(String.format("synthetic file: %d copies, %d MB", copies, bytes >> 20));
+            List<String> dates = readDates(syntheticFile);
+            reportHashOperations(syntheticFile);
+            for (int round = 0; round < ROUNDS; round++) {
+                report("split", bytes, timeSplitPath(syntheticFile));
+                report("tokenizer", bytes, timeTokenizerPath(syntheticFile, false));
+                report("mapped", bytes, timeTokenizerPath(syntheticFile, true));
+                reportDates("format", dates.size(), timeDateFormat(dates));
+                reportDates("dateparser", dates.size(), timeDateParser(dates));
+            }
+        } finally {
+            syntheticFile.delete();
+        }
+    }
+
+    /**
+     * Replicate the sample file with every identifier renumbered per copy.
+     *
+     * @param copies
+     *         the copies
+     *
+     * @return the synthetic file
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    static File createSyntheticFile(int copies) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(FILE_PATH));
+        File syntheticFile = File.createTempFile("benchmark", ".ged");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(syntheticFile))) {
+            for (int copy = 0; copy < copies; copy++) {
+                for (String line : lines) {
+                    if (copy > 0 && line.startsWith("0 ") && !line.contains("@")) {
+                        continue;
+                    }
+                    writer.write(line.replaceAll("@([PF])(\\d+)@", "@$1" + copy + "_$2@"));
+                    writer.newLine();
+                }
+            }
+        }
+        return syntheticFile;
+    }
+
+    private static void report(String name, long bytes, long nanos) {
+        System.out.println(String.format("%-10s %8d ms %8.1f MB/s", name, nanos / 1000000, bytes / 1048576.0 / (nanos / 1e9)));
+    }
+
+    private static void reportDates(String name, int dates, long nanos) {
+        System.out.println(String.format("%-10s %8d ms %8.1f ns/date", name, nanos / 1000000, (double) nanos / dates));
+    }
+
+    /**
+     * Count the personDB / familyDB puts per line. Before the record lifecycle every line re-put the last person and
+     * the last family once one had been seen; now every record is put once, when it ends.
+     */
+    private static void reportHashOperations(File file) {
+        CountHandler countHandler = new CountHandler();
+        LegacyPutHandler legacyPutHandler = new LegacyPutHandler();
+        StreamUtils.createStreamFactory().readGEDCOM(file.getPath(), countHandler);
+        StreamUtils.createStreamFactory().readGEDCOM(file.getPath(), legacyPutHandler);
+        EntityHandler entityHandler = EntityHandler.createHandlerFactory(false);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            StreamUtils.createStreamFactory().readGEDCOM(file.getPath(), entityHandler);
+        } finally {
+            System.setOut(out);
+        }
+        double lines = countHandler.getLineCount();
+        System.out.println(String.format("db puts per line: legacy %.3f, lifecycle %.3f", legacyPutHandler.puts / lines, (countHandler.getPersonCount() + countHandler.getFamilyCount()) / lines));
+        reportInterning(entityHandler);
+        reportHeap(file, countHandler);
+    }
+
+    /**
+     * Heap retained by a parsed tree, per record, measured as the used heap after a full collection.
+     */
+    private static void reportHeap(File file, CountHandler countHandler) {
+        long baseline = usedHeap();
+        EntityHandler entityHandler = EntityHandler.createHandlerFactory(false);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            StreamUtils.createStreamFactory().readGEDCOM(file.getPath(), entityHandler);
+        } finally {
+            System.setOut(out);
+        }
+        long retained = usedHeap() - baseline;
+        System.out.println(String.format("heap: %.1f bytes/record over %d records", (double) retained / (countHandler.getPersonCount() + countHandler.getFamilyCount()), entityHandler.getSimpleDBUtils().getPersonDB().size() + entityHandler.getSimpleDBUtils().getFamilyDB().size()));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int round = 0; round < 4; round++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Compare walking every individual through string keyed hash lookups with walking them by interned index.
+     */
+    private static void reportInterning(EntityHandler entityHandler) {
+        SimpleDBUtils simpleDBUtils = entityHandler.getSimpleDBUtils();
+        HashMap<String, PersonEntity> personDB = new HashMap<>(simpleDBUtils.getPersonDB());
+        List<String> identifiers = new ArrayList<>(personDB.keySet());
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (String identifier : identifiers) {
+            checksum += personDB.get(identifier) == null ? 0 : 1;
+        }
+        long hashNanos = finish(start, checksum);
+        start = System.nanoTime();
+        checksum = 0;
+        for (int index = 0; index < simpleDBUtils.getPersonIndexSize(); index++) {
+            checksum += simpleDBUtils.getPerson(index) == null ? 0 : 1;
+        }
+        long indexNanos = finish(start, checksum);
+        System.out.println(String.format("person walk: hash %.1f ns/person, index %.1f ns/person", (double) hashNanos / identifiers.size(), (double) indexNanos / identifiers.size()));
+    }
+
+    private static List<String> readDates(File file) throws IOException {
+        List<String> dates = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            TokenizerUtils tokenizerUtils = TokenizerUtils.createTokenizerFactory(inputStream);
+            for (LineEntity lineEntity = tokenizerUtils.nextLine(); lineEntity != null; lineEntity = tokenizerUtils.nextLine()) {
+                if (lineEntity.getTag() == GedcomTag.DATE) {
+                    value.setLength(0);
+                    lineEntity.appendValueTokens(value, ParseEnum.SPLIT_DATE.toString());
+                    dates.add(value.toString());
+                }
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * The date parsing done by readGEDCOM before DateParserUtils: a new SimpleDateFormat for every date.
+     */
+    private static long timeDateFormat(List<String> dates) {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (String date : dates) {
+            try {
+                checksum += new SimpleDateFormat(ParseEnum.DATE_FORMAT.toString()).parse(date).getTime();
+            } catch (ParseException pe) {
+                checksum++;
+            }
+        }
+        return finish(start, checksum);
+    }
+
+    private static long timeDateParser(List<String> dates) {
+        DateParserUtils dateParserUtils = DateParserUtils.createDateParserFactory();
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (String date : dates) {
+            Date parsed = dateParserUtils.parseDate(date);
+            checksum += parsed == null ? 1 : parsed.getTime();
+        }
+        return finish(start, checksum);
+    }
+
+    /**
+     * The tokenizing done by readGEDCOM before the byte level tokenizer: one regex split for the tag, one more per
+     * level check, and a StringBuffer join for every name and date.
+     */
+    private static long timeSplitPath(File file) throws IOException {
+        long start = System.nanoTime();
+        long checksum = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            while (line != null) {
+                String[] lineArray = line.split(" ");
+                String tag;
+                if (line.split(" ")[0].equals("0") && lineArray[1].charAt(0) == '@' && lineArray[2].charAt(0) == 'I') {
+                    tag = lineArray[2];
+                } else if (line.split(" ")[0].equals("0") && lineArray[1].charAt(0) == '@' && lineArray[2].charAt(0) == 'F') {
+                    tag = lineArray[2];
+                } else {
+                    tag = lineArray[1];
+                }
+                StringBuffer value = new StringBuffer();
+                for (int index = 2; index < lineArray.length; index++) {
+                    value.append(lineArray[index]);
+                }
+                checksum += tag.length() + value.length();
+                line = reader.readLine();
+            }
+        }
+        return finish(start, checksum);
+    }
+
+    private static long timeTokenizerPath(File file, boolean mapped) throws IOException {
+        long start = System.nanoTime();
+        long checksum = 0;
+        StringBuilder value = new StringBuilder();
+        try (FileInputStream inputStream = new FileInputStream(file)) {
+            TokenizerUtils tokenizerUtils = mapped ? TokenizerUtils.createTokenizerFactory(inputStream.getChannel()) : TokenizerUtils.createTokenizerFactory(inputStream);
+            LineEntity lineEntity = tokenizerUtils.nextLine();
+            while (lineEntity != null) {
+                value.setLength(0);
+                lineEntity.appendValueTokens(value, "");
+                checksum += lineEntity.getLevel() + (lineEntity.getTag() == null ? 0 : 1) + value.length();
+                lineEntity = tokenizerUtils.nextLine();
+            }
+        }
+        return finish(start, checksum);
+    }
+
+    private static long finish(long start, long checksum) {
+        long nanos = System.nanoTime() - start;
+        if (checksum == 42) {
+            System.out.println();
+        }
+        return nanos;
+    }
+
+    private static class LegacyPutHandler extends CountHandler {
+        private long puts;
+
+        @Override
+        public void startPerson(String identifier) {
+            super.startPerson(identifier);
+            countPuts();
+        }
+
+        @Override
+        public void startFamily(String identifier) {
+            super.startFamily(identifier);
+            countPuts();
+        }
+
+        @Override
+        public void tag(LineEntity lineEntity) {
+            super.tag(lineEntity);
+            countPuts();
+        }
+
+        private void countPuts() {
+            puts += (getPersonCount() > 0 ? 1 : 0) + (getFamilyCount() > 0 ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package yanfeishao.cs555.handler;
+
+import org.junit.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.constant.KeywordsConstant;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.ReferenceEntity;
+import yanfeishao.cs555.utils.CommonUtils;
+import yanfeishao.cs555.utils.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The type Entity handler test.
+ */
+public class EntityHandlerTest extends TestCases {
+
+    private static final List<String> FAMILY_FIRST_LINES = Arrays.asList(
+            "0 HEAD",
+            "0 @F1@ FAM",
+            "1 HUSB @P1@",
+            "1 WIFE @P2@",
+            "1 CHIL @P3@",
+            "1 CHIL @P9@",
+            "0 @P1@ INDI",
+            "1 NAME John /Doe/",
+            "1 SEX m",
+            "1 BIRT",
+            "2 DATE 2 JAN 1970",
+            "0 @P2@ INDI",
+            "1 NAME Jane /Doe/",
+            "0 @P3@ INDI",
+            "1 NAME Jim /Doe/",
+            "0 @S1@ SOUR",
+            "1 NAME Parish /Register/",
+            "0 TRLR");
+
+    /**
+     * Entity handler forward reference happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void entityHandlerForwardReferenceHappyCase() throws IOException {
+        File file = File.createTempFile("forward", ".ged");
+        try {
+            Files.write(file.toPath(), FAMILY_FIRST_LINES, StandardCharsets.UTF_8);
+            EntityHandler entityHandler = EntityHandler.createHandlerFactory(false);
+            StreamUtils.createStreamFactory().readGEDCOM(file.getPath(), entityHandler);
+            FamilyEntity familyEntity = entityHandler.getSimpleDBUtils().getFamilyDB().get("@F1@");
+            Assert.assertEquals("John/Doe/", familyEntity.getFather().getName());
+            Assert.assertEquals("Jane/Doe/", familyEntity.getMother().getName());
+            Assert.assertEquals("Jim/Doe/", familyEntity.getChildList().get(0).getName());
+            Assert.assertEquals(3, entityHandler.getSimpleDBUtils().getPersonDB().size());
+            Assert.assertNull(familyEntity.getChildList().get(1));
+            Assert.assertEquals(1, familyEntity.getFather().getBirthDay());
+            Assert.assertEquals(familyEntity.getFather().getBirthDate(), CommonUtils.toDate(1));
+            Assert.assertEquals("M", familyEntity.getFather().getSex());
+            Assert.assertEquals(CommonUtils.UNKNOWN_DAY, familyEntity.getMother().getBirthDay());
+            Assert.assertNull(familyEntity.getMother().getBirthDate());
+            Assert.assertNull(familyEntity.getMother().getSex());
+            Assert.assertEquals(FamilyEntity.NO_PERSON, familyEntity.getChildIndices()[1]);
+            List<ReferenceEntity> danglingReferences = entityHandler.getDanglingReferences();
+            Assert.assertEquals(1, danglingReferences.size());
+            Assert.assertEquals(KeywordsConstant.CHIL, danglingReferences.get(0).getTag());
+            Assert.assertEquals("@P9@", danglingReferences.get(0).getIdentifier());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Entity handler dangling reference case.
+     */
+    @Test
+    public void entityHandlerDanglingReferenceCase() {
+        EntityHandler entityHandler = EntityHandler.createHandlerFactory(false);
+        StreamUtils.createStreamFactory().readGEDCOM(FILE_PATH, entityHandler);
+        Assert.assertEquals(1, entityHandler.getDanglingReferences().size());
+        Assert.assertEquals("@P22@", entityHandler.getDanglingReferences().get(0).getIdentifier());
+    }
+}
@@ -0,0 +1,104 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.abstracts.TreeBuilder;
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.entities.FamilyEntity;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The type Ancestry utils test.
+ */
+public class AncestryUtilsTest extends TestCases {
+
+    /**
+     * Ancestry matches traversal happy case.
+     */
+    @Test
+    public void ancestryMatchesTraversalHappyCase() {
+        for (int seed = 0; seed < 5; seed++) {
+            SimpleDBUtils simpleDBUtils = createRandomTree(new Random(seed), 600, 400);
+            GraphUtils graph = simpleDBUtils.getGraph();
+            AncestryUtils ancestry = simpleDBUtils.getAncestry();
+            Assert.assertSame(ancestry, simpleDBUtils.getAncestry());
+            int personCount = simpleDBUtils.getPersonIndexSize();
+            for (int person = 0; person < personCount; person++) {
+                BitSet ancestors = new BitSet();
+                Arrays.stream(graph.getAncestors(person)).forEach(ancestors::set);
+                for (int other = 0; other < personCount; other++) {
+                    Assert.assertEquals(other + " " + person, ancestors.get(other), ancestry.isAncestor(other, person));
+                    Assert.assertEquals(ancestors.get(other), ancestry.isDescendant(person, other));
+                }
+            }
+        }
+    }
+
+    /**
+     * Ancestry sample file case.
+     */
+    @Test
+    public void ancestrySampleFileCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        AncestryUtils ancestry = simpleDBUtils.getAncestry();
+        for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+            for (int child : familyEntity.getChildIndices()) {
+                if (child != FamilyEntity.NO_PERSON) {
+                    Assert.assertTrue(ancestry.isAncestor(familyEntity.getFatherIndex(), child));
+                    Assert.assertTrue(ancestry.isInLine(child, familyEntity.getMotherIndex()));
+                    Assert.assertFalse(ancestry.isAncestor(child, familyEntity.getFatherIndex()));
+                }
+            }
+            Assert.assertFalse(ancestry.isInLine(familyEntity.getFatherIndex(), familyEntity.getMotherIndex()));
+        }
+        Assert.assertTrue(outputUtils.outputError(simpleDBUtils, ErrorCode.US17).isEmpty());
+    }
+
+    /**
+     * Ancestry cycle case.
+     */
+    @Test
+    public void ancestryCycleCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 4; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 0, 0, FamilyEntity.NO_PERSON, 1);
+        TreeBuilder.addFamily(simpleDBUtils, 1, 1, FamilyEntity.NO_PERSON, 2);
+        TreeBuilder.addFamily(simpleDBUtils, 2, 2, FamilyEntity.NO_PERSON, 0);
+        AncestryUtils ancestry = simpleDBUtils.getAncestry();
+        Assert.assertTrue(ancestry.isAncestor(0, 2));
+        Assert.assertTrue(ancestry.isAncestor(2, 0));
+        Assert.assertTrue(ancestry.isAncestor(1, 1));
+        Assert.assertFalse(ancestry.isAncestor(3, 0));
+        Assert.assertFalse(ancestry.isAncestor(0, 3));
+    }
+
+    /**
+     * Ancestry US17 case.
+     */
+    @Test
+    public void ancestryUS17Case() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 5; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 0, 0, 1, 2);
+        TreeBuilder.addFamily(simpleDBUtils, 1, 3, 2, 4);
+        TreeBuilder.addFamily(simpleDBUtils, 2, 0, 4, FamilyEntity.NO_PERSON);
+        TreeBuilder.addFamily(simpleDBUtils, 3, 2, 3, FamilyEntity.NO_PERSON);
+        Set<String> results = outputUtils.outputError(simpleDBUtils, ErrorCode.US17);
+        Assert.assertEquals(1, results.size());
+        Assert.assertTrue(results.iterator().next().contains("[@F2@]"));
+    }
+
+    private static SimpleDBUtils createRandomTree(Random random, int persons, int families) {
+        return new TreeBuilder(random, persons, families).missingMothers(4).children(1, 3).childWindow(30).build();
+    }
+
+}
@@ -0,0 +1,70 @@
+package yanfeishao.cs555.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.entities.ReportEntity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The type Batch utils test.
+ */
+public class BatchUtilsTest extends TestCases {
+
+    private static final int FILE_EXPECTED_SIZE = 3;
+
+    /**
+     * Batch read happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void batchReadHappyCase() throws IOException {
+        Path directory = Files.createTempDirectory("batch");
+        try {
+            Path inputDirectory = Files.createDirectory(directory.resolve("input"));
+            Files.copy(Paths.get(FILE_PATH), inputDirectory.resolve("first.ged"));
+            Files.copy(Paths.get(FILE_PATH), inputDirectory.resolve("second.ged"));
+            Path manifest = Files.write(directory.resolve("manifest.txt"), Arrays.asList("# nightly", FILE_PATH, inputDirectory.resolve("first.ged").toString()), StandardCharsets.UTF_8);
+            List<String> filePaths = BatchUtils.collectPaths(Arrays.asList(inputDirectory.toString(), "@" + manifest));
+            Assert.assertEquals(FILE_EXPECTED_SIZE, filePaths.size());
+            File outputDirectory = directory.resolve("output").toFile();
+            List<ReportEntity> reports = BatchUtils.createBatchFactory(PARALLELISM, outputDirectory).readGEDCOMBatch(filePaths);
+            Assert.assertEquals(FILE_EXPECTED_SIZE, reports.size());
+            SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+            for (ReportEntity report : reports) {
+                Assert.assertNull(report.getFailure());
+                Assert.assertEquals(simpleDBUtils.getPersonDB().size(), report.getPersonCount());
+                Assert.assertEquals(simpleDBUtils.getFamilyDB().size(), report.getFamilyCount());
+                Assert.assertEquals(parserUtils.getErrorCount(), report.getErrorCount());
+            }
+            Assert.assertEquals(FILE_EXPECTED_SIZE, outputDirectory.list().length);
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /**
+     * Batch read bad case.
+     */
+    @Test
+    public void batchReadBadCase() {
+        List<ReportEntity> reports = BatchUtils.createBatchFactory(PARALLELISM, null).readGEDCOMBatch(Collections.singletonList(FILE_BAD_PATH));
+        Assert.assertEquals(1, reports.size());
+        Assert.assertNotNull(reports.get(0).getFailure());
+    }
+}
@@ -0,0 +1,113 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.abstracts.TreeBuilder;
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.entities.FamilyEntity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The type Column utils test.
+ */
+public class ColumnUtilsTest extends TestCases {
+
+    private static final String[] DATE_CODES = {ErrorCode.US01, ErrorCode.US02, ErrorCode.US03, ErrorCode.US04, ErrorCode.US05, ErrorCode.US06, ErrorCode.US08, ErrorCode.US09, ErrorCode.US10, ErrorCode.US12};
+    private static final int FIRST_DAY = -25000;
+    private static final int DAY_RANGE = 47000;
+
+    /**
+     * Column read happy case.
+     */
+    @Test
+    public void columnReadHappyCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        ColumnUtils columns = simpleDBUtils.getColumns();
+        Assert.assertSame(columns, simpleDBUtils.getColumns());
+        Assert.assertEquals(simpleDBUtils.getPersonIndexSize(), columns.getPersonCount());
+        Assert.assertEquals(FAMILY_EXPECTED_SIZE, columns.getFamilyCount());
+        int family = simpleDBUtils.getFamilyIndex("@F1@");
+        FamilyEntity familyEntity = simpleDBUtils.getFamily(family);
+        Assert.assertEquals(familyEntity.getFatherIndex(), columns.getHusband()[family]);
+        Assert.assertEquals(familyEntity.getMarriedDay(), columns.getMarriageDay()[family]);
+        Assert.assertEquals(familyEntity.getChildList().size(), columns.getChildOffsets()[family + 1] - columns.getChildOffsets()[family]);
+        int person = simpleDBUtils.getPersonIndex("@P1@");
+        Assert.assertEquals(simpleDBUtils.getPerson(person).getBirthDay(), columns.getBirthDay()[person]);
+        Assert.assertEquals(simpleDBUtils.getPerson(person).getSexCode(), columns.getSex()[person]);
+        simpleDBUtils.getPersonDB().remove("@P1@");
+        Assert.assertNotSame(columns, simpleDBUtils.getColumns());
+        Assert.assertEquals(CommonUtils.UNKNOWN_DAY, simpleDBUtils.getColumns().getBirthDay()[person]);
+    }
+
+    /**
+     * Column setter change case.
+     */
+    @Test
+    public void columnSetterChangeCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        Assert.assertEquals(1, outputUtils.outputError(simpleDBUtils, ErrorCode.US04).size());
+        FamilyEntity familyEntity = simpleDBUtils.getFamilyDB().get("@F1@");
+        familyEntity.setDivorceDay(familyEntity.getMarriedDay() - 400);
+        Assert.assertEquals(familyEntity.getDivorceDay(), simpleDBUtils.getColumns().getDivorceDay()[simpleDBUtils.getFamilyIndex("@F1@")]);
+        Assert.assertEquals(2, outputUtils.outputError(simpleDBUtils, ErrorCode.US04).size());
+        simpleDBUtils.getPersonDB().get("@P1@").setBirthDate(familyEntity.getMarriedDate());
+        Assert.assertTrue(outputUtils.outputError(simpleDBUtils, ErrorCode.US10).stream().anyMatch(result -> result.contains("@F1@")));
+    }
+
+    /**
+     * Column scan matches full scan case.
+     */
+    @Test
+    public void columnScanMatchesFullScanCase() {
+        SimpleDBUtils simpleDBUtils = createRandomTree(new Random(555), 400, 150);
+        DateUtils dateUtils = DateUtils.createDateFactory();
+        ErrorUtils errorUtils = new ErrorUtils();
+        for (String prefix : DATE_CODES) {
+            Set<String> expected = new HashSet<>();
+            simpleDBUtils.getFamilyDBList().forEach(familyEntity -> errorUtils.parseFamilyDateError(dateUtils, familyEntity, prefix, expected));
+            Set<String> actual = RuleEngineUtils.createRuleEngineFactory(Collections.singletonList(prefix)).evaluate(simpleDBUtils).get(prefix);
+            Assert.assertFalse(prefix, expected.isEmpty());
+            Assert.assertEquals(prefix, expected, actual);
+        }
+    }
+
+    /**
+     * Family date error without spouse case.
+     */
+    @Test
+    public void familyDateErrorWithoutSpouseCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        FamilyEntity familyEntity = simpleDBUtils.getFamilyDB().get("@F1@");
+        familyEntity.setMotherIndex(FamilyEntity.NO_PERSON);
+        DateUtils dateUtils = DateUtils.createDateFactory();
+        ErrorUtils errorUtils = new ErrorUtils();
+        Set<String> results = new HashSet<>();
+        for (String prefix : DATE_CODES) {
+            errorUtils.parseFamilyDateError(dateUtils, familyEntity, prefix, results);
+        }
+        Assert.assertTrue(results.isEmpty());
+    }
+
+    /**
+     * A tree where every spouse has a known birth and death day and children, marriages and divorces may have none.
+     */
+    private static SimpleDBUtils createRandomTree(Random random, int persons, int families) {
+        return new TreeBuilder(random, persons, families).couples().children(0, 3).danglingChildren(10).persons((treeRandom, person, personEntity) -> {
+            personEntity.setName("Person" + person + "/Random/");
+            personEntity.setBirthDay(randomDay(treeRandom, person < families * 2));
+            personEntity.setDeathDay(randomDay(treeRandom, person < families * 2));
+        }).families((treeRandom, family, familyEntity) -> {
+            familyEntity.setMarriedDay(randomDay(treeRandom, false));
+            familyEntity.setDivorceDay(randomDay(treeRandom, false));
+        }).build();
+    }
+
+    private static int randomDay(Random random, boolean known) {
+        return !known && random.nextInt(3) == 0 ? CommonUtils.UNKNOWN_DAY : FIRST_DAY + random.nextInt(DAY_RANGE);
+    }
+}
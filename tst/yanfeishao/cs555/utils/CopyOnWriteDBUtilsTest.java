@@ -0,0 +1,96 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.entities.PersonEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The type Copy on write db utils test.
+ */
+public class CopyOnWriteDBUtilsTest extends TestCases {
+
+    private static final int READERS = 4;
+    private static final int UPDATES = 50;
+
+    /**
+     * Copy on write update happy case.
+     */
+    @Test
+    public void copyOnWriteUpdateHappyCase() {
+        CopyOnWriteDBUtils copyOnWriteDBUtils = CopyOnWriteDBUtils.createCopyOnWriteFactory(parserUtils.readGEDCOM(FILE_PATH));
+        SimpleDBUtils firstDBUtils = copyOnWriteDBUtils.get();
+        Assert.assertTrue(firstDBUtils.isFrozen());
+        SimpleDBUtils secondDBUtils = copyOnWriteDBUtils.update(draftDBUtils -> draftDBUtils.getPersonDB().remove("@P1@"));
+        Assert.assertSame(secondDBUtils, copyOnWriteDBUtils.get());
+        Assert.assertTrue(secondDBUtils.isFrozen());
+        Assert.assertNotNull(firstDBUtils.getPersonDB().get("@P1@"));
+        Assert.assertNull(secondDBUtils.getPersonDB().get("@P1@"));
+        try {
+            copyOnWriteDBUtils.update(draftDBUtils -> {
+                draftDBUtils.getPersonDB().clear();
+                throw new IllegalStateException();
+            });
+            Assert.fail();
+        } catch (IllegalStateException ise) {
+            Assert.assertSame(secondDBUtils, copyOnWriteDBUtils.get());
+        }
+    }
+
+    /**
+     * Copy on write concurrent readers case.
+     *
+     * @throws InterruptedException
+     *         the interrupted exception
+     * @throws ExecutionException
+     *         the execution exception
+     */
+    @Test
+    public void copyOnWriteConcurrentReadersCase() throws InterruptedException, ExecutionException {
+        CopyOnWriteDBUtils copyOnWriteDBUtils = CopyOnWriteDBUtils.createCopyOnWriteFactory(parserUtils.readGEDCOM(FILE_PATH));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executorService = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.add(executorService.submit(() -> {
+                    int reads = 0;
+                    do {
+                        SimpleDBUtils simpleDBUtils = copyOnWriteDBUtils.get();
+                        int added = simpleDBUtils.getPersonDBList().size() - PERSON_EXPECTED_SIZE;
+                        for (int person = 0; person < added; person++) {
+                            Assert.assertNotNull(simpleDBUtils.getPersonDB().get("@N" + person + "@"));
+                        }
+                        Assert.assertNull(simpleDBUtils.getPersonDB().get("@N" + added + "@"));
+                        Assert.assertEquals(simpleDBUtils.getPersonIndexSize(), simpleDBUtils.getColumns().getPersonCount());
+                        reads++;
+                    } while (writing.get());
+                    return reads;
+                }));
+            }
+            for (int update = 0; update < UPDATES; update++) {
+                String identifier = "@N" + update + "@";
+                copyOnWriteDBUtils.update(draftDBUtils -> {
+                    PersonEntity personEntity = new PersonEntity();
+                    personEntity.setIdentifier(identifier);
+                    draftDBUtils.getPersonDB().put(identifier, personEntity);
+                });
+            }
+            writing.set(false);
+            for (Future<Integer> reader : readers) {
+                Assert.assertTrue(reader.get() > 0);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        Assert.assertEquals(PERSON_EXPECTED_SIZE + UPDATES, copyOnWriteDBUtils.get().getPersonDBList().size());
+    }
+}
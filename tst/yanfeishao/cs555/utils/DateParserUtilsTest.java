@@ -0,0 +1,129 @@
+package yanfeishao.cs555.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.entities.DateEntity;
+import yanfeishao.cs555.enums.DatePrecision;
+import yanfeishao.cs555.enums.DateQualifier;
+import yanfeishao.cs555.enums.ParseEnum;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The type Date parser utils test.
+ */
+public class DateParserUtilsTest extends TestCases {
+
+    private static final String[] EXACT_DATES = {"1 JAN 1990", "15-Jul-1901", "31 FEB 2000", "0 MAR 1500", "2 FEBRUARY 1950"};
+
+    /**
+     * Date parser exact happy case.
+     *
+     * @throws ParseException
+     *         the parse exception
+     */
+    @Test
+    public void dateParserExactHappyCase() throws ParseException {
+        DateParserUtils dateParserUtils = DateParserUtils.createDateParserFactory();
+        SimpleDateFormat dateFormat = new SimpleDateFormat(ParseEnum.DATE_FORMAT.toString(), Locale.ENGLISH);
+        for (String text : EXACT_DATES) {
+            Date expected = dateFormat.parse(text.replace(' ', '-'));
+            Assert.assertEquals(expected, dateParserUtils.parseDate(text));
+            Assert.assertEquals(expected, dateParserUtils.parseDate(text));
+        }
+    }
+
+    /**
+     * Date parser exact path case.
+     *
+     * @throws ParseException
+     *         the parse exception
+     */
+    @Test
+    public void dateParserExactPathCase() throws ParseException {
+        DateParserUtils dateParserUtils = DateParserUtils.createDateParserFactory();
+        SimpleDateFormat dateFormat = new SimpleDateFormat(ParseEnum.DATE_FORMAT.toString(), Locale.ENGLISH);
+        for (String text : new String[]{"15-MAR-1921", "1-JAN-1990", "15 MAR 1921", "31 FEB 2000", "0 MAR 1500"}) {
+            DateEntity dateEntity = dateParserUtils.parseExact(text);
+            Assert.assertNotNull(text, dateEntity);
+            Assert.assertEquals(DatePrecision.DAY, dateEntity.getPrecision());
+            Assert.assertEquals(dateFormat.parse(text.replace(' ', '-')), dateEntity.toDate());
+        }
+        Assert.assertNull(dateParserUtils.parseExact("2 FEBRUARY 1950"));
+        Assert.assertNull(dateParserUtils.parseExact("15 MAR 19211"));
+        Assert.assertNull(dateParserUtils.parseExact("JUN 1978"));
+    }
+
+    /**
+     * Date parser partial happy case.
+     */
+    @Test
+    public void dateParserPartialHappyCase() {
+        DateParserUtils dateParserUtils = DateParserUtils.createDateParserFactory();
+        DateEntity about = dateParserUtils.parseGedcomDate("ABT 1896");
+        Assert.assertEquals(DateQualifier.ABOUT, about.getQualifier());
+        Assert.assertEquals(DatePrecision.YEAR, about.getPrecision());
+        DateEntity before = dateParserUtils.parseGedcomDate("BEF-3-JUN-1978");
+        Assert.assertEquals(DateQualifier.BEFORE, before.getQualifier());
+        Assert.assertEquals(DatePrecision.DAY, before.getPrecision());
+        DateEntity month = dateParserUtils.parseGedcomDate("JUN 1978");
+        Assert.assertEquals(DateQualifier.EXACT, month.getQualifier());
+        Assert.assertEquals(DatePrecision.MONTH, month.getPrecision());
+        Assert.assertEquals(DatePrecision.YEAR, dateParserUtils.parseGedcomDate("1972").getPrecision());
+        Assert.assertNull(dateParserUtils.parseDate("1972"));
+    }
+
+    /**
+     * Date parser bad case.
+     */
+    @Test
+    public void dateParserBadCase() {
+        DateParserUtils dateParserUtils = DateParserUtils.createDateParserFactory();
+        Assert.assertNull(dateParserUtils.parseGedcomDate(""));
+        Assert.assertNull(dateParserUtils.parseGedcomDate("ABT"));
+        Assert.assertNull(dateParserUtils.parseGedcomDate("1 FOO 1990"));
+    }
+
+    /**
+     * Date parser shared happy case.
+     *
+     * @throws InterruptedException
+     *         the interrupted exception
+     * @throws ExecutionException
+     *         the execution exception
+     */
+    @Test
+    public void dateParserSharedHappyCase() throws InterruptedException, ExecutionException {
+        DateParserUtils dateParserUtils = DateParserUtils.createDateParserFactory();
+        Date expected = dateParserUtils.parseDate(EXACT_DATES[0]);
+        ExecutorService executorService = Executors.newFixedThreadPool(PARALLELISM);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < PARALLELISM; task++) {
+                results.add(executorService.submit(() -> {
+                    for (int round = 0; round < 10000; round++) {
+                        if (!expected.equals(dateParserUtils.parseDate(EXACT_DATES[0])) || dateParserUtils.parseDate(round + " JAN 1990") == null) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
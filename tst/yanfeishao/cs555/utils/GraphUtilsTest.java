@@ -0,0 +1,138 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.abstracts.TreeBuilder;
+import yanfeishao.cs555.entities.FamilyEntity;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The type Graph utils test.
+ */
+public class GraphUtilsTest extends TestCases {
+
+    private static final int CHAIN_LENGTH = 200000;
+
+    /**
+     * Graph traversal matches family scan happy case.
+     */
+    @Test
+    public void graphTraversalMatchesFamilyScanHappyCase() {
+        SimpleDBUtils simpleDBUtils = createRandomTree(new Random(19), 300, 120);
+        GraphUtils graph = simpleDBUtils.getGraph();
+        Assert.assertSame(graph, simpleDBUtils.getGraph());
+        for (int person = 0; person < simpleDBUtils.getPersonIndexSize(); person++) {
+            for (int generations : new int[]{1, 2, 3, GraphUtils.ALL_GENERATIONS}) {
+                Assert.assertEquals(scan(simpleDBUtils, person, generations, false), toSet(graph.getAncestors(person, generations)));
+                Assert.assertEquals(scan(simpleDBUtils, person, generations, true), toSet(graph.getDescendants(person, generations)));
+            }
+            Assert.assertEquals(scan(simpleDBUtils, person, 1, false), toSet(graph.getParents(person)));
+            Assert.assertEquals(scan(simpleDBUtils, person, 1, true), toSet(graph.getChildren(person)));
+        }
+    }
+
+    /**
+     * Graph sample file case.
+     */
+    @Test
+    public void graphSampleFileCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        GraphUtils graph = simpleDBUtils.getGraph();
+        for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+            for (int child : familyEntity.getChildIndices()) {
+                if (child != FamilyEntity.NO_PERSON) {
+                    Set<Integer> parents = toSet(graph.getParents(child));
+                    Assert.assertTrue(parents.contains(familyEntity.getFatherIndex()));
+                    Assert.assertTrue(parents.contains(familyEntity.getMotherIndex()));
+                    Assert.assertTrue(toSet(graph.getDescendants(familyEntity.getFatherIndex())).contains(child));
+                }
+            }
+        }
+        simpleDBUtils.getPersonDB().remove("@P1@");
+        Assert.assertNotSame(graph, simpleDBUtils.getGraph());
+        SimpleDBUtils frozenDBUtils = simpleDBUtils.freeze();
+        Assert.assertSame(frozenDBUtils.getGraph(), frozenDBUtils.getGraph());
+    }
+
+    /**
+     * Graph deep lineage case.
+     */
+    @Test
+    public void graphDeepLineageCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < CHAIN_LENGTH; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        for (int person = 0; person + 1 < CHAIN_LENGTH; person++) {
+            TreeBuilder.addFamily(simpleDBUtils, person, person, FamilyEntity.NO_PERSON, person + 1);
+        }
+        GraphUtils graph = simpleDBUtils.getGraph();
+        int[] descendants = graph.getDescendants(0);
+        Assert.assertEquals(CHAIN_LENGTH - 1, descendants.length);
+        Assert.assertEquals(1, descendants[0]);
+        Assert.assertEquals(CHAIN_LENGTH - 1, descendants[descendants.length - 1]);
+        int[] ancestors = graph.getAncestors(CHAIN_LENGTH - 1, 20);
+        Assert.assertEquals(20, ancestors.length);
+        Assert.assertEquals(CHAIN_LENGTH - 2, ancestors[0]);
+        Assert.assertEquals(CHAIN_LENGTH - 21, ancestors[19]);
+    }
+
+    /**
+     * Graph cycle case.
+     */
+    @Test
+    public void graphCycleCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 3; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 0, 0, 2, 1);
+        TreeBuilder.addFamily(simpleDBUtils, 1, 1, FamilyEntity.NO_PERSON, 0);
+        TreeBuilder.addFamily(simpleDBUtils, 2, 0, 2, 1);
+        GraphUtils graph = simpleDBUtils.getGraph();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), toSet(graph.getAncestors(0)));
+        Assert.assertEquals(2, graph.getAncestors(1).length);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(0, 1)), toSet(graph.getDescendants(2)));
+        Assert.assertEquals(4, graph.getParents(1).length);
+    }
+
+    private static SimpleDBUtils createRandomTree(Random random, int persons, int families) {
+        return new TreeBuilder(random, persons, families).spouses(persons / 2).missingMothers(5).children(1, 4).danglingChildren(10).build();
+    }
+
+    /**
+     * The ancestors or descendants within a number of generations, found by scanning every family for each generation.
+     */
+    private static Set<Integer> scan(SimpleDBUtils simpleDBUtils, int person, int generations, boolean descendants) {
+        Set<Integer> reached = new HashSet<>();
+        Set<Integer> frontier = new HashSet<>();
+        frontier.add(person);
+        reached.add(person);
+        for (int generation = 0; generation < generations && !frontier.isEmpty(); generation++) {
+            Set<Integer> next = new HashSet<>();
+            for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+                Set<Integer> parents = new HashSet<>(Arrays.asList(familyEntity.getFatherIndex(), familyEntity.getMotherIndex()));
+                parents.remove(FamilyEntity.NO_PERSON);
+                Set<Integer> children = Arrays.stream(familyEntity.getChildIndices()).filter(child -> child != FamilyEntity.NO_PERSON).boxed().collect(Collectors.toSet());
+                Set<Integer> from = descendants ? parents : children;
+                Set<Integer> to = descendants ? children : parents;
+                if (from.stream().anyMatch(frontier::contains)) {
+                    to.stream().filter(reached::add).forEach(next::add);
+                }
+            }
+            frontier = next;
+        }
+        reached.remove(person);
+        return reached;
+    }
+
+    private static Set<Integer> toSet(int[] values) {
+        return Arrays.stream(values).boxed().collect(Collectors.toSet());
+    }
+}
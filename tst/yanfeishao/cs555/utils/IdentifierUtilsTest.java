@@ -0,0 +1,42 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+
+/**
+ * The type Identifier utils test.
+ */
+public class IdentifierUtilsTest extends TestCases {
+
+    /**
+     * Intern dense case.
+     */
+    @Test
+    public void internDenseCase() {
+        IdentifierUtils identifierUtils = IdentifierUtils.createIdentifierFactory();
+        for (int index = 0; index < 1000; index++) {
+            Assert.assertEquals(index, identifierUtils.intern("@I" + index * 7 + "@"));
+        }
+        Assert.assertEquals(1000, identifierUtils.size());
+        for (int index = 0; index < 1000; index++) {
+            Assert.assertEquals(index, identifierUtils.intern("@I" + index * 7 + "@"));
+            Assert.assertEquals(index, identifierUtils.indexOf("@I" + index * 7 + "@"));
+            Assert.assertEquals("@I" + index * 7 + "@", identifierUtils.identifier(index));
+        }
+        Assert.assertEquals(-1, identifierUtils.indexOf("@I1@"));
+    }
+
+    /**
+     * Intern null case.
+     */
+    @Test
+    public void internNullCase() {
+        IdentifierUtils identifierUtils = IdentifierUtils.createIdentifierFactory();
+        Assert.assertEquals(-1, identifierUtils.indexOf(null));
+        Assert.assertEquals(0, identifierUtils.intern("@P1@"));
+        Assert.assertEquals(1, identifierUtils.intern(null));
+        Assert.assertEquals(1, identifierUtils.indexOf(null));
+        Assert.assertNull(identifierUtils.identifier(1));
+    }
+}
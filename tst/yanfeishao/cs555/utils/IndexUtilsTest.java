@@ -0,0 +1,206 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * The type Index utils test.
+ */
+public class IndexUtilsTest extends TestCases {
+
+    /**
+     * Index probe matches scan happy case.
+     */
+    @Test
+    public void indexProbeMatchesScanHappyCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        IndexUtils indexes = simpleDBUtils.getIndexes();
+        Assert.assertSame(indexes, simpleDBUtils.getIndexes());
+        for (int person = 0; person < simpleDBUtils.getPersonIndexSize(); person++) {
+            PersonEntity personEntity = simpleDBUtils.getPerson(person);
+            if (personEntity == null) {
+                continue;
+            }
+            String surname = IndexUtils.surname(personEntity.getName());
+            Assert.assertEquals(toList(scan(simpleDBUtils, other -> surname != null && surname.equals(IndexUtils.surname(other.getName())))), toList(indexes.getPersonsBySurname(surname)));
+            if (personEntity.getBirthDay() != CommonUtils.UNKNOWN_DAY) {
+                int year = LocalDate.ofEpochDay(personEntity.getBirthDay()).getYear();
+                Assert.assertEquals(toList(scan(simpleDBUtils, other -> other.getBirthDay() != CommonUtils.UNKNOWN_DAY && LocalDate.ofEpochDay(other.getBirthDay()).getYear() == year)), toList(indexes.getPersonsBornIn(year)));
+            }
+            if (personEntity.getDeathDay() != CommonUtils.UNKNOWN_DAY) {
+                int year = LocalDate.ofEpochDay(personEntity.getDeathDay()).getYear();
+                Assert.assertEquals(toList(scan(simpleDBUtils, other -> other.getDeathDay() != CommonUtils.UNKNOWN_DAY && LocalDate.ofEpochDay(other.getDeathDay()).getYear() == year)), toList(indexes.getPersonsDiedIn(year)));
+            }
+            List<Integer> spouseFamilies = new ArrayList<>();
+            List<Integer> childFamilies = new ArrayList<>();
+            for (int family = 0; family < simpleDBUtils.getFamilyIndexSize(); family++) {
+                FamilyEntity familyEntity = simpleDBUtils.getFamily(family);
+                if (familyEntity.getFatherIndex() == person || familyEntity.getMotherIndex() == person) {
+                    spouseFamilies.add(family);
+                }
+                for (int child : familyEntity.getChildIndices()) {
+                    if (child == person) {
+                        childFamilies.add(family);
+                    }
+                }
+            }
+            Assert.assertEquals(spouseFamilies, toList(indexes.getSpouseFamilies(person)));
+            Assert.assertEquals(childFamilies, toList(indexes.getChildFamilies(person)));
+            Assert.assertEquals(childFamilies.isEmpty() ? FamilyEntity.NO_PERSON : childFamilies.get(0).intValue(), indexes.getChildFamily(person));
+        }
+        Assert.assertEquals(0, indexes.getPersonsBySurname("Nobody").length);
+        Assert.assertEquals(0, indexes.getPersonsBornBetween(2000, 1900).length);
+        Assert.assertEquals(scan(simpleDBUtils, other -> other.getBirthDay() != CommonUtils.UNKNOWN_DAY).length, indexes.getPersonsBornBetween(Integer.MIN_VALUE, Integer.MAX_VALUE).length);
+    }
+
+    /**
+     * Index rebuilt on mutation case.
+     */
+    @Test
+    public void indexRebuiltOnMutationCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        IndexUtils indexes = simpleDBUtils.getIndexes();
+        int person = simpleDBUtils.getPersonIndex("@P1@");
+        String surname = IndexUtils.surname(simpleDBUtils.getPerson(person).getName());
+        Assert.assertTrue(toList(indexes.getPersonsBySurname(surname)).contains(person));
+        simpleDBUtils.getPersonDB().remove("@P1@");
+        Assert.assertNotSame(indexes, simpleDBUtils.getIndexes());
+        Assert.assertFalse(toList(simpleDBUtils.getIndexes().getPersonsBySurname(surname)).contains(person));
+    }
+
+    /**
+     * Index US36 probe case.
+     */
+    @Test
+    public void indexUS36ProbeCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        int recentDay = CommonUtils.toEpochDay(CommonUtils.getCurrentDate()) - 10;
+        PersonEntity spouseEntity = simpleDBUtils.getFamilyDB().get("@F1@").getFather();
+        spouseEntity.setDeathDay(recentDay);
+        simpleDBUtils.getPersonDB().put(spouseEntity.getIdentifier(), spouseEntity);
+        PersonEntity loneEntity = new PersonEntity();
+        loneEntity.setIdentifier("@P99@");
+        loneEntity.setName("Lone /Entry/");
+        loneEntity.setDeathDay(recentDay);
+        simpleDBUtils.getPersonDB().put(loneEntity.getIdentifier(), loneEntity);
+        Set<String> results = outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US36);
+        Assert.assertEquals(1, results.size());
+        Assert.assertTrue(results.iterator().next().contains(spouseEntity.getIdentifier()));
+    }
+
+    /**
+     * Index marital status matches scan happy case.
+     */
+    @Test
+    public void indexMaritalStatusMatchesScanHappyCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        IndexUtils indexes = simpleDBUtils.getIndexes();
+        for (int person = 0; person < simpleDBUtils.getPersonIndexSize(); person++) {
+            PersonEntity personEntity = simpleDBUtils.getPerson(person);
+            if (personEntity == null) {
+                continue;
+            }
+            boolean married = false;
+            boolean bereaved = false;
+            int current = 0;
+            for (int family = 0; family < simpleDBUtils.getFamilyIndexSize(); family++) {
+                FamilyEntity familyEntity = simpleDBUtils.getFamily(family);
+                int spouse = familyEntity.getFatherIndex() == person ? familyEntity.getMotherIndex() : familyEntity.getMotherIndex() == person ? familyEntity.getFatherIndex() : FamilyEntity.NO_PERSON - 1;
+                if (spouse == FamilyEntity.NO_PERSON - 1) {
+                    continue;
+                }
+                married = true;
+                PersonEntity spouseEntity = spouse == FamilyEntity.NO_PERSON ? null : simpleDBUtils.getPerson(spouse);
+                if (spouseEntity != null && familyEntity.getDivorceDay() == CommonUtils.UNKNOWN_DAY) {
+                    if (spouseEntity.getDeathDay() == CommonUtils.UNKNOWN_DAY) {
+                        current++;
+                    } else {
+                        bereaved = true;
+                    }
+                }
+            }
+            boolean living = personEntity.getDeathDay() == CommonUtils.UNKNOWN_DAY;
+            Assert.assertEquals(married, indexes.isEverMarried(person));
+            Assert.assertEquals(current, indexes.getCurrentSpouseCount(person));
+            Assert.assertEquals(living && !married, indexes.isLivingSingle(person));
+            Assert.assertEquals(living && current > 0, indexes.isLivingMarried(person));
+            Assert.assertEquals(living && current == 0 && bereaved, indexes.isWidowed(person));
+        }
+    }
+
+    /**
+     * Index marital status case.
+     */
+    @Test
+    public void indexMaritalStatusCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        FamilyEntity familyEntity = simpleDBUtils.getFamilyDB().get("@F1@");
+        int father = familyEntity.getFatherIndex();
+        int mother = familyEntity.getMotherIndex();
+        PersonEntity fatherEntity = familyEntity.getFather();
+        PersonEntity motherEntity = familyEntity.getMother();
+        fatherEntity.setDeathDay(CommonUtils.UNKNOWN_DAY);
+        motherEntity.setDeathDay(CommonUtils.UNKNOWN_DAY);
+        familyEntity.setDivorceDay(CommonUtils.UNKNOWN_DAY);
+        simpleDBUtils.getFamilyDB().put(familyEntity.getIdentifier(), familyEntity);
+        Assert.assertTrue(simpleDBUtils.getIndexes().isLivingMarried(mother));
+        fatherEntity.setDeathDay(CommonUtils.toEpochDay(CommonUtils.getCurrentDate()) - 10);
+        simpleDBUtils.getPersonDB().put(fatherEntity.getIdentifier(), fatherEntity);
+        IndexUtils indexes = simpleDBUtils.getIndexes();
+        Assert.assertFalse(indexes.isLivingSingle(father));
+        Assert.assertEquals(indexes.getCurrentSpouseCount(mother) == 0, indexes.isWidowed(mother));
+        familyEntity.setDivorceDay(CommonUtils.toEpochDay(CommonUtils.getCurrentDate()) - 1000);
+        simpleDBUtils.getFamilyDB().put(familyEntity.getIdentifier(), familyEntity);
+        Assert.assertTrue(simpleDBUtils.getIndexes().isEverMarried(mother));
+        Assert.assertFalse(simpleDBUtils.getIndexes().isWidowed(mother));
+    }
+
+    /**
+     * Index setter change case.
+     */
+    @Test
+    public void indexSetterChangeCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        FamilyEntity familyEntity = simpleDBUtils.getFamilyDB().get("@F1@");
+        int family = simpleDBUtils.getFamilyIndex("@F1@");
+        int wife = familyEntity.getMotherIndex();
+        int single = simpleDBUtils.getPersonIndex("@P17@");
+        int child = simpleDBUtils.getPersonIndex("@P19@");
+        Assert.assertTrue(simpleDBUtils.getIndexes().isLivingSingle(single));
+        Assert.assertTrue(outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US31).stream().anyMatch(result -> result.contains("@P17@")));
+        familyEntity.setMotherIndex(single);
+        Assert.assertTrue(toList(simpleDBUtils.getIndexes().getSpouseFamilies(single)).contains(family));
+        Assert.assertFalse(toList(simpleDBUtils.getIndexes().getSpouseFamilies(wife)).contains(family));
+        Assert.assertFalse(simpleDBUtils.getIndexes().isLivingSingle(single));
+        Assert.assertTrue(simpleDBUtils.getIndexes().isLivingMarried(single));
+        Assert.assertFalse(outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US31).stream().anyMatch(result -> result.contains("@P17@")));
+        familyEntity.getFather().setDeathDay(CommonUtils.toEpochDay(CommonUtils.getCurrentDate()) - 10);
+        Assert.assertTrue(simpleDBUtils.getIndexes().isWidowed(single));
+        familyEntity.addChild(child);
+        Assert.assertTrue(toList(simpleDBUtils.getIndexes().getChildFamilies(child)).contains(family));
+        Assert.assertTrue(toList(simpleDBUtils.getGraph().getParents(child)).contains(single));
+        Assert.assertTrue(simpleDBUtils.getAncestry().isAncestor(single, child));
+    }
+
+    private static int[] scan(SimpleDBUtils simpleDBUtils, Predicate<PersonEntity> predicate) {
+        return IntStream.range(0, simpleDBUtils.getPersonIndexSize()).filter(person -> simpleDBUtils.getPerson(person) != null && predicate.test(simpleDBUtils.getPerson(person))).toArray();
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>();
+        Arrays.stream(values).forEach(list::add);
+        return list;
+    }
+}
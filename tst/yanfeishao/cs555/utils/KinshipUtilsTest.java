@@ -0,0 +1,185 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.abstracts.TreeBuilder;
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.KinshipEntity;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The type Kinship utils test.
+ */
+public class KinshipUtilsTest extends TestCases {
+
+    /**
+     * Kinship matches brute force happy case.
+     */
+    @Test
+    public void kinshipMatchesBruteForceHappyCase() {
+        for (int seed = 0; seed < 3; seed++) {
+            SimpleDBUtils simpleDBUtils = createRandomTree(new Random(seed), 200, 140);
+            GraphUtils graph = simpleDBUtils.getGraph();
+            KinshipUtils kinship = KinshipUtils.createKinshipFactory(simpleDBUtils);
+            int personCount = simpleDBUtils.getPersonIndexSize();
+            int[][] generations = new int[personCount][];
+            for (int person = 0; person < personCount; person++) {
+                generations[person] = generationsAbove(graph, person, personCount);
+            }
+            for (int generationLimit : new int[]{KinshipUtils.SIBLING_GENERATIONS, KinshipUtils.FIRST_COUSIN_GENERATIONS, GraphUtils.ALL_GENERATIONS}) {
+                for (int person = 0; person < personCount; person++) {
+                    for (int other = 0; other < personCount; other++) {
+                        KinshipEntity expected = bruteForce(generations[person], generations[other], generationLimit);
+                        Assert.assertEquals(person + " " + other + " " + generationLimit, expected, kinship.relate(person, other, generationLimit));
+                    }
+                }
+            }
+            for (int person = 0; person < personCount; person++) {
+                KinshipEntity expected = bruteForce(generations[person], generations[0], GraphUtils.ALL_GENERATIONS);
+                Assert.assertEquals(expected == null ? FamilyEntity.NO_PERSON : expected.getCommonAncestor(), kinship.lowestCommonAncestor(person, 0));
+            }
+        }
+    }
+
+    /**
+     * Kinship cousins case.
+     */
+    @Test
+    public void kinshipCousinsCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 9; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 0, 0, 1, 2).addChild(3);
+        TreeBuilder.addFamily(simpleDBUtils, 1, 2, 4, 5);
+        TreeBuilder.addFamily(simpleDBUtils, 2, 6, 3, 7);
+        TreeBuilder.addFamily(simpleDBUtils, 3, 7, FamilyEntity.NO_PERSON, 8);
+        KinshipUtils kinship = KinshipUtils.createKinshipFactory(simpleDBUtils);
+        KinshipEntity siblings = kinship.relate(2, 3);
+        Assert.assertEquals(0, siblings.getCommonAncestor());
+        Assert.assertEquals(0, siblings.getCousinDegree());
+        KinshipEntity cousins = kinship.relate(5, 7);
+        Assert.assertEquals(0, cousins.getCommonAncestor());
+        Assert.assertEquals(1, cousins.getCousinDegree());
+        Assert.assertEquals(0, cousins.getRemoval());
+        KinshipEntity removed = kinship.relate(5, 8);
+        Assert.assertEquals(1, removed.getCousinDegree());
+        Assert.assertEquals(1, removed.getRemoval());
+        Assert.assertEquals(5, removed.getDegree());
+        KinshipEntity inLine = kinship.relate(8, 3);
+        Assert.assertEquals(3, inLine.getCommonAncestor());
+        Assert.assertEquals(-1, inLine.getCousinDegree());
+        Assert.assertEquals(2, inLine.getPersonGenerations());
+        Assert.assertNull(kinship.relate(5, 7, KinshipUtils.SIBLING_GENERATIONS));
+        Assert.assertNull(kinship.relate(4, 6));
+        Assert.assertEquals(new KinshipEntity(4, 0, 0), kinship.relate(4, 4));
+    }
+
+    /**
+     * Kinship relate spouses case.
+     */
+    @Test
+    public void kinshipRelateSpousesCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 8; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 0, 0, 1, 2).addChild(3);
+        TreeBuilder.addFamily(simpleDBUtils, 1, 2, 3, 4);
+        TreeBuilder.addFamily(simpleDBUtils, 2, 2, 5, 6);
+        TreeBuilder.addFamily(simpleDBUtils, 3, 4, 6, FamilyEntity.NO_PERSON);
+        TreeBuilder.addFamily(simpleDBUtils, 4, 7, FamilyEntity.NO_PERSON, FamilyEntity.NO_PERSON);
+        KinshipEntity[] kinships = KinshipUtils.createKinshipFactory(simpleDBUtils).relateSpouses(KinshipUtils.FIRST_COUSIN_GENERATIONS);
+        Assert.assertEquals(new KinshipEntity(0, 1, 1), kinships[1]);
+        Assert.assertEquals(new KinshipEntity(2, 1, 1), kinships[3]);
+        Assert.assertNull(kinships[0]);
+        Assert.assertNull(kinships[2]);
+        Assert.assertNull(kinships[4]);
+        Set<String> results = outputUtils.outputError(simpleDBUtils, ErrorCode.US18);
+        Assert.assertEquals(2, results.size());
+        Assert.assertTrue(outputUtils.outputError(simpleDBUtils, ErrorCode.US19).isEmpty());
+    }
+
+    /**
+     * Kinship US19 case.
+     */
+    @Test
+    public void kinshipUS19Case() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 8; person++) {
+            TreeBuilder.addPerson(simpleDBUtils, person);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 0, 0, 1, 2).addChild(3);
+        TreeBuilder.addFamily(simpleDBUtils, 1, 2, 4, 5);
+        TreeBuilder.addFamily(simpleDBUtils, 2, 6, 3, 7);
+        TreeBuilder.addFamily(simpleDBUtils, 3, 5, 7, FamilyEntity.NO_PERSON);
+        Set<String> results = outputUtils.outputError(simpleDBUtils, ErrorCode.US19);
+        Assert.assertEquals(1, results.size());
+        Assert.assertTrue(results.iterator().next().contains("[@F3@]"));
+        Assert.assertTrue(outputUtils.outputError(simpleDBUtils, ErrorCode.US18).isEmpty());
+    }
+
+    /**
+     * Kinship sample file case.
+     */
+    @Test
+    public void kinshipSampleFileCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        KinshipUtils kinship = KinshipUtils.createKinshipFactory(simpleDBUtils);
+        for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+            int[] children = familyEntity.getChildIndices();
+            for (int child : children) {
+                if (child != FamilyEntity.NO_PERSON && familyEntity.getFatherIndex() != FamilyEntity.NO_PERSON) {
+                    Assert.assertEquals(familyEntity.getFatherIndex(), kinship.lowestCommonAncestor(child, familyEntity.getFatherIndex()));
+                }
+            }
+        }
+        Assert.assertTrue(outputUtils.outputError(simpleDBUtils, ErrorCode.US18).isEmpty());
+        Assert.assertTrue(outputUtils.outputError(simpleDBUtils, ErrorCode.US19).isEmpty());
+    }
+
+    private static int[] generationsAbove(GraphUtils graph, int person, int personCount) {
+        int[] generations = new int[personCount];
+        Arrays.fill(generations, -1);
+        generations[person] = 0;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(person);
+        while (!queue.isEmpty()) {
+            int from = queue.poll();
+            for (int parent : graph.getParents(from)) {
+                if (generations[parent] == -1) {
+                    generations[parent] = generations[from] + 1;
+                    queue.add(parent);
+                }
+            }
+        }
+        return generations;
+    }
+
+    private static KinshipEntity bruteForce(int[] personGenerations, int[] otherGenerations, int generationLimit) {
+        KinshipEntity best = null;
+        for (int ancestor = 0; ancestor < personGenerations.length; ancestor++) {
+            int up = personGenerations[ancestor];
+            int down = otherGenerations[ancestor];
+            if (up == -1 || down == -1 || up > generationLimit || down > generationLimit) {
+                continue;
+            }
+            if (best == null || up + down < best.getDegree() || up + down == best.getDegree() && Math.max(up, down) < Math.max(best.getPersonGenerations(), best.getOtherGenerations())) {
+                best = new KinshipEntity(ancestor, up, down);
+            }
+        }
+        return best;
+    }
+
+    private static SimpleDBUtils createRandomTree(Random random, int persons, int families) {
+        return new TreeBuilder(random, persons, families).missingMothers(4).children(1, 3).childWindow(20).build();
+    }
+
+}
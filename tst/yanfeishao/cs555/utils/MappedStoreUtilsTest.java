@@ -0,0 +1,111 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * The type Mapped store utils test.
+ */
+public class MappedStoreUtilsTest extends TestCases {
+
+    private static final int SMALL_SEGMENT_SHIFT = 8;
+
+    /**
+     * Mapped store round trip happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void mappedStoreRoundTripHappyCase() throws IOException {
+        File file = File.createTempFile("store", ".gdb");
+        try {
+            SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+            MappedStoreUtils.createMappedStoreFactory(file.toPath(), SMALL_SEGMENT_SHIFT).write(simpleDBUtils);
+            SimpleDBUtils mappedDBUtils = MappedStoreUtils.createMappedStoreFactory(file.toPath(), SMALL_SEGMENT_SHIFT).open();
+            Assert.assertEquals(simpleDBUtils.getPersonDB(), mappedDBUtils.getPersonDB());
+            Assert.assertEquals(simpleDBUtils.getFamilyDB(), mappedDBUtils.getFamilyDB());
+            Assert.assertEquals(simpleDBUtils.getPersonDBList(), mappedDBUtils.getPersonDBList());
+            Assert.assertEquals(PERSON_EXPECTED_SIZE, mappedDBUtils.getPersonDBList().size());
+            Assert.assertEquals(FAMILY_EXPECTED_SIZE, mappedDBUtils.getFamilyDBList().size());
+            Assert.assertEquals(simpleDBUtils.getPersonIndex("@P28@"), mappedDBUtils.getPersonIndex("@P28@"));
+            Assert.assertEquals(simpleDBUtils.getPersonIndex(null), mappedDBUtils.getPersonIndex(null));
+            Assert.assertEquals(-1, mappedDBUtils.getPersonIndex("@P22@"));
+            for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+                FamilyEntity mappedEntity = mappedDBUtils.getFamilyDB().get(familyEntity.getIdentifier());
+                Assert.assertEquals(familyEntity.getFather(), mappedEntity.getFather());
+                Assert.assertEquals(familyEntity.getChildList(), mappedEntity.getChildList());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Mapped store renumber case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void mappedStoreRenumberCase() throws IOException {
+        File file = File.createTempFile("store", ".gdb");
+        try {
+            SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+            simpleDBUtils.getPersonDB().remove("@P1@");
+            MappedStoreUtils.createMappedStoreFactory(file.toPath()).write(simpleDBUtils);
+            SimpleDBUtils mappedDBUtils = MappedStoreUtils.createMappedStoreFactory(file.toPath()).open();
+            Assert.assertEquals(PERSON_EXPECTED_SIZE - 1, mappedDBUtils.getPersonIndexSize());
+            Assert.assertNull(mappedDBUtils.getPersonDB().get("@P1@"));
+            for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+                FamilyEntity mappedEntity = mappedDBUtils.getFamilyDB().get(familyEntity.getIdentifier());
+                Assert.assertEquals(familyEntity.getFather(), mappedEntity.getFather());
+                Assert.assertEquals(familyEntity.getMother(), mappedEntity.getMother());
+                Assert.assertEquals(familyEntity.getChildList(), mappedEntity.getChildList());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Mapped store read only case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test (expected = UnsupportedOperationException.class)
+    public void mappedStoreReadOnlyCase() throws IOException {
+        File file = File.createTempFile("store", ".gdb");
+        try {
+            MappedStoreUtils.createMappedStoreFactory(file.toPath()).write(parserUtils.readGEDCOM(FILE_PATH));
+            MappedStoreUtils.createMappedStoreFactory(file.toPath()).open().getPersonDB().put("@P99@", new PersonEntity());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Mapped store bad file case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test (expected = IOException.class)
+    public void mappedStoreBadFileCase() throws IOException {
+        File file = File.createTempFile("store", ".gdb");
+        try {
+            Files.write(file.toPath(), new byte[]{1, 2, 3});
+            MappedStoreUtils.createMappedStoreFactory(file.toPath()).open();
+        } finally {
+            file.delete();
+        }
+    }
+}
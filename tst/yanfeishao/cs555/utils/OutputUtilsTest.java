@@ -3,11 +3,18 @@ package yanfeishao.cs555.utils;
 import org.junit.Assert;
 import org.junit.Test;
 import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.abstracts.TreeBuilder;
 import yanfeishao.cs555.constant.ErrorCode;
 import yanfeishao.cs555.constant.ErrorInfo;
 import yanfeishao.cs555.constant.FormatterRegex;
-
-import java.util.HashSet;
+import yanfeishao.cs555.constant.KeywordsConstant;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -16,93 +23,93 @@ import java.util.Set;
 public class OutputUtilsTest extends TestCases {
 
     private Set<String> expectedUS01Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US01, ErrorCode.US01, "Death", "@F4@", "@P12@", "EdwinBurton/Hague/", "Jul-19-2019", CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
-        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US01, ErrorCode.US01, "Death", "@F10@", "@P26@", "Elizabeth/Ockers/", "Aug-13-2017", CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US01, ErrorCode.US01, "Death", "@F7@", "@P12@", "EdwinBurton/Hague/", "Jul-19-2019", CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US01, ErrorCode.US01, "Death", "@F10@", "@P26@", "Elizabeth/Ockers/", "Aug-13-2017", CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US01, ErrorCode.US01, "Death", "@F11@", "@P26@", "Elizabeth/Ockers/", "Aug-13-2017", CommonUtils.getFormattedDate(CommonUtils.getCurrentDate())));
         return expectedResult;
     }
 
     private Set<String> expectedUS02Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US02, ErrorCode.US02, "@F11@", "@P16@", "Inez/Youngster/", "Jun-04-1970", "Dec-25-1928"));
         return expectedResult;
     }
 
     private Set<String> expectedUS03Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US03, ErrorCode.US03, "@F5@", "@P16@", "Inez/Youngster/", "Jun-04-1970", "Dec-29-1966", "@P16@", "Inez/Youngster/", "Jun-04-1970"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US03, ErrorCode.US03, "@F11@", "@P16@", "Inez/Youngster/", "Jun-04-1970", "Dec-29-1966", "@P16@", "Inez/Youngster/", "Jun-04-1970"));
         return expectedResult;
     }
 
     private Set<String> expectedUS04Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US04, ErrorCode.US04, "Mar-15-1921", "Jun-20-1922", "@F8@"));
         return expectedResult;
     }
 
     private Set<String> expectedUS05Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US05, ErrorCode.US05, "@F9@", "Jun-10-1953", "@P15@", "John/Cook/", "May-17-1947"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US05, ErrorCode.US05, "@F10@", "Nov-06-1997", "@P28@", "KennethArvid/Lindfors/", "Dec-10-1995"));
         return expectedResult;
     }
 
     private Set<String> expectedUS06Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US06, ErrorCode.US06, "@P12@", "EdwinBurton/Hague/", "Nov-29-1906", "Jul-19-2019", "Sep-20-1972", "@F7@"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US06, ErrorCode.US06, "@P28@", "KennethArvid/Lindfors/", "May-20-1935", "Dec-10-1995", "May-09-2001", "@F10@"));
         return expectedResult;
     }
 
     private Set<String> expectedUS08Result() {
-        Set<String> expectedResult = new HashSet<>();
-        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, ErrorCode.US08, "@P15@", "John/Cook/", "Dec-26-1922", "after", "divorce", "Mar-15-1921", "@F8@"));
-        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, ErrorCode.US08, "@P24@", "John/Cook/Jr", "Feb-08-1952", "before", "marriage", "Jun-10-1953", "@F9@"));
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, ErrorCode.US08, "@P1@", "EdwinWilliam/Hague/", "Jan-21-1933", "before", "marriage", "Jun-12-1933", "@F2@"));
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, ErrorCode.US08, "@P15@", "John/Cook/", "Dec-26-1922", "after", "divorce", "Mar-15-1921", "@F8@"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, ErrorCode.US08, "@P14@", "Jillian/Cook/", "Oct-15-1924", "after", "divorce", "Mar-15-1921", "@F8@"));
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US08, ErrorCode.US08, "@P24@", "John/Cook/Jr", "Feb-08-1952", "before", "marriage", "Jun-10-1953", "@F9@"));
         return expectedResult;
     }
 
     private Set<String> expectedUS09Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US09, ErrorCode.US09, "@P16@", "Inez/Youngster/", "Jun-04-1970", "@F5@", "@P9@", "Apr-11-1963"));
         return expectedResult;
     }
 
     private Set<String> expectedUS12Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US12, ErrorCode.US12, "Mother", "@P9@", "Elizabeth/VanHaste/", "Sep-10-1880", "60", "her", "@P16@", "Inez/Youngster/", "Jun-04-1970", "@F5@"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US12, ErrorCode.US12, "Mother", "@P14@", "Jillian/Cook/", "Oct-15-1924", "60", "her", "@P20@", "Elisabeth/Elsasser/", "May-30-1989", "@F12@"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US12, ErrorCode.US12, "Mother", "@P14@", "Jillian/Cook/", "Oct-15-1924", "60", "her", "@P19@", "John/Elsaesser/", "Oct-29-1992", "@F12@"));
-        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US12, ErrorCode.US12, "Mother", "@P9@", "Elizabeth/VanHaste/", "Sep-10-1880", "60", "her", "@P16@", "Inez/Youngster/", "Jun-04-1970", "@F5@"));
         return expectedResult;
     }
 
     private Set<String> expectedUS10Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US10, ErrorCode.US10, "Jun-12-1933", "@F2@", "@P3@", "VernaMay/Youngster/", "13", "@P2@", "EdwinBurton/Hague/", "26"));
-        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US10, ErrorCode.US10, "Dec-25-1928", "@F11@", "@P16@", "Inez/Youngster/", "-41", "@P25@", "EdwardMorris/Ockers/", "25"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US10, ErrorCode.US10, "Nov-22-1924", "@F7@", "@P18@", "Barbara/Fritschi/", "8", "@P12@", "EdwinBurton/Hague/", "17"));
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US10, ErrorCode.US10, "Dec-25-1928", "@F11@", "@P16@", "Inez/Youngster/", "-41", "@P25@", "EdwardMorris/Ockers/", "25"));
         return expectedResult;
     }
 
     private Set<String> expectedUS16Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US16, ErrorCode.US16, "@P19@", "John/Elsaesser/", "@F12@", "Jakob/Elsasser/"));
         return expectedResult;
     }
 
     private Set<String> expectedUS21Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US21, ErrorCode.US21, "@F4@", "Husband", "Female", "@P5@", "WilliamHenry/Hague/", "F", "@P6@", "Ursula/Braddock/", "F"));
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US21, ErrorCode.US21, "@F7@", "Wife", "Male", "@P12@", "EdwinBurton/Hague/", "M", "@P18@", "Barbara/Fritschi/", "M"));
         return expectedResult;
     }
 
     private Set<String> expectedUS25Result() {
-        Set<String> expectedResult = new HashSet<>();
+        Set<String> expectedResult = new LinkedHashSet<>();
         expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US25, ErrorCode.US25, "@P2@", "EdwinBurton/Hague/", "Nov-29-1906", "@P12@", "EdwinBurton/Hague/", "Nov-29-1906", "@F4@"));
         return expectedResult;
     }
@@ -268,6 +275,29 @@ public class OutputUtilsTest extends TestCases {
         Assert.assertEquals(US31_EXPECTED_SIZE, outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US31).size());
     }
 
+    /**
+     * Parse us 31 living single case test.
+     */
+    @Test
+    public void parseUS31LivingSingleCaseTest() {
+        int today = CommonUtils.toEpochDay(CommonUtils.getCurrentDate());
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (int person = 0; person < 7; person++) {
+            PersonEntity personEntity = TreeBuilder.addPerson(simpleDBUtils, person);
+            personEntity.setBirthDay(today - (person == 5 ? 20 : 40) * 366);
+            if (person == 3) {
+                personEntity.setDeathDay(today - 100);
+            }
+        }
+        for (int child = 2; child < 6; child++) {
+            TreeBuilder.addFamily(simpleDBUtils, child - 2, 0, 1, child);
+        }
+        TreeBuilder.addFamily(simpleDBUtils, 4, 4, 6, FamilyEntity.NO_PERSON);
+        Set<String> results = outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US31);
+        Assert.assertEquals(1, results.size());
+        Assert.assertTrue(results.iterator().next().contains("@P2@"));
+    }
+
     /**
      * Parse us 33 case test.
      */
@@ -278,5 +308,32 @@ public class OutputUtilsTest extends TestCases {
         Assert.assertEquals(US33_EXPECTED_SIZE, outputUtils.outputSpecialConditionResult(simpleDBUtils, ErrorCode.US33).size());
     }
 
+    /**
+     * Output result identifier case test.
+     *
+     * @throws UnsupportedEncodingException
+     *         the unsupported encoding exception
+     */
+    @Test
+    public void outputResultIdentifierCaseTest() throws UnsupportedEncodingException {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        Assert.assertTrue(simpleDBUtils.getPersonDBList().stream().map(PersonEntity::getIdentifier).anyMatch(identifier -> identifier == null));
+        ByteArrayOutputStream table = new ByteArrayOutputStream();
+        LogUtils.redirect(new PrintStream(table, true, "UTF-8"));
+        try {
+            outputUtils.outputResult(simpleDBUtils, KeywordsConstant.INDI);
+            outputUtils.outputResult(simpleDBUtils, KeywordsConstant.FAM);
+        } finally {
+            LogUtils.reset();
+        }
+        int rows = 0;
+        for (String line : table.toString("UTF-8").split("\n")) {
+            if (line.startsWith(KeywordsConstant.INFO + "@")) {
+                rows++;
+            }
+            Assert.assertFalse(line, line.startsWith(KeywordsConstant.INFO + "null "));
+        }
+        Assert.assertEquals(simpleDBUtils.getPersonDBList().size() - 1 + simpleDBUtils.getFamilyDBList().size(), rows);
+    }
 }
 
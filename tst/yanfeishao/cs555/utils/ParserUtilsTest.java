@@ -3,6 +3,18 @@ package yanfeishao.cs555.utils;
 import junit.framework.Assert;
 import org.junit.Test;
 import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.enums.InputMode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Created by JackieDreamy on 2015.
@@ -27,4 +39,81 @@ public class ParserUtilsTest extends TestCases {
         Assert.assertEquals(PERSON_EXPECTED_SIZE, simpleDBUtils.getPersonDBList().size());
         Assert.assertEquals(FAMILY_EXPECTED_SIZE, simpleDBUtils.getFamilyDBList().size());
     }
+
+    /**
+     * Parser read parallel happy case.
+     */
+    @Test
+    public void parserReadParallelHappyCase() {
+        SimpleDBUtils sequentialDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        SimpleDBUtils parallelDBUtils = parserUtils.readGEDCOM(FILE_PATH, PARALLELISM, CHUNK_SIZE);
+        Assert.assertNotNull(parallelDBUtils);
+        Assert.assertEquals(sequentialDBUtils.getPersonDB(), parallelDBUtils.getPersonDB());
+        Assert.assertEquals(sequentialDBUtils.getFamilyDB(), parallelDBUtils.getFamilyDB());
+        Assert.assertEquals(PERSON_EXPECTED_SIZE, parallelDBUtils.getPersonDBList().size());
+        Assert.assertEquals(FAMILY_EXPECTED_SIZE, parallelDBUtils.getFamilyDBList().size());
+    }
+
+    /**
+     * Parser read mapped happy case.
+     */
+    @Test
+    public void parserReadMappedHappyCase() {
+        SimpleDBUtils sequentialDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        SimpleDBUtils mappedDBUtils = parserUtils.readGEDCOM(FILE_PATH, InputMode.MAPPED);
+        Assert.assertNotNull(mappedDBUtils);
+        Assert.assertEquals(sequentialDBUtils.getPersonDB(), mappedDBUtils.getPersonDB());
+        Assert.assertEquals(sequentialDBUtils.getFamilyDB(), mappedDBUtils.getFamilyDB());
+    }
+
+    /**
+     * Parser read gzip happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void parserReadGzipHappyCase() throws IOException {
+        File file = File.createTempFile("data", ".ged.gz");
+        try {
+            try (OutputStream outputStream = new GZIPOutputStream(new FileOutputStream(file))) {
+                Files.copy(Paths.get(FILE_PATH), outputStream);
+            }
+            SimpleDBUtils sequentialDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+            SimpleDBUtils gzipDBUtils = parserUtils.readGEDCOM(file.getPath(), PARALLELISM);
+            Assert.assertNotNull(gzipDBUtils);
+            Assert.assertEquals(sequentialDBUtils.getPersonDB(), gzipDBUtils.getPersonDB());
+            Assert.assertEquals(sequentialDBUtils.getFamilyDB(), gzipDBUtils.getFamilyDB());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Parser read zip bundle happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void parserReadZipBundleHappyCase() throws IOException {
+        File file = File.createTempFile("data", ".zip");
+        try {
+            try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(file))) {
+                for (String name : new String[]{"first.ged", "second.ged"}) {
+                    outputStream.putNextEntry(new ZipEntry(name));
+                    Files.copy(Paths.get(FILE_PATH), outputStream);
+                    outputStream.closeEntry();
+                }
+            }
+            List<SimpleDBUtils> simpleDBUtilsList = parserUtils.readGEDCOMBundle(file.getPath());
+            Assert.assertEquals(2, simpleDBUtilsList.size());
+            for (SimpleDBUtils simpleDBUtils : simpleDBUtilsList) {
+                Assert.assertEquals(PERSON_EXPECTED_SIZE, simpleDBUtils.getPersonDBList().size());
+                Assert.assertEquals(FAMILY_EXPECTED_SIZE, simpleDBUtils.getFamilyDBList().size());
+            }
+        } finally {
+            file.delete();
+        }
+    }
 }
@@ -0,0 +1,292 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.abstracts.TreeBuilder;
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.constant.ErrorInfo;
+import yanfeishao.cs555.constant.FormatterRegex;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.RuleCostEntity;
+import yanfeishao.cs555.enums.RecordType;
+import yanfeishao.cs555.enums.RuleAttribute;
+import yanfeishao.cs555.enums.RuleCategory;
+import yanfeishao.cs555.enums.RuleScope;
+import yanfeishao.cs555.rule.Rule;
+import yanfeishao.cs555.rule.RuleContext;
+import yanfeishao.cs555.rule.RuleProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The type Rule engine utils test.
+ */
+public class RuleEngineUtilsTest extends TestCases {
+
+    /**
+     * The number of findings of every rule that does not compare with the current date.
+     */
+    private Map<String, Integer> expectedResultSizes() {
+        Map<String, Integer> expectedSizes = new LinkedHashMap<>();
+        expectedSizes.put(ErrorCode.US29, 18);
+        expectedSizes.put(ErrorCode.US30, 1);
+        expectedSizes.put(ErrorCode.US33, 1);
+        expectedSizes.put(ErrorCode.US02, 1);
+        expectedSizes.put(ErrorCode.US03, 2);
+        expectedSizes.put(ErrorCode.US04, 1);
+        expectedSizes.put(ErrorCode.US05, 2);
+        expectedSizes.put(ErrorCode.US06, 2);
+        expectedSizes.put(ErrorCode.US08, 4);
+        expectedSizes.put(ErrorCode.US09, 1);
+        expectedSizes.put(ErrorCode.US10, 3);
+        expectedSizes.put(ErrorCode.US12, 3);
+        expectedSizes.put(ErrorCode.US16, 1);
+        expectedSizes.put(ErrorCode.US17, 0);
+        expectedSizes.put(ErrorCode.US18, 0);
+        expectedSizes.put(ErrorCode.US19, 0);
+        expectedSizes.put(ErrorCode.US21, 2);
+        expectedSizes.put(ErrorCode.US25, 1);
+        return expectedSizes;
+    }
+
+    private Set<String> expectedUS05Result() {
+        Set<String> expectedResult = new LinkedHashSet<>();
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US05, ErrorCode.US05, "@F9@", "Jun-10-1953", "@P15@", "John/Cook/", "May-17-1947"));
+        expectedResult.add(String.format(FormatterRegex.ERROR_PERSON + ErrorInfo.US05, ErrorCode.US05, "@F10@", "Nov-06-1997", "@P28@", "KennethArvid/Lindfors/", "Dec-10-1995"));
+        return expectedResult;
+    }
+
+    /**
+     * Rule engine finds expected results happy case.
+     */
+    @Test
+    public void ruleEngineFindsExpectedResultsHappyCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        RuleEngineUtils ruleEngineUtils = RuleEngineUtils.createRuleEngineFactory();
+        Map<String, Set<String>> results = ruleEngineUtils.evaluate(simpleDBUtils);
+        Assert.assertEquals(ruleEngineUtils.getRules().size(), results.size());
+        expectedResultSizes().forEach((rule, size) -> Assert.assertEquals(rule, size.intValue(), results.get(rule).size()));
+        Assert.assertEquals(Arrays.asList(expectedUS05Result().toArray()), Arrays.asList(results.get(ErrorCode.US05).toArray()));
+    }
+
+    /**
+     * Rule engine record types case.
+     */
+    @Test
+    public void ruleEngineRecordTypesCase() {
+        for (Rule rule : RuleEngineUtils.createRuleEngineFactory().getRules()) {
+            boolean person = rule.getAttributes().stream().anyMatch(attribute -> attribute != RuleAttribute.MARRIAGE && attribute != RuleAttribute.DIVORCE && attribute != RuleAttribute.SPOUSES && attribute != RuleAttribute.CHILDREN);
+            Assert.assertEquals(rule.getCode(), person ? EnumSet.of(RecordType.PERSON, RecordType.FAMILY) : EnumSet.of(RecordType.FAMILY), rule.getRecordTypes());
+        }
+        Assert.assertEquals(EnumSet.of(RecordType.FAMILY), RuleEngineUtils.createRuleEngineFactory(Collections.singletonList(ErrorCode.US04)).getRules().get(0).getRecordTypes());
+    }
+
+    /**
+     * Rule engine keeps rule order case.
+     */
+    @Test
+    public void ruleEngineKeepsRuleOrderCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        Map<String, Set<String>> results = RuleEngineUtils.createRuleEngineFactory(Arrays.asList(ErrorCode.US16, ErrorCode.US02, ErrorCode.US16, ErrorCode.US35)).evaluate(simpleDBUtils);
+        Assert.assertEquals(Arrays.asList(ErrorCode.US16, ErrorCode.US02, ErrorCode.US35), Arrays.asList(results.keySet().toArray()));
+        Assert.assertTrue(results.get(ErrorCode.US35).isEmpty());
+        Assert.assertEquals(outputUtils.outputError(simpleDBUtils, ErrorCode.US02), results.get(ErrorCode.US02));
+    }
+
+    /**
+     * Rule engine parallel matches sequential case.
+     */
+    @Test
+    public void ruleEngineParallelMatchesSequentialCase() {
+        SimpleDBUtils simpleDBUtils = createRandomTree(new Random(7), 6000, 5000);
+        List<String> rules = getCodes(RuleEngineUtils.createRuleEngineFactory(), RuleCategory.ERROR);
+        rules.add(ErrorCode.US29);
+        rules.add(ErrorCode.US31);
+        rules.add(ErrorCode.US33);
+        Map<String, Set<String>> sequential = RuleEngineUtils.createRuleEngineFactory(rules).evaluate(simpleDBUtils);
+        Map<String, Set<String>> parallel = RuleEngineUtils.createRuleEngineFactory(rules).evaluate(simpleDBUtils, 4);
+        Assert.assertEquals(new ArrayList<>(sequential.keySet()), new ArrayList<>(parallel.keySet()));
+        for (String rule : sequential.keySet()) {
+            Assert.assertEquals(rule, new ArrayList<>(sequential.get(rule)), new ArrayList<>(parallel.get(rule)));
+        }
+        Assert.assertFalse(parallel.get(ErrorCode.US02).isEmpty());
+        Assert.assertFalse(parallel.get(ErrorCode.US18).isEmpty());
+        Assert.assertFalse(parallel.get(ErrorCode.US31).isEmpty());
+    }
+
+    /**
+     * Rule engine counts rule costs case.
+     */
+    @Test
+    public void ruleEngineCountsRuleCostsCase() {
+        SimpleDBUtils simpleDBUtils = createRandomTree(new Random(11), 3000, 2500);
+        RuleEngineUtils ruleEngineUtils = RuleEngineUtils.createRuleEngineFactory(Arrays.asList(ErrorCode.US02, ErrorCode.US16, ErrorCode.US36));
+        ruleEngineUtils.evaluate(simpleDBUtils, 4);
+        ruleEngineUtils.evaluate(simpleDBUtils);
+        List<RuleCostEntity> costs = ruleEngineUtils.getCosts();
+        Assert.assertEquals(Arrays.asList(ErrorCode.US36, ErrorCode.US02, ErrorCode.US16), costs.stream().map(RuleCostEntity::getCode).collect(Collectors.toList()));
+        Assert.assertEquals(2, costs.get(0).getEvaluations());
+        Assert.assertEquals(2 * simpleDBUtils.getFamilyDB().size(), costs.get(1).getEvaluations());
+        Assert.assertEquals(2 * simpleDBUtils.getFamilyDB().size(), costs.get(2).getEvaluations());
+        Assert.assertTrue(costs.get(1).getNanos() > 0);
+    }
+
+    /**
+     * Rule engine loads registered rules case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void ruleEngineLoadsRegisteredRulesCase() throws IOException {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        Path directory = createServices(ChildlessRuleProvider.class);
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            RuleEngineUtils ruleEngineUtils = RuleEngineUtils.createRuleEngineFactory(classLoader);
+            List<Rule> rules = ruleEngineUtils.getRules();
+            Assert.assertEquals(new CoreRuleProvider().getRules().size() + 1, rules.size());
+            Assert.assertEquals(ChildlessRuleProvider.CODE, rules.get(rules.size() - 1).getCode());
+            Map<String, Set<String>> results = ruleEngineUtils.evaluate(simpleDBUtils);
+            long childless = simpleDBUtils.getFamilyDBList().stream().filter(familyEntity -> familyEntity.getChildList().isEmpty()).count();
+            Assert.assertEquals(childless, results.get(ChildlessRuleProvider.CODE).size());
+            Assert.assertEquals(outputUtils.outputError(simpleDBUtils, ErrorCode.US02), results.get(ErrorCode.US02));
+        } finally {
+            deleteServices(directory);
+        }
+    }
+
+    /**
+     * Rule engine rejects duplicate rule case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void ruleEngineRejectsDuplicateRuleCase() throws IOException {
+        Path directory = createServices(DuplicateRuleProvider.class);
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader())) {
+            RuleEngineUtils.createRuleEngineFactory(classLoader);
+            Assert.fail();
+        } catch (IllegalStateException ise) {
+            Assert.assertTrue(ise.getMessage().contains(ErrorCode.US02));
+        } finally {
+            deleteServices(directory);
+        }
+    }
+
+    private static List<String> getCodes(RuleEngineUtils ruleEngineUtils, RuleCategory ruleCategory) {
+        return ruleEngineUtils.getRules().stream().filter(rule -> rule.getCategory() == ruleCategory).map(Rule::getCode).collect(Collectors.toList());
+    }
+
+    private static Path createServices(Class<? extends RuleProvider> ruleProvider) throws IOException {
+        Path directory = Files.createTempDirectory("rules");
+        Path services = directory.resolve("META-INF").resolve("services");
+        Files.createDirectories(services);
+        Files.write(services.resolve(RuleProvider.class.getName()), Collections.singletonList(ruleProvider.getName()), StandardCharsets.UTF_8);
+        return directory;
+    }
+
+    private static void deleteServices(Path directory) throws IOException {
+        Path services = directory.resolve("META-INF").resolve("services");
+        Files.deleteIfExists(services.resolve(RuleProvider.class.getName()));
+        Files.deleteIfExists(services);
+        Files.deleteIfExists(services.getParent());
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * An in house rule registered from outside the project: every family without children.
+     */
+    public static class ChildlessRuleProvider implements RuleProvider {
+
+        /**
+         * The constant CODE.
+         */
+        public static final String CODE = "IH01";
+
+        @Override
+        public List<Rule> getRules() {
+            return Collections.singletonList(new TestRule(CODE) {
+                @Override
+                public void evaluate(RuleContext ruleContext, int family, FamilyEntity familyEntity, Set<String> results) {
+                    if (familyEntity.getChildList().isEmpty()) {
+                        results.add(String.format("%s: Family %s has no children", CODE, familyEntity.getIdentifier()));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * A provider registering a rule under a code the core rules already use.
+     */
+    public static class DuplicateRuleProvider implements RuleProvider {
+
+        @Override
+        public List<Rule> getRules() {
+            return Collections.singletonList(new TestRule(ErrorCode.US02));
+        }
+    }
+
+    private static class TestRule implements Rule {
+        private final String code;
+
+        private TestRule(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+
+        @Override
+        public RuleCategory getCategory() {
+            return RuleCategory.ERROR;
+        }
+
+        @Override
+        public RuleScope getScope() {
+            return RuleScope.FAMILY;
+        }
+
+        @Override
+        public Set<RecordType> getRecordTypes() {
+            return EnumSet.of(RecordType.FAMILY);
+        }
+
+        @Override
+        public Set<RuleAttribute> getAttributes() {
+            return EnumSet.of(RuleAttribute.CHILDREN);
+        }
+    }
+
+    private static SimpleDBUtils createRandomTree(Random random, int persons, int families) {
+        return new TreeBuilder(random, persons, families).children(0, 3).childWindow(40).persons((treeRandom, person, personEntity) -> {
+            personEntity.setName("Person" + person + " /Line" + treeRandom.nextInt(50) + "/");
+            personEntity.setSex(treeRandom.nextBoolean() ? "M" : "F");
+            personEntity.setBirthDay(person * 5 + treeRandom.nextInt(3000));
+            if (treeRandom.nextInt(3) == 0) {
+                personEntity.setDeathDay(personEntity.getBirthDay() + treeRandom.nextInt(30000));
+            }
+        }).families((treeRandom, family, familyEntity) -> familyEntity.setMarriedDay(Math.max(familyEntity.getFatherIndex(), familyEntity.getMotherIndex()) * 5 + treeRandom.nextInt(8000))).build();
+    }
+}
@@ -0,0 +1,216 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.constant.ErrorCode;
+import yanfeishao.cs555.entities.FamilyEntity;
+import yanfeishao.cs555.entities.PersonEntity;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The type Simple db utils test.
+ */
+public class SimpleDBUtilsTest extends TestCases {
+
+    /**
+     * Person db list non sequential case.
+     */
+    @Test
+    public void personDBListNonSequentialCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        for (String identifier : new String[]{"@P7@", "@I100@", "@P2@"}) {
+            PersonEntity personEntity = new PersonEntity();
+            personEntity.setIdentifier(identifier);
+            simpleDBUtils.getPersonDB().put(identifier, personEntity);
+        }
+        List<PersonEntity> personDBList = simpleDBUtils.getPersonDBList();
+        Assert.assertEquals(3, personDBList.size());
+        Assert.assertEquals("@P7@", personDBList.get(0).getIdentifier());
+        Assert.assertEquals("@I100@", personDBList.get(1).getIdentifier());
+        Assert.assertEquals("@P2@", personDBList.get(2).getIdentifier());
+    }
+
+    /**
+     * Family db list cached case.
+     */
+    @Test
+    public void familyDBListCachedCase() {
+        SimpleDBUtils simpleDBUtils = SimpleDBUtils.createDBFactory();
+        simpleDBUtils.getFamilyDB().put("@F1@", new FamilyEntity());
+        List<FamilyEntity> familyDBList = simpleDBUtils.getFamilyDBList();
+        Assert.assertSame(familyDBList, simpleDBUtils.getFamilyDBList());
+        simpleDBUtils.getFamilyDB().put("@F3@", new FamilyEntity());
+        Assert.assertNotSame(familyDBList, simpleDBUtils.getFamilyDBList());
+        Assert.assertEquals(1, familyDBList.size());
+        Assert.assertEquals(2, simpleDBUtils.getFamilyDBList().size());
+    }
+
+    /**
+     * Person db list read only case.
+     */
+    @Test (expected = UnsupportedOperationException.class)
+    public void personDBListReadOnlyCase() {
+        SimpleDBUtils.createDBFactory().getPersonDBList().add(new PersonEntity());
+    }
+
+    /**
+     * Person index happy case.
+     */
+    @Test
+    public void personIndexHappyCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        int index = simpleDBUtils.getPersonIndex("@P7@");
+        Assert.assertEquals(6, index);
+        Assert.assertEquals("@P7@", simpleDBUtils.getPersonIdentifier(index));
+        Assert.assertSame(simpleDBUtils.getPersonDB().get("@P7@"), simpleDBUtils.getPerson(index));
+        Assert.assertEquals(-1, simpleDBUtils.getPersonIndex("@P22@"));
+        Assert.assertEquals(0, simpleDBUtils.getFamilyIndex("@F1@"));
+        Assert.assertSame(simpleDBUtils.getFamilyDB().get("@F1@"), simpleDBUtils.getFamily(0));
+        simpleDBUtils.getPersonDB().remove("@P7@");
+        Assert.assertEquals(-1, simpleDBUtils.getPersonIndex("@P7@"));
+        Assert.assertNull(simpleDBUtils.getPerson(index));
+        Assert.assertEquals(PERSON_EXPECTED_SIZE - 1, simpleDBUtils.getPersonDBList().size());
+    }
+
+    /**
+     * Freeze happy case.
+     */
+    @Test
+    public void freezeHappyCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        simpleDBUtils.getPersonDB().remove("@P7@");
+        SimpleDBUtils frozenDBUtils = simpleDBUtils.freeze();
+        Assert.assertTrue(frozenDBUtils.isFrozen());
+        Assert.assertFalse(simpleDBUtils.isFrozen());
+        Assert.assertSame(frozenDBUtils, frozenDBUtils.freeze());
+        Assert.assertEquals(simpleDBUtils.getPersonDB(), frozenDBUtils.getPersonDB());
+        Assert.assertEquals(simpleDBUtils.getFamilyDB(), frozenDBUtils.getFamilyDB());
+        Assert.assertEquals(simpleDBUtils.getPersonDBList(), frozenDBUtils.getPersonDBList());
+        Assert.assertEquals(simpleDBUtils.getPersonIndexSize(), frozenDBUtils.getPersonIndexSize());
+        Assert.assertEquals(simpleDBUtils.getPersonIndex("@P8@"), frozenDBUtils.getPersonIndex("@P8@"));
+        Assert.assertEquals(-1, frozenDBUtils.getPersonIndex("@P7@"));
+        for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+            FamilyEntity frozenEntity = frozenDBUtils.getFamilyDB().get(familyEntity.getIdentifier());
+            Assert.assertEquals(familyEntity.getFather(), frozenEntity.getFather());
+            Assert.assertEquals(familyEntity.getChildList(), frozenEntity.getChildList());
+        }
+        for (String prefix : new String[]{ErrorCode.US02, ErrorCode.US16, ErrorCode.US21, ErrorCode.US25}) {
+            Assert.assertEquals(prefix, outputUtils.outputError(simpleDBUtils, prefix), outputUtils.outputError(frozenDBUtils, prefix));
+        }
+        simpleDBUtils.getPersonDB().get("@P8@").setName("Changed /Name/");
+        Assert.assertFalse("Changed /Name/".equals(frozenDBUtils.getPersonDB().get("@P8@").getName()));
+    }
+
+    /**
+     * Freeze read only case.
+     */
+    @Test
+    public void freezeReadOnlyCase() {
+        SimpleDBUtils frozenDBUtils = parserUtils.readGEDCOM(FILE_PATH).freeze();
+        PersonEntity personEntity = frozenDBUtils.getPersonDB().get("@P1@");
+        FamilyEntity familyEntity = frozenDBUtils.getFamilyDB().get("@F1@");
+        Runnable[] writers = {
+                () -> frozenDBUtils.getPersonDB().put("@P99@", new PersonEntity()),
+                () -> frozenDBUtils.getPersonDB().remove("@P1@"),
+                () -> frozenDBUtils.getFamilyDB().clear(),
+                () -> frozenDBUtils.getPersonDB().entrySet().iterator().remove(),
+                () -> personEntity.setName("Changed /Name/"),
+                () -> personEntity.setSex("F"),
+                () -> personEntity.setBirthDate(CommonUtils.getCurrentDate()),
+                () -> familyEntity.setFatherIndex(0),
+                () -> familyEntity.addChild(0),
+                () -> familyEntity.setMarriedDate(CommonUtils.getCurrentDate())
+        };
+        for (Runnable writer : writers) {
+            try {
+                writer.run();
+                Assert.fail();
+            } catch (UnsupportedOperationException | IllegalStateException e) {
+                Assert.assertTrue(frozenDBUtils.isFrozen());
+            }
+        }
+        FamilyEntity parentEntity = frozenDBUtils.getFamilyDBList().stream().filter(entity -> !entity.getChildList().isEmpty()).findFirst().get();
+        parentEntity.getChildIndices()[0] = FamilyEntity.NO_PERSON;
+        Assert.assertNotNull(parentEntity.getChildList().get(0));
+        Assert.assertEquals(PERSON_EXPECTED_SIZE, frozenDBUtils.getPersonDBList().size());
+    }
+
+    /**
+     * Thaw happy case.
+     */
+    @Test
+    public void thawHappyCase() {
+        SimpleDBUtils frozenDBUtils = parserUtils.readGEDCOM(FILE_PATH).freeze();
+        SimpleDBUtils draftDBUtils = frozenDBUtils.thaw();
+        Assert.assertFalse(draftDBUtils.isFrozen());
+        Assert.assertEquals(frozenDBUtils.getPersonDB(), draftDBUtils.getPersonDB());
+        Assert.assertEquals(frozenDBUtils.getFamilyDB(), draftDBUtils.getFamilyDB());
+        Assert.assertEquals(frozenDBUtils.getPersonIndex(null), draftDBUtils.getPersonIndex(null));
+        draftDBUtils.getPersonDB().get("@P1@").setName("Changed /Name/");
+        draftDBUtils.getPersonDB().remove("@P2@");
+        draftDBUtils.getFamilyDB().get("@F1@").addChild(draftDBUtils.getPersonIndex("@P3@"));
+        Assert.assertEquals(PERSON_EXPECTED_SIZE, frozenDBUtils.getPersonDBList().size());
+        Assert.assertFalse("Changed /Name/".equals(frozenDBUtils.getPersonDB().get("@P1@").getName()));
+        Assert.assertEquals(frozenDBUtils.getFamilyDB().get("@F1@").getChildList().size() + 1, draftDBUtils.getFamilyDB().get("@F1@").getChildList().size());
+        Assert.assertSame(draftDBUtils.getPersonDB().get("@P3@"), draftDBUtils.getFamilyDB().get("@F1@").getChildList().get(draftDBUtils.getFamilyDB().get("@F1@").getChildList().size() - 1));
+    }
+
+    /**
+     * Family entity unlinked case.
+     */
+    @Test
+    public void familyEntityUnlinkedCase() {
+        FamilyEntity familyEntity = new FamilyEntity();
+        familyEntity.setFatherIndex(0);
+        familyEntity.addChild(1);
+        familyEntity.setMother(null);
+        Assert.assertNull(familyEntity.getFather());
+        Assert.assertNull(familyEntity.getMother());
+        Assert.assertTrue(familyEntity.getChildList().isEmpty());
+        Assert.assertEquals(0, familyEntity.getFatherIndex());
+    }
+
+    /**
+     * Family entity unlinked setter case.
+     */
+    @Test (expected = IllegalStateException.class)
+    public void familyEntityUnlinkedSetterCase() {
+        PersonEntity father = new PersonEntity();
+        father.setIdentifier("@P1@");
+        new FamilyEntity().setFather(father);
+    }
+
+    /**
+     * Family entity unknown individual case.
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void familyEntityUnknownIndividualCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        PersonEntity stranger = new PersonEntity();
+        stranger.setIdentifier("@P99@");
+        simpleDBUtils.getFamilyDB().get("@F1@").setChildList(Collections.singletonList(stranger));
+    }
+
+    /**
+     * Family entity setters resolve indices case.
+     */
+    @Test
+    public void familyEntitySettersResolveIndicesCase() {
+        SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH);
+        FamilyEntity familyEntity = simpleDBUtils.getFamilyDB().get("@F1@");
+        PersonEntity personEntity = simpleDBUtils.getPersonDB().get("@P3@");
+        familyEntity.setMother(personEntity);
+        familyEntity.setChildList(Arrays.asList(familyEntity.getFather(), personEntity));
+        Assert.assertEquals(simpleDBUtils.getPersonIndex("@P3@"), familyEntity.getMotherIndex());
+        Assert.assertSame(personEntity, familyEntity.getMother());
+        Assert.assertEquals(Arrays.asList(familyEntity.getFather(), personEntity), familyEntity.getChildList());
+        SimpleDBUtils draftDBUtils = simpleDBUtils.freeze().thaw();
+        FamilyEntity draftEntity = draftDBUtils.getFamilyDB().get("@F1@");
+        draftEntity.setFather(draftDBUtils.getPersonDB().get("@P3@"));
+        Assert.assertEquals(draftDBUtils.getPersonIndex("@P3@"), draftEntity.getFatherIndex());
+    }
+}
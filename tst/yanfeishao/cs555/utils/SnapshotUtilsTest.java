@@ -0,0 +1,111 @@
+package yanfeishao.cs555.utils;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.entities.FamilyEntity;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * The type Snapshot utils test.
+ */
+public class SnapshotUtilsTest extends TestCases {
+
+    /**
+     * Snapshot round trip happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void snapshotRoundTripHappyCase() throws IOException {
+        File file = File.createTempFile("tree", ".snapshot");
+        file.delete();
+        try {
+            SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH, file.toPath());
+            int errorCount = parserUtils.getErrorCount();
+            int infoCount = parserUtils.getInfoCount();
+            Assert.assertTrue(SnapshotUtils.createSnapshotFactory(file.toPath()).matches(Paths.get(FILE_PATH)));
+            SimpleDBUtils loadedDBUtils = parserUtils.readGEDCOM(FILE_PATH, file.toPath());
+            Assert.assertNotSame(simpleDBUtils, loadedDBUtils);
+            Assert.assertEquals(simpleDBUtils.getPersonDB(), loadedDBUtils.getPersonDB());
+            Assert.assertEquals(simpleDBUtils.getFamilyDB(), loadedDBUtils.getFamilyDB());
+            Assert.assertEquals(simpleDBUtils.getPersonDBList(), loadedDBUtils.getPersonDBList());
+            Assert.assertEquals(simpleDBUtils.getPersonIndex(null), loadedDBUtils.getPersonIndex(null));
+            for (FamilyEntity familyEntity : simpleDBUtils.getFamilyDBList()) {
+                FamilyEntity loadedEntity = loadedDBUtils.getFamilyDB().get(familyEntity.getIdentifier());
+                Assert.assertEquals(familyEntity.getFather(), loadedEntity.getFather());
+                Assert.assertEquals(familyEntity.getMother(), loadedEntity.getMother());
+                Assert.assertEquals(familyEntity.getChildList(), loadedEntity.getChildList());
+            }
+            Assert.assertEquals(errorCount, parserUtils.getErrorCount());
+            Assert.assertEquals(infoCount, parserUtils.getInfoCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Snapshot changed source case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void snapshotChangedSourceCase() throws IOException {
+        File source = File.createTempFile("tree", ".ged");
+        File file = File.createTempFile("tree", ".snapshot");
+        try {
+            Files.copy(Paths.get(FILE_PATH), source.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            parserUtils.readGEDCOM(source.getPath(), file.toPath());
+            SnapshotUtils snapshotUtils = SnapshotUtils.createSnapshotFactory(file.toPath());
+            Assert.assertTrue(snapshotUtils.matches(source.toPath()));
+            FileTime modified = Files.getLastModifiedTime(source.toPath());
+            String content = new String(Files.readAllBytes(source.toPath()), StandardCharsets.UTF_8);
+            Files.write(source.toPath(), content.replace("Darlene", "Marlene").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(source.toPath(), modified);
+            Assert.assertFalse(snapshotUtils.matches(source.toPath()));
+            SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(source.getPath(), file.toPath());
+            Assert.assertTrue(simpleDBUtils.getPersonDBList().stream().anyMatch(personEntity -> personEntity.getName().startsWith("Marlene")));
+            Assert.assertTrue(snapshotUtils.matches(source.toPath()));
+        } finally {
+            source.delete();
+            file.delete();
+        }
+    }
+
+    /**
+     * Snapshot corrupt file case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void snapshotCorruptFileCase() throws IOException {
+        File file = File.createTempFile("tree", ".snapshot");
+        try {
+            parserUtils.readGEDCOM(FILE_PATH, file.toPath());
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            bytes[bytes.length / 2] ^= 0x5A;
+            Files.write(file.toPath(), bytes);
+            try {
+                SnapshotUtils.createSnapshotFactory(file.toPath()).load();
+                Assert.fail();
+            } catch (IOException ioe) {
+                Assert.assertNotNull(ioe.getMessage());
+            }
+            SimpleDBUtils simpleDBUtils = parserUtils.readGEDCOM(FILE_PATH, file.toPath());
+            Assert.assertEquals(PERSON_EXPECTED_SIZE, simpleDBUtils.getPersonDBList().size());
+            Assert.assertEquals(FAMILY_EXPECTED_SIZE, simpleDBUtils.getFamilyDBList().size());
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package yanfeishao.cs555.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.enums.InputMode;
+import yanfeishao.cs555.handler.CountHandler;
+
+/**
+ * The type Stream utils test.
+ */
+public class StreamUtilsTest extends TestCases {
+
+    private static final int LINE_EXPECTED_SIZE = 376;
+
+    /**
+     * Stream count happy case.
+     */
+    @Test
+    public void streamCountHappyCase() {
+        CountHandler countHandler = new CountHandler();
+        Assert.assertTrue(StreamUtils.createStreamFactory().readGEDCOM(FILE_PATH, countHandler));
+        Assert.assertEquals(PERSON_EXPECTED_SIZE, countHandler.getPersonCount());
+        Assert.assertEquals(FAMILY_EXPECTED_SIZE, countHandler.getFamilyCount());
+        Assert.assertEquals(LINE_EXPECTED_SIZE, countHandler.getLineCount());
+    }
+
+    /**
+     * Stream mapped count happy case.
+     */
+    @Test
+    public void streamMappedCountHappyCase() {
+        CountHandler countHandler = new CountHandler();
+        Assert.assertTrue(StreamUtils.createStreamFactory().readGEDCOM(FILE_PATH, InputMode.MAPPED, countHandler));
+        Assert.assertEquals(PERSON_EXPECTED_SIZE, countHandler.getPersonCount());
+        Assert.assertEquals(FAMILY_EXPECTED_SIZE, countHandler.getFamilyCount());
+    }
+
+    /**
+     * Stream bad path case.
+     */
+    @Test (expected = RuntimeException.class)
+    public void streamBadPathCase() {
+        StreamUtils.createStreamFactory().readGEDCOM(FILE_BAD_PATH, new CountHandler());
+    }
+}
@@ -0,0 +1,143 @@
+package yanfeishao.cs555.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import yanfeishao.cs555.abstracts.TestCases;
+import yanfeishao.cs555.entities.LineEntity;
+import yanfeishao.cs555.enums.GedcomTag;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Tokenizer utils test.
+ */
+public class TokenizerUtilsTest extends TestCases {
+
+    private static final int LINE_EXPECTED_SIZE = 376;
+    private static final int WINDOW_SIZE = 16;
+
+    /**
+     * Tokenizer read file happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void tokenizerReadFileHappyCase() throws IOException {
+        try (InputStream inputStream = new FileInputStream(FILE_PATH)) {
+            TokenizerUtils tokenizerUtils = TokenizerUtils.createTokenizerFactory(inputStream);
+            int lines = 0;
+            while (tokenizerUtils.nextLine() != null) {
+                lines++;
+            }
+            Assert.assertEquals(LINE_EXPECTED_SIZE, lines);
+        }
+    }
+
+    /**
+     * Tokenizer line fields happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void tokenizerLineFieldsHappyCase() throws IOException {
+        byte[] content = "0 @P1@ INDI \r\n1 NAME Edwin William /Hague/\r\n2 DATE 21 JAN 1933  \n1 _FREL Natural".getBytes(StandardCharsets.UTF_8);
+        TokenizerUtils tokenizerUtils = TokenizerUtils.createTokenizerFactory(ByteBuffer.wrap(content));
+        LineEntity lineEntity = tokenizerUtils.nextLine();
+        Assert.assertEquals(0, lineEntity.getLevel());
+        Assert.assertEquals("@P1@", lineEntity.getXref());
+        Assert.assertEquals(GedcomTag.INDI, lineEntity.getTag());
+        lineEntity = tokenizerUtils.nextLine();
+        StringBuilder name = new StringBuilder();
+        lineEntity.appendValueTokens(name, "");
+        Assert.assertFalse(lineEntity.hasXref());
+        Assert.assertEquals(GedcomTag.NAME, lineEntity.getTag());
+        Assert.assertEquals("EdwinWilliam/Hague/", name.toString());
+        lineEntity = tokenizerUtils.nextLine();
+        StringBuilder date = new StringBuilder();
+        lineEntity.appendValueTokens(date, "-");
+        Assert.assertEquals(2, lineEntity.getLevel());
+        Assert.assertEquals("21-JAN-1933", date.toString());
+        lineEntity = tokenizerUtils.nextLine();
+        Assert.assertNull(lineEntity.getTag());
+        Assert.assertEquals("Natural", lineEntity.getFirstValue());
+        Assert.assertNull(tokenizerUtils.nextLine());
+    }
+
+    /**
+     * Tokenizer long line happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void tokenizerLongLineHappyCase() throws IOException {
+        StringBuilder note = new StringBuilder();
+        for (int index = 0; index < 100000; index++) {
+            note.append('x');
+        }
+        byte[] content = ("0 NOTE " + note + "\n0 TRLR\n").getBytes(StandardCharsets.UTF_8);
+        TokenizerUtils tokenizerUtils = TokenizerUtils.createTokenizerFactory(new ByteArrayInputStream(content));
+        Assert.assertEquals(note.toString(), tokenizerUtils.nextLine().getValue());
+        Assert.assertEquals(GedcomTag.TRLR, tokenizerUtils.nextLine().getTag());
+        Assert.assertNull(tokenizerUtils.nextLine());
+    }
+
+    /**
+     * Tokenizer mapped windows happy case.
+     *
+     * @throws IOException
+     *         the io exception
+     */
+    @Test
+    public void tokenizerMappedWindowsHappyCase() throws IOException {
+        List<String> streamLines = new ArrayList<>();
+        try (InputStream inputStream = new FileInputStream(FILE_PATH)) {
+            TokenizerUtils tokenizerUtils = TokenizerUtils.createTokenizerFactory(inputStream);
+            for (LineEntity lineEntity = tokenizerUtils.nextLine(); lineEntity != null; lineEntity = tokenizerUtils.nextLine()) {
+                streamLines.add(lineEntity.toString());
+            }
+        }
+        List<String> mappedLines = new ArrayList<>();
+        try (FileInputStream inputStream = new FileInputStream(FILE_PATH)) {
+            FileChannel fileChannel = inputStream.getChannel();
+            TokenizerUtils tokenizerUtils = TokenizerUtils.createTokenizerFactory(fileChannel, 0, fileChannel.size(), WINDOW_SIZE);
+            for (LineEntity lineEntity = tokenizerUtils.nextLine(); lineEntity != null; lineEntity = tokenizerUtils.nextLine()) {
+                mappedLines.add(lineEntity.toString());
+            }
+        }
+        Assert.assertEquals(LINE_EXPECTED_SIZE, mappedLines.size());
+        Assert.assertEquals(streamLines, mappedLines);
+    }
+
+    /**
+     * Tokenizer tag lookup happy case.
+     */
+    @Test
+    public void tokenizerTagLookupHappyCase() {
+        for (GedcomTag gedcomTag : GedcomTag.values()) {
+            Assert.assertEquals(gedcomTag, findTag(gedcomTag.toString()));
+        }
+        for (String tag : tagsUtils.getTagSets()) {
+            Assert.assertEquals(tag, findTag(tag).toString());
+        }
+        Assert.assertNull(findTag("FAMX"));
+        Assert.assertNull(findTag("fam"));
+        Assert.assertNull(findTag("_MREL"));
+        Assert.assertNull(findTag("FA"));
+    }
+
+    private static GedcomTag findTag(String tag) {
+        byte[] bytes = tag.getBytes(StandardCharsets.US_ASCII);
+        return GedcomTag.find(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+}